@@ -0,0 +1,95 @@
+package org.nullable.papyrology.analysis;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.nullable.papyrology.analysis.StaticAnalyzer.Issue;
+import org.nullable.papyrology.ast.Identifier;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.ast.WalkingVisitor.Walker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares running several {@link WalkingStaticAnalyzer WalkingStaticAnalyzers} over a {@link
+ * Script} with a {@link FusedStaticAnalyzer} against running each of them on its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FusedStaticAnalyzerBenchmark {
+
+  @Param({"1", "4", "16"})
+  public int analyzerCount;
+
+  private Script script;
+  private ImmutableList<WalkingStaticAnalyzer> analyzers;
+  private FusedStaticAnalyzer fused;
+
+  @Setup
+  public void setUp() throws IOException {
+    try (InputStream stream = ScriptParser.class.getResourceAsStream("warmup.psc")) {
+      script = ScriptParser.create().parse(new String(stream.readAllBytes(), UTF_8));
+    }
+    ImmutableList.Builder<WalkingStaticAnalyzer> builder = ImmutableList.builder();
+    for (int i = 0; i < analyzerCount; i++) {
+      builder.add(new IdentifierLengthAnalyzer(/* maximumLength= */ 24 + i));
+    }
+    analyzers = builder.build();
+    fused = FusedStaticAnalyzer.create(analyzers);
+  }
+
+  @Benchmark
+  public ImmutableList<Issue> fused() {
+    return fused.analyze(script);
+  }
+
+  @Benchmark
+  public int sequential() {
+    int issues = 0;
+    for (WalkingStaticAnalyzer analyzer : analyzers) {
+      issues += analyzer.analyze(script).size();
+    }
+    return issues;
+  }
+
+  /** A cheap, representative check: flags every overly long {@link Identifier}. */
+  private static final class IdentifierLengthAnalyzer implements WalkingStaticAnalyzer {
+    private final int maximumLength;
+
+    private IdentifierLengthAnalyzer(int maximumLength) {
+      this.maximumLength = maximumLength;
+    }
+
+    @Override
+    public Walker createWalker(Consumer<Issue> issues) {
+      return new Walker() {
+        @Override
+        protected void touch(Identifier identifier) {
+          if (identifier.value().length() > maximumLength) {
+            issues.accept(
+                Issue.pedantic(
+                    identifier.sourceReference(), "%s is too long", identifier.value()));
+          }
+        }
+      };
+    }
+  }
+}
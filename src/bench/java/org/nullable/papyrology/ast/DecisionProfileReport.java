@@ -0,0 +1,34 @@
+package org.nullable.papyrology.ast;
+
+import org.nullable.papyrology.testing.CorpusGenerator;
+
+/**
+ * Profiles every prediction decision of the grammar over a synthetic corpus (see {@link
+ * CorpusGenerator}) and prints the {@link DecisionProfile#report() report}.
+ *
+ * <p>Takes the number of scripts to generate (defaulting to 1000) and the seed of the corpus
+ * (defaulting to that of {@link CorpusGenerator}) as optional arguments.
+ */
+public final class DecisionProfileReport {
+
+  public static void main(String[] args) {
+    CorpusGenerator.Builder corpus = CorpusGenerator.builder();
+    corpus.setScriptCount(args.length > 0 ? Integer.parseInt(args[0]) : 1_000);
+    if (args.length > 1) {
+      corpus.setSeed(Long.parseLong(args[1]));
+    }
+    CorpusGenerator generator = corpus.build();
+    DecisionProfile profile = DecisionProfile.create();
+    ScriptParser parser =
+        ScriptParser.builder()
+            .setPredictionCache(PredictionCache.create())
+            .setDecisionProfile(profile)
+            .build();
+    for (int i = 0; i < generator.scriptCount(); i++) {
+      Script unused = parser.parse(generator.source(i));
+    }
+    System.out.print(profile.report());
+  }
+
+  private DecisionProfileReport() {}
+}
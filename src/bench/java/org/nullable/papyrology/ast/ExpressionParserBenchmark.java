@@ -0,0 +1,64 @@
+package org.nullable.papyrology.ast;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ScriptParser#parse(String)} on a script whose statements are each a single,
+ * long, expression of the given number of {@code operands}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionParserBenchmark {
+
+  private static final int STATEMENTS = 20;
+  private static final String[] OPERATORS = {
+    "+", "*", "-", "==", "/", "&&", "%", "<", "||", ">=",
+  };
+  private static final String[] OPERANDS = {
+    "a", "1", "b.c", "f(2, d)", "e[3]", "g.h(i)", "-j", "(k + 4)", "l as Int", "m.Length",
+  };
+
+  @Param({"10", "100", "500"})
+  public int operands;
+
+  private String source;
+  private ScriptParser parser;
+
+  @Setup
+  public void setUp() {
+    StringBuilder builder = new StringBuilder("ScriptName Expressions\n\nFunction Run()\n");
+    for (int i = 0; i < STATEMENTS; i++) {
+      builder.append("  x = ").append(OPERANDS[i % OPERANDS.length]);
+      for (int j = 1; j < operands; j++) {
+        builder
+            .append(' ')
+            .append(OPERATORS[(i + j) % OPERATORS.length])
+            .append(' ')
+            .append(OPERANDS[(i * 7 + j) % OPERANDS.length]);
+      }
+      builder.append('\n');
+    }
+    source = builder.append("EndFunction\n").toString();
+    parser = ScriptParser.create();
+  }
+
+  @Benchmark
+  public Script parse() {
+    return parser.parse(source);
+  }
+}
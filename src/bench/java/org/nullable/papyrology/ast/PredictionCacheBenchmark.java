@@ -0,0 +1,81 @@
+package org.nullable.papyrology.ast;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long the first parse in a process takes with a cold and a warmed {@link
+ * PredictionCache}, as well as the cost of warming one up.
+ *
+ * <p>Every invocation uses a brand new {@code PredictionCache}, so each measurement is a "first
+ * parse" as far as ANTLR is concerned (while the JIT is allowed to warm up as usual).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+@Fork(3)
+@State(Scope.Thread)
+public class PredictionCacheBenchmark {
+
+  @Param({"COLD", "WARM"})
+  public Temperature temperature;
+
+  private String source;
+  private ScriptParser parser;
+
+  /** The state of the {@link PredictionCache} prior to the measured parse. */
+  public enum Temperature {
+    COLD,
+    WARM
+  }
+
+  @Setup(Level.Trial)
+  public void createSource() {
+    StringBuilder builder = new StringBuilder("ScriptName StartUp Extends Quest\n");
+    for (int i = 0; i < 50; i++) {
+      builder
+          .append("Int Property Value").append(i).append(" = ").append(i).append(" Auto\n")
+          .append("Float Function Compute").append(i).append("(Int a, Float b = 1.0)\n")
+          .append("  Float result = (a + b) * Value").append(i).append(" / 2.0\n")
+          .append("  If result > 10.0 && a != 0\n")
+          .append("    result = Compute").append(i).append("(a - 1, b As Float)\n")
+          .append("  ElseIf !(result < 0.0)\n")
+          .append("    GetOwningQuest().SetStage(10)\n")
+          .append("  EndIf\n")
+          .append("  Return result\n")
+          .append("EndFunction\n");
+    }
+    source = builder.toString();
+  }
+
+  @Setup(Level.Invocation)
+  public void createParser() {
+    PredictionCache cache = PredictionCache.create();
+    if (temperature == Temperature.WARM) {
+      cache.warm();
+    }
+    parser = ScriptParser.builder().setPredictionCache(cache).build();
+  }
+
+  @Benchmark
+  public Script firstParse() {
+    return parser.parse(source);
+  }
+
+  @Benchmark
+  public PredictionCache warmUp() {
+    return PredictionCache.create().warm();
+  }
+}
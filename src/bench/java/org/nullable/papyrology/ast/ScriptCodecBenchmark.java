@@ -0,0 +1,56 @@
+package org.nullable.papyrology.ast;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.CharStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares producing a {@link Script} by parsing its source against decoding it with {@link
+ * ScriptCodec} (i.e. a {@link PersistentScriptCache} hit).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScriptCodecBenchmark {
+
+  private final ScriptParser parser = ScriptParser.create();
+
+  private String content;
+  private ByteBuffer encoded;
+
+  @Setup
+  public void encode() throws IOException {
+    try (InputStream stream = ScriptCodec.class.getResourceAsStream("warmup.psc")) {
+      content = new String(stream.readAllBytes(), UTF_8);
+    }
+    byte[] bytes = ScriptCodec.encode(parser.parse(content));
+    encoded = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+  }
+
+  @Benchmark
+  public Script parse() {
+    return parser.parse(CharStreams.fromString(content, "warmup.psc"));
+  }
+
+  @Benchmark
+  public Script decode() {
+    return ScriptCodec.decode(encoded, CharStreams.fromString(content, "warmup.psc"));
+  }
+}
@@ -0,0 +1,50 @@
+package org.nullable.papyrology.ast;
+
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.nullable.papyrology.bench.BenchmarkScripts;
+import org.nullable.papyrology.bench.BenchmarkScripts.Size;
+import org.nullable.papyrology.grammar.PapyrusLexer;
+import org.nullable.papyrology.grammar.PapyrusParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building a {@link Script} AST from an existing parse tree with {@link ScriptFactory}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScriptFactoryBenchmark {
+
+  @Param({"SMALL", "MEDIUM", "HUGE"})
+  public Size size;
+
+  private ParseTree tree;
+
+  @Setup
+  public void setUp() {
+    PapyrusLexer lexer =
+        new PapyrusLexer(CharStreams.fromString(BenchmarkScripts.source("Built", size)));
+    tree = new PapyrusParser(new CommonTokenStream(lexer)).script();
+  }
+
+  @Benchmark
+  public Script create() {
+    return ScriptFactory.create(tree);
+  }
+}
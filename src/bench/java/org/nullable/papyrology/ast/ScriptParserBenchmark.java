@@ -0,0 +1,49 @@
+package org.nullable.papyrology.ast;
+
+import java.util.concurrent.TimeUnit;
+import org.nullable.papyrology.bench.BenchmarkScripts;
+import org.nullable.papyrology.bench.BenchmarkScripts.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ScriptParser#parse(String)} from source to {@link Script}, both building the AST
+ * from a complete parse tree and building it incrementally.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScriptParserBenchmark {
+
+  @Param({"SMALL", "MEDIUM", "HUGE"})
+  public Size size;
+
+  @Param({"false", "true"})
+  public boolean buildIncrementally;
+
+  private String source;
+  private ScriptParser parser;
+
+  @Setup
+  public void setUp() {
+    source = BenchmarkScripts.source("Parsed", size);
+    parser = ScriptParser.builder().setBuildIncrementally(buildIncrementally).build();
+  }
+
+  @Benchmark
+  public Script parse() {
+    return parser.parse(source);
+  }
+}
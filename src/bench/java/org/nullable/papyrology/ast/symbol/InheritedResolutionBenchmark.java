@@ -0,0 +1,57 @@
+package org.nullable.papyrology.ast.symbol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.nullable.papyrology.ast.Identifier;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of resolving a member that is inherited from the root of an {@code Extends}
+ * chain, as a function of the depth of that chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InheritedResolutionBenchmark {
+
+  @Param({"1", "4", "16"})
+  public int depth;
+
+  private Resolver resolver;
+  private Identifier rootFunction;
+
+  @Setup
+  public void setUp() {
+    ScriptParser parser = ScriptParser.create();
+    List<Script> scripts = new ArrayList<>();
+    scripts.add(parser.parse("ScriptName Level0\nFunction RootFunction()\nEndFunction\n"));
+    for (int i = 1; i <= depth; i++) {
+      scripts.add(parser.parse("ScriptName Level" + i + " Extends Level" + (i - 1) + "\n"));
+    }
+    SymbolTable symbolTable = SymbolTable.create();
+    symbolTable.upsertAll(scripts);
+    resolver = symbolTable.resolver(new Identifier(/* sourceReference= */ null, "Level" + depth));
+    rootFunction = new Identifier(/* sourceReference= */ null, "RootFunction");
+  }
+
+  @Benchmark
+  public Symbol resolveInherited() {
+    return resolver.resolve(rootFunction);
+  }
+}
@@ -0,0 +1,76 @@
+package org.nullable.papyrology.ast.symbol;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.nullable.papyrology.ast.Block;
+import org.nullable.papyrology.ast.ConstructIndex;
+import org.nullable.papyrology.ast.Identifier;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures resolving identifiers from the innermost of {@code depth} nested blocks, as a function
+ * of how far up the chain of enclosing scopes they are defined.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScopeResolveBenchmark {
+
+  @Param({"1", "8", "64"})
+  public int depth;
+
+  private Resolver resolver;
+  private final Identifier local = new Identifier(/* sourceReference= */ null, "local");
+  private final Identifier parameter = new Identifier(/* sourceReference= */ null, "parameter");
+  private final Identifier member = new Identifier(/* sourceReference= */ null, "member");
+
+  @Setup
+  public void setUp() {
+    StringBuilder builder = new StringBuilder("ScriptName Nested\nInt member\n");
+    builder.append("Function Foo(Int parameter)\n");
+    for (int i = 0; i < depth; i++) {
+      builder.append("If parameter > ").append(i).append("\n");
+    }
+    builder.append("Int local = 0\n");
+    for (int i = 0; i < depth; i++) {
+      builder.append("EndIf\n");
+    }
+    builder.append("EndFunction\n");
+    Script script = ScriptParser.create().parse(builder.toString());
+    SymbolTable symbolTable = SymbolTable.create();
+    symbolTable.upsert(script);
+    // Blocks are indexed in source order, so the last one is the innermost.
+    List<Block> blocks = ConstructIndex.of(script).all(Block.class);
+    resolver = symbolTable.resolver(blocks.get(blocks.size() - 1));
+  }
+
+  @Benchmark
+  public Symbol resolveLocal() {
+    return resolver.resolve(local);
+  }
+
+  @Benchmark
+  public Symbol resolveParameter() {
+    return resolver.resolve(parameter);
+  }
+
+  @Benchmark
+  public Symbol resolveMember() {
+    return resolver.resolve(member);
+  }
+}
@@ -0,0 +1,54 @@
+package org.nullable.papyrology.ast.symbol;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.testing.CorpusGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building a {@link SymbolTable} for an entire synthetic project (see {@link
+ * CorpusGenerator}) with {@link SymbolTable#upsertAll}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SymbolTableCorpusBenchmark {
+
+  @Param({"1000", "10000"})
+  public int scripts;
+
+  private List<Script> corpus;
+
+  @Setup
+  public void setUp() {
+    CorpusGenerator generator = CorpusGenerator.builder().setScriptCount(scripts).build();
+    ScriptParser parser = ScriptParser.create();
+    corpus = new ArrayList<>(scripts);
+    for (int i = 0; i < scripts; i++) {
+      corpus.add(parser.parse(generator.source(i)));
+    }
+  }
+
+  @Benchmark
+  public SymbolTable upsertAll() {
+    SymbolTable symbolTable = SymbolTable.create();
+    symbolTable.upsertAll(corpus);
+    return symbolTable;
+  }
+}
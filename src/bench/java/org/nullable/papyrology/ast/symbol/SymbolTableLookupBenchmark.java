@@ -0,0 +1,67 @@
+package org.nullable.papyrology.ast.symbol;
+
+import java.util.concurrent.TimeUnit;
+import org.nullable.papyrology.ast.Function;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of {@link SymbolTable#resolver(org.nullable.papyrology.ast.Construct)} as a
+ * function of the size of the body of the {@link Function} being looked up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymbolTableLookupBenchmark {
+
+  @Param({"1", "10", "100", "1000"})
+  public int bodyStatements;
+
+  private SymbolTable symbolTable;
+  private Script script;
+  private Function function;
+
+  @Setup
+  public void setUp() {
+    StringBuilder builder =
+        new StringBuilder("ScriptName Lookup\nInt Function Sum(Int a, Int b)\n  Int total = 0\n");
+    for (int i = 0; i < bodyStatements; i++) {
+      builder.append("  If a > ").append(i).append("\n    total += a * b - ").append(i);
+      builder.append("\n  EndIf\n");
+    }
+    builder.append("  Return total\nEndFunction\n");
+    script = ScriptParser.create().parse(builder.toString());
+    function = (Function) script.declarations().get(0);
+    symbolTable = SymbolTable.create();
+    symbolTable.upsert(script);
+  }
+
+  @Benchmark
+  public Resolver resolveFunction() {
+    return symbolTable.resolver(function);
+  }
+
+  @Benchmark
+  public Resolver resolveScript() {
+    return symbolTable.resolver(script);
+  }
+
+  @Benchmark
+  public boolean upsert() {
+    return symbolTable.upsert(script);
+  }
+}
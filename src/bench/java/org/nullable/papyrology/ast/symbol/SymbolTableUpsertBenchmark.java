@@ -0,0 +1,45 @@
+package org.nullable.papyrology.ast.symbol;
+
+import java.util.concurrent.TimeUnit;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.bench.BenchmarkScripts;
+import org.nullable.papyrology.bench.BenchmarkScripts.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures {@link SymbolTable#upsert(Script)}, i.e. walking a {@link Script} for its symbols. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SymbolTableUpsertBenchmark {
+
+  @Param({"SMALL", "MEDIUM", "HUGE"})
+  public Size size;
+
+  private Script script;
+  private SymbolTable symbolTable;
+
+  @Setup
+  public void setUp() {
+    script = ScriptParser.create().parse(BenchmarkScripts.source("Upserted", size));
+    symbolTable = SymbolTable.create();
+  }
+
+  @Benchmark
+  public boolean upsert() {
+    return symbolTable.upsert(script);
+  }
+}
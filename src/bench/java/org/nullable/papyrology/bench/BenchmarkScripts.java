@@ -0,0 +1,50 @@
+package org.nullable.papyrology.bench;
+
+/** Deterministic Papyrus sources of a few representative sizes, for use in benchmarks. */
+public final class BenchmarkScripts {
+
+  /** The size of a benchmark script. */
+  public enum Size {
+    /** A handful of members, like most quest fragments. */
+    SMALL(4),
+    /** A typical gameplay script. */
+    MEDIUM(100),
+    /** A large, machine-generated script (roughly 20k lines). */
+    HUGE(2_000);
+
+    private final int functions;
+
+    Size(int functions) {
+      this.functions = functions;
+    }
+  }
+
+  private BenchmarkScripts() {}
+
+  /** Returns the source of a valid {@code Script} of the given {@link Size} and {@code name}. */
+  public static String source(String name, Size size) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("ScriptName ").append(name).append(" Extends Quest\n");
+    builder.append("Import Debug\n");
+    for (int i = 0; i < size.functions; i++) {
+      builder
+          .append("Int Property Value").append(i).append(" = ").append(i).append(" Auto\n")
+          .append("Float Function Compute").append(i).append("(Int a, Float b = 1.0)\n")
+          .append("  Float result = (a + b) * Value").append(i).append(" / 2.0\n")
+          .append("  Int count = 0\n")
+          .append("  While count < a && result > 0.0\n")
+          .append("    If result > 10.0 && a != 0\n")
+          .append("      result = Compute").append(i).append("(a - 1, b As Float)\n")
+          .append("    ElseIf !(result < 0.0)\n")
+          .append("      GetOwningQuest().SetStage(10)\n")
+          .append("    Else\n")
+          .append("      Trace(\"Value \" + count + \" is \" + result)\n")
+          .append("    EndIf\n")
+          .append("    count += 1\n")
+          .append("  EndWhile\n")
+          .append("  Return result\n")
+          .append("EndFunction\n");
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,103 @@
+package org.nullable.papyrology.grammar;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.nullable.papyrology.bench.BenchmarkScripts;
+import org.nullable.papyrology.bench.BenchmarkScripts.Size;
+import org.nullable.papyrology.source.file.ByteBufferCharStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the token throughput of the {@link PapyrusLexer} and the {@link PapyrusTokenizer}, the
+ * latter both over a {@code String} and over a memory-mapped file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LexerBenchmark {
+
+  @Param({"SMALL", "MEDIUM", "HUGE"})
+  public Size size;
+
+  private String source;
+  private Path file;
+  private ByteBuffer mapped;
+
+  @Setup
+  public void setUp() throws IOException {
+    source = BenchmarkScripts.source("Lexed", size);
+    file = Files.createTempFile("Lexed", ".psc");
+    Files.writeString(file, source, UTF_8);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.delete(file);
+  }
+
+  /** Lexes every token of the source, returning how many there were. */
+  @Benchmark
+  public int tokens() {
+    CharStream input = CharStreams.fromString(source);
+    PapyrusLexer lexer = new PapyrusLexer(input);
+    int tokens = 0;
+    while (lexer.nextToken().getType() != Token.EOF) {
+      tokens++;
+    }
+    return tokens;
+  }
+
+  /** Tokenizes every token of the source, returning how many there were. */
+  @Benchmark
+  public int tokenizerTokens() {
+    CharStream input = CharStreams.fromString(source);
+    PapyrusTokenizer tokenizer = PapyrusTokenizer.create(input);
+    int tokens = 0;
+    while (tokenizer.nextToken().getType() != Token.EOF) {
+      tokens++;
+    }
+    return tokens;
+  }
+
+  /**
+   * Tokenizes every token of the memory-mapped source, returning how many there were. Besides the
+   * tokens themselves, this shouldn't allocate anything proportional to the size of the source.
+   */
+  @Benchmark
+  public int mappedTokenizerTokens() {
+    CharStream input = ByteBufferCharStream.create(mapped, "Lexed.psc");
+    PapyrusTokenizer tokenizer = PapyrusTokenizer.create(input);
+    int tokens = 0;
+    while (tokenizer.nextToken().getType() != Token.EOF) {
+      tokens++;
+    }
+    return tokens;
+  }
+}
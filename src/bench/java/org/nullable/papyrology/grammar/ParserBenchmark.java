@@ -0,0 +1,80 @@
+package org.nullable.papyrology.grammar;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.nullable.papyrology.bench.BenchmarkScripts;
+import org.nullable.papyrology.bench.BenchmarkScripts.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PapyrusParser#script()} in both {@link PredictionMode#SLL} and {@link
+ * PredictionMode#LL}, on tokens that have already been lexed, as well as lexing and parsing with
+ * the tokens held in a {@link CommonTokenStream} compared to a {@link TokenBuffer}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+  @Param({"SMALL", "MEDIUM", "HUGE"})
+  public Size size;
+
+  @Param({"SLL", "LL"})
+  public String predictionMode;
+
+  private String source;
+  private List<? extends Token> tokens;
+
+  @Setup
+  public void setUp() {
+    source = BenchmarkScripts.source("Parsed", size);
+    PapyrusLexer lexer = new PapyrusLexer(CharStreams.fromString(source));
+    tokens = lexer.getAllTokens();
+  }
+
+  @Benchmark
+  public ParseTree script() {
+    return parse(new CommonTokenStream(new ListTokenSource(tokens)));
+  }
+
+  @Benchmark
+  public ParseTree commonTokenStream() {
+    PapyrusTokenizer tokenizer = PapyrusTokenizer.create(CharStreams.fromString(source));
+    return parse(new CommonTokenStream(tokenizer));
+  }
+
+  @Benchmark
+  public ParseTree tokenBuffer() {
+    PapyrusTokenizer tokenizer = PapyrusTokenizer.create(CharStreams.fromString(source));
+    return parse(TokenBuffer.create(tokenizer).stream());
+  }
+
+  private ParseTree parse(TokenStream tokens) {
+    PapyrusParser parser = new PapyrusParser(tokens);
+    parser.removeErrorListeners();
+    parser.setErrorHandler(new BailErrorStrategy());
+    parser.getInterpreter().setPredictionMode(PredictionMode.valueOf(predictionMode));
+    return parser.script();
+  }
+}
@@ -0,0 +1,75 @@
+package org.nullable.papyrology.source.file;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long {@link FileSystemBasedSourceFileLoader} takes to enumerate every script of a
+ * project spread over several (in-memory) roots.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SourceFileLoaderBenchmark {
+
+  private static final int ROOTS = 4;
+  private static final int SCRIPTS_PER_DIRECTORY = 100;
+
+  @Param({"100", "10000"})
+  public int scripts;
+
+  private FileSystem fileSystem;
+  private ImmutableList<String> roots;
+
+  @Setup
+  public void setUp() throws IOException {
+    fileSystem = Jimfs.newFileSystem(Configuration.unix());
+    ImmutableList.Builder<String> roots = ImmutableList.builder();
+    for (int root = 0; root < ROOTS; root++) {
+      roots.add("/mods/mod" + root);
+    }
+    this.roots = roots.build();
+    for (int i = 0; i < scripts; i++) {
+      Path directory =
+          fileSystem.getPath(
+              this.roots.get(i % ROOTS), "scripts", "source", "d" + (i / SCRIPTS_PER_DIRECTORY));
+      Files.createDirectories(directory);
+      Files.writeString(directory.resolve("Script" + i + ".psc"), "ScriptName Script" + i, UTF_8);
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    fileSystem.close();
+  }
+
+  /** Indexes every root (in parallel) and lists every script. */
+  @Benchmark
+  public ImmutableSortedSet<String> enumerate() {
+    return FileSystemBasedSourceFileLoader.create(fileSystem, roots).identifiers();
+  }
+}
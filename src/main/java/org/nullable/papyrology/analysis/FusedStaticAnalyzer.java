@@ -0,0 +1,41 @@
+package org.nullable.papyrology.analysis;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.WalkingVisitor;
+import org.nullable.papyrology.ast.WalkingVisitor.Walker;
+
+/**
+ * A {@link StaticAnalyzer} that runs several {@link WalkingStaticAnalyzer WalkingStaticAnalyzers}
+ * over a {@link Script} in a single traversal.
+ *
+ * <p>Every {@code Construct} is visited once and handed to each analyzer's {@link Walker} in turn,
+ * so the cost of the traversal itself doesn't grow with the number of analyzers. The {@link Issue
+ * Issues} of all analyzers are reported in the order they were found (rather than grouped by
+ * analyzer).
+ */
+public final class FusedStaticAnalyzer implements StaticAnalyzer {
+
+  private final ImmutableList<WalkingStaticAnalyzer> analyzers;
+
+  private FusedStaticAnalyzer(ImmutableList<WalkingStaticAnalyzer> analyzers) {
+    this.analyzers = analyzers;
+  }
+
+  /** Returns a new {@code FusedStaticAnalyzer} that runs all of the given analyzers. */
+  public static FusedStaticAnalyzer create(Collection<? extends WalkingStaticAnalyzer> analyzers) {
+    return new FusedStaticAnalyzer(ImmutableList.copyOf(analyzers));
+  }
+
+  @Override
+  public ImmutableList<Issue> analyze(Script script) {
+    ImmutableList.Builder<Issue> issues = ImmutableList.builder();
+    ImmutableList<Walker> walkers =
+        analyzers.stream().map(a -> a.createWalker(issues::add)).collect(toImmutableList());
+    WalkingVisitor.create(walkers).visit(script);
+    return issues.build();
+  }
+}
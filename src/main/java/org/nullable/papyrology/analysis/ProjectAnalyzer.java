@@ -0,0 +1,150 @@
+package org.nullable.papyrology.analysis;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import org.nullable.papyrology.analysis.StaticAnalyzer.Issue;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.ast.SyntaxException;
+import org.nullable.papyrology.metrics.Phase;
+import org.nullable.papyrology.metrics.PhaseTimer;
+import org.nullable.papyrology.metrics.PipelineMetrics;
+import org.nullable.papyrology.source.file.SourceFileLoadException;
+import org.nullable.papyrology.source.file.SourceFileLoader;
+
+/**
+ * Runs a set of {@link StaticAnalyzer StaticAnalyzers} over every {@link Script} of a project.
+ *
+ * <p>Each {@code Script} is loaded, parsed and analyzed on its own virtual thread (whose carrier
+ * threads form a work-stealing pool), so a project is analyzed with as much parallelism as there
+ * are processors. At most {@code maximumInFlight} {@code Scripts} are being processed at any time,
+ * which bounds the number of source files and ASTs held in memory at once.
+ *
+ * <p>The given {@code StaticAnalyzers} (and {@link SourceFileLoader}) must be thread-safe.
+ */
+public final class ProjectAnalyzer {
+
+  /**
+   * The order of the {@link Issue Issues} returned by {@link #analyze(Collection)}: by source,
+   * then by position in that source.
+   */
+  private static final Comparator<Issue> ISSUE_ORDER =
+      Comparator.comparing((Issue issue) -> issue.getSourceReference().getSourceName())
+          .thenComparingInt(issue -> issue.getSourceReference().getLine())
+          .thenComparingInt(issue -> issue.getSourceReference().getColumn())
+          .thenComparing(Issue::getCategory)
+          .thenComparing(Issue::getMessage);
+
+  private final SourceFileLoader loader;
+  private final ScriptParser parser;
+  private final ImmutableList<StaticAnalyzer> analyzers;
+  private final int maximumInFlight;
+
+  private ProjectAnalyzer(
+      SourceFileLoader loader,
+      ScriptParser parser,
+      ImmutableList<StaticAnalyzer> analyzers,
+      int maximumInFlight) {
+    this.loader = loader;
+    this.parser = parser;
+    this.analyzers = analyzers;
+    this.maximumInFlight = maximumInFlight;
+  }
+
+  /**
+   * Returns a new {@code ProjectAnalyzer} that loads {@code Scripts} with the given {@link
+   * SourceFileLoader}, parses them with the given {@link ScriptParser} and runs all of the given
+   * {@code analyzers} over them, processing up to two {@code Scripts} per processor at a time.
+   */
+  public static ProjectAnalyzer create(
+      SourceFileLoader loader,
+      ScriptParser parser,
+      Collection<? extends StaticAnalyzer> analyzers) {
+    return create(loader, parser, analyzers, 2 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Returns a new {@code ProjectAnalyzer} that processes at most {@code maximumInFlight} {@code
+   * Scripts} at a time.
+   *
+   * @see #create(SourceFileLoader, ScriptParser, Collection)
+   */
+  public static ProjectAnalyzer create(
+      SourceFileLoader loader,
+      ScriptParser parser,
+      Collection<? extends StaticAnalyzer> analyzers,
+      int maximumInFlight) {
+    checkArgument(
+        maximumInFlight > 0, "ProjectAnalyzer::create passed a non-positive maximumInFlight.");
+    return new ProjectAnalyzer(loader, parser, ImmutableList.copyOf(analyzers), maximumInFlight);
+  }
+
+  /**
+   * Analyzes the {@code Scripts} with the given {@code identifiers} and returns every {@link Issue}
+   * found, sorted by source and position (so the result doesn't depend on scheduling).
+   *
+   * <p>A {@code Script} that fails to parse is reported as a single {@link Issue.Category#ERROR}
+   * {@code Issue} (and isn't analyzed further).
+   *
+   * @throws SourceFileLoadException if any of the {@code Scripts} is unable to be loaded.
+   */
+  public ImmutableList<Issue> analyze(Collection<String> identifiers) {
+    Queue<Issue> issues = new ConcurrentLinkedQueue<>();
+    Semaphore inFlight = new Semaphore(maximumInFlight);
+    List<Future<?>> futures = new ArrayList<>(identifiers.size());
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (String identifier : identifiers) {
+        inFlight.acquireUninterruptibly();
+        futures.add(
+            executor.submit(
+                () -> {
+                  try {
+                    analyze(identifier, issues);
+                  } finally {
+                    inFlight.release();
+                  }
+                }));
+      }
+    }
+    for (Future<?> future : futures) {
+      try {
+        Uninterruptibles.getUninterruptibly(future);
+      } catch (ExecutionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+    return ImmutableList.sortedCopyOf(ISSUE_ORDER, issues);
+  }
+
+  private void analyze(String identifier, Queue<Issue> issues) {
+    Script script;
+    try {
+      script = parser.parse(loader.load(identifier));
+    } catch (SyntaxException e) {
+      issues.add(Issue.error(e.getSourceReference(), "%s", e.getMessage()));
+      return;
+    }
+    try (PhaseTimer timer = PipelineMetrics.global().start(Phase.ANALYZE, identifier)) {
+      // Report the name the script declares, rather than however it was referred to.
+      timer.setScript(script.header().scriptIdentifier().value());
+      for (StaticAnalyzer analyzer : analyzers) {
+        issues.addAll(analyzer.analyze(script));
+      }
+    }
+  }
+}
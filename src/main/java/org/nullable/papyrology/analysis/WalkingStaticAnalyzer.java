@@ -0,0 +1,29 @@
+package org.nullable.papyrology.analysis;
+
+import com.google.common.collect.ImmutableList;
+import java.util.function.Consumer;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.WalkingVisitor;
+import org.nullable.papyrology.ast.WalkingVisitor.Walker;
+
+/**
+ * A {@link StaticAnalyzer} that finds its {@link Issue Issues} with a {@link Walker}.
+ *
+ * <p>Several {@code WalkingStaticAnalyzers} can be run in a single traversal of a {@link Script}
+ * with a {@link FusedStaticAnalyzer}.
+ */
+public interface WalkingStaticAnalyzer extends StaticAnalyzer {
+
+  /**
+   * Returns a new {@link Walker} that reports every {@link Issue} it finds to the given {@code
+   * issues} {@link Consumer}. Each {@code Walker} is only used to walk a single {@link Script}.
+   */
+  Walker createWalker(Consumer<Issue> issues);
+
+  @Override
+  default ImmutableList<Issue> analyze(Script script) {
+    ImmutableList.Builder<Issue> issues = ImmutableList.builder();
+    WalkingVisitor.create(createWalker(issues::add)).visit(script);
+    return issues.build();
+  }
+}
@@ -1,7 +1,7 @@
 package org.nullable.papyrology.ast;
 
 import com.google.errorprone.annotations.Immutable;
-import org.nullable.papyrology.grammar.PapyrusParser.ArrayInitializationContext;
+import org.antlr.v4.runtime.Token;
 import org.nullable.papyrology.source.SourceReference;
 
 /** An expression that evaluates to a newly initialized array. */
@@ -15,16 +15,15 @@ public record ArrayInitialization(SourceReference sourceReference, Type type, In
   }
 
   /**
-   * Returns a new {@code ArrayInitialization} based on the given {@link
-   * ArrayInitializationContext}.
+   * Returns a new {@code ArrayInitialization} of the given {@link Type}, whose size is the given
+   * {@link Token}.
    */
-  static ArrayInitialization create(ArrayInitializationContext ctx) {
-    IntegerLiteral sizeLiteral = IntegerLiteral.create(ctx.L_UINT());
+  static ArrayInitialization create(SourceReference sourceReference, Type type, Token size) {
+    IntegerLiteral sizeLiteral = IntegerLiteral.create(size);
     if (sizeLiteral.value() > 128) {
       throw new SyntaxException(
-          SourceReference.create(ctx.L_UINT()), "Array size cannot be greater than 128");
+          SourceReference.create(size), "Array size cannot be greater than 128");
     }
-    return new ArrayInitialization(
-        SourceReference.create(ctx), Type.create(ctx.type()), sizeLiteral);
+    return new ArrayInitialization(sourceReference, type, sizeLiteral);
   }
 }
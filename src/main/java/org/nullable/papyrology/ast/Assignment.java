@@ -5,12 +5,8 @@ import static com.google.common.base.Preconditions.checkState;
 import com.google.auto.value.AutoOneOf;
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
+import org.antlr.v4.runtime.Token;
 import org.nullable.papyrology.grammar.PapyrusParser;
-import org.nullable.papyrology.grammar.PapyrusParser.ArrayAccessAssigneeContext;
-import org.nullable.papyrology.grammar.PapyrusParser.AssigneeContext;
-import org.nullable.papyrology.grammar.PapyrusParser.AssignmentContext;
-import org.nullable.papyrology.grammar.PapyrusParser.DotAccessAssigneeContext;
-import org.nullable.papyrology.grammar.PapyrusParser.IdentifierAssigneeContext;
 import org.nullable.papyrology.source.SourceReference;
 
 /** A {@link Statement} that updates the value of a variable or property. */
@@ -47,15 +43,15 @@ public record Assignment(
     visitor.visit(this);
   }
 
-  /** Returns a new {@code Assignment} based on the given {@link AssignmentContext}. */
-  static Assignment create(AssignmentContext ctx) {
-    Operator operator = TOKEN_TYPES_TO_OPERATORS.get(ctx.op.getType());
+  /**
+   * Returns a new {@code Assignment} to the given {@link Assignee}, of the operator identified by
+   * the given {@link Token}.
+   */
+  static Assignment create(
+      SourceReference sourceReference, Assignee assignee, Token op, Expression valueExpression) {
+    Operator operator = TOKEN_TYPES_TO_OPERATORS.get(op.getType());
     checkState(operator != null, "Assignment::create was unable to resolve the operator");
-    return new Assignment(
-        SourceReference.create(ctx),
-        Assignee.create(ctx.assignee()),
-        operator,
-        Expression.create(ctx.expression()));
+    return new Assignment(sourceReference, assignee, operator, valueExpression);
   }
 
   /** A one-of representing the variable/property being updated. */
@@ -76,30 +72,16 @@ public record Assignment(
 
     public abstract ArrayAccess arrayAccess();
 
-    static Assignee create(AssigneeContext ctx) {
-      if (ctx instanceof IdentifierAssigneeContext) {
-        return create((IdentifierAssigneeContext) ctx);
-      }
-      if (ctx instanceof DotAccessAssigneeContext) {
-        return create((DotAccessAssigneeContext) ctx);
-      }
-      if (ctx instanceof ArrayAccessAssigneeContext) {
-        return create((ArrayAccessAssigneeContext) ctx);
-      }
-      throw new IllegalArgumentException(
-          String.format("Assignee::create passed malformed AssigneeContext: %s", ctx));
+    static Assignee create(Identifier identifier) {
+      return AutoOneOf_Assignment_Assignee.identifier(identifier);
     }
 
-    static Assignee create(IdentifierAssigneeContext ctx) {
-      return AutoOneOf_Assignment_Assignee.identifier(Identifier.create(ctx.ID()));
+    static Assignee create(DotAccess dotAccess) {
+      return AutoOneOf_Assignment_Assignee.dotAccess(dotAccess);
     }
 
-    static Assignee create(DotAccessAssigneeContext ctx) {
-      return AutoOneOf_Assignment_Assignee.dotAccess(DotAccess.create(ctx));
-    }
-
-    static Assignee create(ArrayAccessAssigneeContext ctx) {
-      return AutoOneOf_Assignment_Assignee.arrayAccess(ArrayAccess.create(ctx));
+    static Assignee create(ArrayAccess arrayAccess) {
+      return AutoOneOf_Assignment_Assignee.arrayAccess(arrayAccess);
     }
   }
 }
@@ -4,8 +4,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
+import org.antlr.v4.runtime.Token;
 import org.nullable.papyrology.grammar.PapyrusParser;
-import org.nullable.papyrology.grammar.PapyrusParser.BinaryOperationContext;
 import org.nullable.papyrology.source.SourceReference;
 
 /** An {@link Expression} that evaluates to the result of an operation on two inputs. */
@@ -55,14 +55,13 @@ public record BinaryOperation(
     visitor.visit(this);
   }
 
-  /** Returns a new {@code BinaryOperation} based on the given {@link BinaryOperationContext}. */
-  static BinaryOperation create(BinaryOperationContext ctx) {
-    Operator operator = TOKEN_TYPES_TO_OPERATORS.get(ctx.op.getType());
+  /**
+   * Returns a new {@code BinaryOperation} of the operator identified by the given {@link Token}.
+   */
+  static BinaryOperation create(
+      SourceReference sourceReference, Token op, Expression left, Expression right) {
+    Operator operator = TOKEN_TYPES_TO_OPERATORS.get(op.getType());
     checkState(operator != null, "BinaryOperation::create was unable to resolve the operator");
-    return new BinaryOperation(
-        SourceReference.create(ctx),
-        operator,
-        Expression.create(ctx.left),
-        Expression.create(ctx.right));
+    return new BinaryOperation(sourceReference, operator, left, right);
   }
 }
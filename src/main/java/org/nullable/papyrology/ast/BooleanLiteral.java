@@ -2,7 +2,6 @@ package org.nullable.papyrology.ast;
 
 import com.google.errorprone.annotations.Immutable;
 import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.TerminalNode;
 import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.source.SourceReference;
 
@@ -15,10 +14,9 @@ public record BooleanLiteral(SourceReference sourceReference, boolean value) imp
     visitor.visit(this);
   }
 
-  /** Returns a new {@code BooleanLiteral} based on the given {@link TerminalNode}. */
-  static BooleanLiteral create(TerminalNode node) {
-    Token token = node.getSymbol();
-    SourceReference reference = SourceReference.create(node);
+  /** Returns a new {@code BooleanLiteral} based on the given {@link Token}. */
+  static BooleanLiteral create(Token token) {
+    SourceReference reference = SourceReference.create(token);
     if (token.getType() == PapyrusParser.K_TRUE) {
       return new BooleanLiteral(reference, true);
     }
@@ -26,6 +24,6 @@ public record BooleanLiteral(SourceReference sourceReference, boolean value) imp
       return new BooleanLiteral(reference, false);
     }
     throw new IllegalArgumentException(
-        String.format("BooleanLiteral::create passed an unsupported TerminalNode: %s", node));
+        String.format("BooleanLiteral::create passed an unsupported Token: %s", token));
   }
 }
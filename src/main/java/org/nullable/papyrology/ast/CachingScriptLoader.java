@@ -0,0 +1,83 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.Locale;
+import java.util.function.Function;
+import org.nullable.papyrology.source.file.SourceFile;
+import org.nullable.papyrology.source.file.SourceFileLoader;
+
+/**
+ * Loads {@link Script Scripts} by identifier, caching the parsed ASTs.
+ *
+ * <p>Every call still goes through the given {@link SourceFileLoader} (typically a {@link
+ * org.nullable.papyrology.source.file.CachingSourceFileLoader CachingSourceFileLoader}, which makes
+ * that cheap), but the {@link SourceFile} is only re-parsed if it differs from the one the cached
+ * {@code Script} was parsed from. The least recently used {@code Scripts} are evicted once more
+ * than {@code maximumScripts} are cached.
+ *
+ * <p>This class is thread-safe if the {@code SourceFileLoader} it uses is.
+ */
+public final class CachingScriptLoader implements Function<String, Script> {
+
+  private final SourceFileLoader sourceFileLoader;
+  private final ScriptParser parser;
+  private final Cache<String, Entry> cache;
+
+  private CachingScriptLoader(
+      SourceFileLoader sourceFileLoader, ScriptParser parser, Cache<String, Entry> cache) {
+    this.sourceFileLoader = sourceFileLoader;
+    this.parser = parser;
+    this.cache = cache;
+  }
+
+  /**
+   * Returns a new {@code CachingScriptLoader} that parses the {@link SourceFile SourceFiles} of the
+   * given {@link SourceFileLoader} with the given {@link ScriptParser}, and holds at most {@code
+   * maximumScripts} {@link Script Scripts}.
+   */
+  public static CachingScriptLoader create(
+      SourceFileLoader sourceFileLoader, ScriptParser parser, long maximumScripts) {
+    checkArgument(maximumScripts >= 0, "CachingScriptLoader::create passed a negative size.");
+    Cache<String, Entry> cache =
+        CacheBuilder.newBuilder().maximumSize(maximumScripts).recordStats().build();
+    return new CachingScriptLoader(sourceFileLoader, parser, cache);
+  }
+
+  /**
+   * Returns the {@link Script} with the given {@code identifier}.
+   *
+   * @throws org.nullable.papyrology.source.file.SourceFileLoadException if the {@link SourceFile}
+   *     of the {@code Script} can't be loaded.
+   * @throws SyntaxException if the {@code SourceFile} is not a valid {@code Script}.
+   */
+  @Override
+  public Script apply(String identifier) {
+    String key = identifier.toUpperCase(Locale.US);
+    SourceFile sourceFile = sourceFileLoader.load(identifier);
+    Entry entry = cache.getIfPresent(key);
+    // SourceFile equality short-circuits on identity, which is the common case for cached files.
+    if (entry != null && entry.sourceFile().equals(sourceFile)) {
+      return entry.script();
+    }
+    Script script = parser.parse(sourceFile);
+    cache.put(key, new Entry(sourceFile, script));
+    return script;
+  }
+
+  /** Discards every cached {@link Script}. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /** Returns the statistics of the underlying cache. */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /** A cached {@link Script}, and the {@link SourceFile} it was parsed from. */
+  private record Entry(SourceFile sourceFile, Script script) {}
+}
@@ -1,7 +1,6 @@
 package org.nullable.papyrology.ast;
 
 import com.google.errorprone.annotations.Immutable;
-import org.nullable.papyrology.grammar.PapyrusParser.CastContext;
 import org.nullable.papyrology.source.SourceReference;
 
 /** An {@link Expression} that changes the {@code Type} and an {@code Expression}. */
@@ -13,10 +12,4 @@ public record Cast(SourceReference sourceReference, Type type, Expression expres
   public void accept(Visitor visitor) {
     visitor.visit(this);
   }
-
-  /** Returns a new {@code Cast} based on the given {@link CastContext}. */
-  static Cast create(CastContext ctx) {
-    return new Cast(
-        SourceReference.create(ctx), Type.create(ctx.type()), Expression.create(ctx.expression()));
-  }
 }
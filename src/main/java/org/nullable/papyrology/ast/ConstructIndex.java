@@ -0,0 +1,218 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.MapMaker;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index of every {@link Construct} of a {@link Script} by kind, in the order they are walked
+ * (i.e. source order).
+ *
+ * <p>Queries such as "every {@link FunctionCall} in a {@code Script}" can be answered from a
+ * {@code ConstructIndex} without walking the {@code Script} again. The index of a {@code Script}
+ * is built with a single walk the first time it is requested, and is cached for as long as the
+ * {@code Script} itself is reachable.
+ *
+ * <p>The {@code Script} itself is not indexed: a cached index must never reference its own key, or
+ * the {@code Script} would stay reachable (and cached) forever.
+ */
+public final class ConstructIndex {
+
+  /** Cached indices, keyed by the identity of their (weakly-referenced) {@code Script}. */
+  private static final ConcurrentMap<Script, ConstructIndex> INDICES =
+      new MapMaker().weakKeys().makeMap();
+
+  private final ImmutableListMultimap<Class<? extends Construct>, Construct> constructsByKind;
+
+  private ConstructIndex(
+      ImmutableListMultimap<Class<? extends Construct>, Construct> constructsByKind) {
+    this.constructsByKind = constructsByKind;
+  }
+
+  /** Returns the {@code ConstructIndex} of the given {@link Script}. */
+  public static ConstructIndex of(Script script) {
+    return INDICES.computeIfAbsent(script, ConstructIndex::build);
+  }
+
+  private static ConstructIndex build(Script script) {
+    Indexer indexer = new Indexer();
+    WalkingVisitor.create(indexer).visit(script);
+    return new ConstructIndex(indexer.constructs.build());
+  }
+
+  /**
+   * Returns every {@link Construct} of the given (concrete) {@code kind} in the {@link Script}, in
+   * source order. The {@code kind} can't be {@code Script}.
+   */
+  @SuppressWarnings("unchecked") // Every Construct is indexed under its own class.
+  public <T extends Construct> ImmutableList<T> all(Class<T> kind) {
+    checkArgument(
+        !kind.isInterface(), "ConstructIndex::all passed a non-concrete kind: %s", kind.getName());
+    checkArgument(!kind.equals(Script.class), "ConstructIndex::all passed the Script kind.");
+    return (ImmutableList<T>) constructsByKind.get(kind);
+  }
+
+  /** A {@link WalkingVisitor.Walker} that collects every {@link Construct} it encounters. */
+  private static final class Indexer extends WalkingVisitor.Walker {
+    private final ImmutableListMultimap.Builder<Class<? extends Construct>, Construct> constructs =
+        ImmutableListMultimap.builder();
+
+    @Override
+    protected void enter(ArrayAccess arrayAccess) {
+      constructs.put(ArrayAccess.class, arrayAccess);
+    }
+
+    @Override
+    protected void enter(ArrayInitialization arrayInitialization) {
+      constructs.put(ArrayInitialization.class, arrayInitialization);
+    }
+
+    @Override
+    protected void enter(ArrayLength arrayLength) {
+      constructs.put(ArrayLength.class, arrayLength);
+    }
+
+    @Override
+    protected void enter(Assignment assignment) {
+      constructs.put(Assignment.class, assignment);
+    }
+
+    @Override
+    protected void enter(BinaryOperation binaryOperation) {
+      constructs.put(BinaryOperation.class, binaryOperation);
+    }
+
+    @Override
+    protected void enter(Block block) {
+      constructs.put(Block.class, block);
+    }
+
+    @Override
+    protected void enter(CallParameter callParameter) {
+      constructs.put(CallParameter.class, callParameter);
+    }
+
+    @Override
+    protected void enter(Cast cast) {
+      constructs.put(Cast.class, cast);
+    }
+
+    @Override
+    protected void enter(DotAccess dotAccess) {
+      constructs.put(DotAccess.class, dotAccess);
+    }
+
+    @Override
+    protected void enter(Event event) {
+      constructs.put(Event.class, event);
+    }
+
+    @Override
+    protected void enter(Function function) {
+      constructs.put(Function.class, function);
+    }
+
+    @Override
+    protected void enter(FunctionCall functionCall) {
+      constructs.put(FunctionCall.class, functionCall);
+    }
+
+    @Override
+    protected void enter(Header header) {
+      constructs.put(Header.class, header);
+    }
+
+    @Override
+    protected void enter(If ifStatement) {
+      constructs.put(If.class, ifStatement);
+    }
+
+    @Override
+    protected void enter(Import importDeclaration) {
+      constructs.put(Import.class, importDeclaration);
+    }
+
+    @Override
+    protected void enter(Parameter parameter) {
+      constructs.put(Parameter.class, parameter);
+    }
+
+    @Override
+    protected void enter(Parenthetical parenthetical) {
+      constructs.put(Parenthetical.class, parenthetical);
+    }
+
+    @Override
+    protected void enter(Property property) {
+      constructs.put(Property.class, property);
+    }
+
+    @Override
+    protected void enter(Return returnStatement) {
+      constructs.put(Return.class, returnStatement);
+    }
+
+    @Override
+    protected void enter(ScriptVariable scriptVariable) {
+      constructs.put(ScriptVariable.class, scriptVariable);
+    }
+
+    @Override
+    protected void enter(State state) {
+      constructs.put(State.class, state);
+    }
+
+    @Override
+    protected void enter(Type type) {
+      constructs.put(Type.class, type);
+    }
+
+    @Override
+    protected void enter(UnaryOperation unaryOperation) {
+      constructs.put(UnaryOperation.class, unaryOperation);
+    }
+
+    @Override
+    protected void enter(Variable variable) {
+      constructs.put(Variable.class, variable);
+    }
+
+    @Override
+    protected void enter(While whileStatement) {
+      constructs.put(While.class, whileStatement);
+    }
+
+    @Override
+    protected void touch(BooleanLiteral booleanLiteral) {
+      constructs.put(BooleanLiteral.class, booleanLiteral);
+    }
+
+    @Override
+    protected void touch(FloatLiteral floatLiteral) {
+      constructs.put(FloatLiteral.class, floatLiteral);
+    }
+
+    @Override
+    protected void touch(Identifier identifier) {
+      constructs.put(Identifier.class, identifier);
+    }
+
+    @Override
+    protected void touch(IntegerLiteral integerLiteral) {
+      constructs.put(IntegerLiteral.class, integerLiteral);
+    }
+
+    @Override
+    protected void touch(ObjectLiteral objectLiteral) {
+      constructs.put(ObjectLiteral.class, objectLiteral);
+    }
+
+    @Override
+    protected void touch(StringLiteral stringLiteral) {
+      constructs.put(StringLiteral.class, stringLiteral);
+    }
+  }
+}
@@ -0,0 +1,274 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.BlockEndState;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+import org.antlr.v4.runtime.atn.DecisionState;
+import org.antlr.v4.runtime.atn.PlusBlockStartState;
+import org.antlr.v4.runtime.atn.PlusLoopbackState;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.atn.ProfilingATNSimulator;
+import org.antlr.v4.runtime.atn.StarBlockStartState;
+import org.antlr.v4.runtime.atn.StarLoopEntryState;
+import org.nullable.papyrology.grammar.PapyrusParser;
+
+/**
+ * A profile of how expensive each prediction decision of the {@link PapyrusParser} is, aggregated
+ * over every parse of a {@link ScriptParser} that was built with {@link
+ * ScriptParser.Builder#setDecisionProfile}.
+ *
+ * <p>Profiled parses run with ANTLR's {@link ProfilingATNSimulator} and full {@link
+ * PredictionMode#LL} prediction, so the profile shows which decisions of {@code Papyrus.g4} fall
+ * back from SLL to full-context (LL) prediction, how far ahead they have to look and how long they
+ * take, as well as how often (and for how long) each of their alternatives is predicted.
+ *
+ * <p>Only decisions that need more than a single token of lookahead are made through the ATN
+ * simulator; the rest are resolved by the generated code itself and never appear in a profile.
+ *
+ * <p>Profiled parses are considerably slower than regular ones, and the DFAs of the {@link
+ * PredictionCache} they use are only built once, so a profile of a fresh {@code PredictionCache}
+ * also includes the cost of building them.
+ *
+ * <p>This class is thread-safe; a single {@code DecisionProfile} can aggregate any number of
+ * concurrent parses.
+ */
+public final class DecisionProfile {
+
+  private static final ATN PARSER_ATN = PapyrusParser._ATN;
+
+  private final Totals[] totals;
+
+  private DecisionProfile() {
+    totals = new Totals[PARSER_ATN.getNumberOfDecisions()];
+    for (int i = 0; i < totals.length; i++) {
+      totals[i] = new Totals(PARSER_ATN.getDecisionState(i).getNumberOfTransitions());
+    }
+  }
+
+  /** Returns a new, empty {@code DecisionProfile}. */
+  public static DecisionProfile create() {
+    return new DecisionProfile();
+  }
+
+  /**
+   * Returns the profile of every decision that has been made at least once, from the one that
+   * spent the most time in prediction to the one that spent the least.
+   */
+  public synchronized ImmutableList<Decision> decisions() {
+    ImmutableList.Builder<Decision> decisions = ImmutableList.builder();
+    for (int i = 0; i < totals.length; i++) {
+      if (totals[i].invocations > 0) {
+        decisions.add(totals[i].toDecision(i));
+      }
+    }
+    return decisions.build().stream()
+        .sorted(Comparator.comparingLong(Decision::timeInPrediction).reversed())
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Returns a human-readable report of every {@link #decisions() decision}, from the most to the
+   * least expensive, followed by how often (and for how long) each of its alternatives was
+   * predicted.
+   */
+  public String report() {
+    StringBuilder report =
+        new StringBuilder(
+            String.format(
+                "%-8s %-24s %-14s %10s %10s %8s %8s %8s %8s %8s %8s%n",
+                "Decision",
+                "Rule",
+                "Kind",
+                "Count",
+                "Time us",
+                "SLL max",
+                "LL",
+                "LL max",
+                "Ambig",
+                "Context",
+                "Errors"));
+    for (Decision decision : decisions()) {
+      report.append(
+          String.format(
+              "%-8d %-24s %-14s %10d %10d %8d %8d %8d %8d %8d %8d%n",
+              decision.decision(),
+              decision.rule(),
+              decision.kind(),
+              decision.invocations(),
+              TimeUnit.NANOSECONDS.toMicros(decision.timeInPrediction()),
+              decision.sllMaxLookahead(),
+              decision.llFallbacks(),
+              decision.llMaxLookahead(),
+              decision.ambiguities(),
+              decision.contextSensitivities(),
+              decision.errors()));
+      for (Alternative alternative : decision.alternatives()) {
+        if (alternative.predictions() == 0) {
+          continue;
+        }
+        report.append(
+            String.format(
+                "%-8s %-24s %-14s %10d %10d%n",
+                "",
+                "",
+                "  alt " + alternative.alternative(),
+                alternative.predictions(),
+                TimeUnit.NANOSECONDS.toMicros(alternative.timeInPrediction())));
+      }
+    }
+    return report.toString();
+  }
+
+  /** Points the given {@link PapyrusParser}, which must already use its DFAs, at a new profiler. */
+  void install(PapyrusParser parser) {
+    parser.setInterpreter(new Profiler(parser));
+    parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+  }
+
+  /** Adds the decisions made by the given {@link PapyrusParser} to this profile. */
+  void record(PapyrusParser parser) {
+    Profiler profiler = (Profiler) parser.getInterpreter();
+    DecisionInfo[] infos = profiler.getDecisionInfo();
+    synchronized (this) {
+      for (int i = 0; i < infos.length; i++) {
+        totals[i].add(infos[i], profiler.predictions[i], profiler.predictionTimes[i]);
+      }
+    }
+  }
+
+  /** Returns a short description of the kind of decision the given {@link DecisionState} is. */
+  private static String kind(DecisionState state) {
+    if (state instanceof StarLoopEntryState) {
+      return "(...)* loop";
+    }
+    if (state instanceof StarBlockStartState) {
+      return "(...)* alts";
+    }
+    if (state instanceof PlusLoopbackState) {
+      return "(...)+ loop";
+    }
+    if (state instanceof PlusBlockStartState) {
+      return "(...)+ alts";
+    }
+    if (PARSER_ATN.ruleToStartState[state.ruleIndex].transition(0).target.stateNumber
+        == state.stateNumber) {
+      return "rule alts";
+    }
+    if (state.transition(state.getNumberOfTransitions() - 1).target instanceof BlockEndState) {
+      return "(...)?";
+    }
+    return "(...) alts";
+  }
+
+  /**
+   * The profile of a single decision of the {@link PapyrusParser}, identified by its number and
+   * the rule it belongs to. Times are in nanoseconds, and lookaheads in tokens.
+   */
+  public record Decision(
+      int decision,
+      String rule,
+      String kind,
+      long invocations,
+      long timeInPrediction,
+      long sllMaxLookahead,
+      long llFallbacks,
+      long llMaxLookahead,
+      long ambiguities,
+      long contextSensitivities,
+      long errors,
+      ImmutableList<Alternative> alternatives) {}
+
+  /** How often (and for how long, in nanoseconds) an alternative of a decision was predicted. */
+  public record Alternative(int alternative, long predictions, long timeInPrediction) {}
+
+  /** The running totals of a single decision. */
+  private static final class Totals {
+    private long invocations;
+    private long timeInPrediction;
+    private long sllMaxLookahead;
+    private long llFallbacks;
+    private long llMaxLookahead;
+    private long ambiguities;
+    private long contextSensitivities;
+    private long errors;
+    private final long[] predictions;
+    private final long[] predictionTimes;
+
+    Totals(int alternatives) {
+      predictions = new long[alternatives + 1];
+      predictionTimes = new long[alternatives + 1];
+    }
+
+    void add(DecisionInfo info, long[] predictions, long[] predictionTimes) {
+      invocations += info.invocations;
+      timeInPrediction += info.timeInPrediction;
+      sllMaxLookahead = Math.max(sllMaxLookahead, info.SLL_MaxLook);
+      llFallbacks += info.LL_Fallback;
+      llMaxLookahead = Math.max(llMaxLookahead, info.LL_MaxLook);
+      ambiguities += info.ambiguities.size();
+      contextSensitivities += info.contextSensitivities.size();
+      errors += info.errors.size();
+      for (int i = 0; i < predictions.length; i++) {
+        this.predictions[i] += predictions[i];
+        this.predictionTimes[i] += predictionTimes[i];
+      }
+    }
+
+    Decision toDecision(int decision) {
+      DecisionState state = PARSER_ATN.getDecisionState(decision);
+      ImmutableList.Builder<Alternative> alternatives = ImmutableList.builder();
+      for (int i = 1; i < predictions.length; i++) {
+        alternatives.add(new Alternative(i, predictions[i], predictionTimes[i]));
+      }
+      return new Decision(
+          decision,
+          PapyrusParser.ruleNames[state.ruleIndex],
+          kind(state),
+          invocations,
+          timeInPrediction,
+          sllMaxLookahead,
+          llFallbacks,
+          llMaxLookahead,
+          ambiguities,
+          contextSensitivities,
+          errors,
+          alternatives.build());
+    }
+  }
+
+  /**
+   * A {@link ProfilingATNSimulator} that also records which alternative every prediction resulted
+   * in, and how long it took.
+   */
+  private static final class Profiler extends ProfilingATNSimulator {
+    private final long[][] predictions;
+    private final long[][] predictionTimes;
+
+    Profiler(PapyrusParser parser) {
+      super(parser);
+      predictions = new long[atn.getNumberOfDecisions()][];
+      predictionTimes = new long[atn.getNumberOfDecisions()][];
+      for (int i = 0; i < predictions.length; i++) {
+        predictions[i] = new long[atn.getDecisionState(i).getNumberOfTransitions() + 1];
+        predictionTimes[i] = new long[predictions[i].length];
+      }
+    }
+
+    @Override
+    public int adaptivePredict(TokenStream input, int decision, ParserRuleContext outerContext) {
+      long timeInPrediction = decisions[decision].timeInPrediction;
+      int alternative = super.adaptivePredict(input, decision, outerContext);
+      predictions[decision][alternative]++;
+      predictionTimes[decision][alternative] +=
+          decisions[decision].timeInPrediction - timeInPrediction;
+      return alternative;
+    }
+  }
+}
@@ -1,10 +1,6 @@
 package org.nullable.papyrology.ast;
 
-import static com.google.common.base.Preconditions.checkArgument;
-
 import com.google.errorprone.annotations.Immutable;
-import org.nullable.papyrology.grammar.PapyrusParser.DotAccessAssigneeContext;
-import org.nullable.papyrology.grammar.PapyrusParser.DotAccessOrFunctionCallContext;
 import org.nullable.papyrology.source.SourceReference;
 
 /**
@@ -20,25 +16,4 @@ public record DotAccess(
   public void accept(Visitor visitor) {
     visitor.visit(this);
   }
-
-  /** Returns a new {@code DocAccess} based on the given {@link DotAccessOrFunctionCallContext}. */
-  static DotAccess create(DotAccessOrFunctionCallContext ctx) {
-    checkArgument(
-        ctx.callParameters() == null,
-        "DotAccess::create passed a DotAccessOrFunctionCallContext that maps to a function call:"
-            + " %s",
-        ctx);
-    return new DotAccess(
-        SourceReference.create(ctx),
-        Expression.create(ctx.expression()),
-        Identifier.create(ctx.ID()));
-  }
-
-  /** Returns a new {@code DocAccess} based on the given {@link DotAccessAssigneeContext}. */
-  static DotAccess create(DotAccessAssigneeContext ctx) {
-    return new DotAccess(
-        SourceReference.create(ctx),
-        Expression.create(ctx.expression()),
-        Identifier.create(ctx.ID()));
-  }
 }
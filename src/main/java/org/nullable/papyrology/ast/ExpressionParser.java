@@ -0,0 +1,383 @@
+package org.nullable.papyrology.ast;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.nullable.papyrology.grammar.PapyrusParser;
+import org.nullable.papyrology.grammar.PapyrusParser.ExpressionContext;
+import org.nullable.papyrology.grammar.PapyrusParser.SimpleStatementContext;
+import org.nullable.papyrology.source.SourceReference;
+
+/**
+ * Parses the structure of {@link Expression Expressions} out of the tokens of an {@link
+ * ExpressionContext}.
+ *
+ * <p>The grammar only delimits expressions (balancing their brackets), so that {@code
+ * PapyrusParser} doesn't have to run its adaptive prediction through a left-recursive rule for
+ * every operand. This class then parses the delimited tokens by precedence climbing, which only
+ * ever needs to look at the next one or two tokens.
+ *
+ * <p>The precedences mirror those of the left-recursive rule the grammar used to define, where the
+ * <i>first</i> alternative bound the tightest. Those are (from loosest to tightest):
+ *
+ * <ol>
+ *   <li>array access ({@code a[i]})
+ *   <li>array length ({@code a.Length})
+ *   <li>dot access or function call ({@code a.b}, {@code a.b()})
+ *   <li>cast ({@code a As B})
+ *   <li>unary operations ({@code -a}, {@code !a}), whose operand may contain any binary operation
+ *   <li>{@code *}, {@code /} and {@code %}
+ *   <li>{@code +} and {@code -}
+ *   <li>comparisons
+ *   <li>{@code &&}
+ *   <li>{@code ||}
+ * </ol>
+ *
+ * <p>Binary operations are left-associative.
+ *
+ * <p>NOTE: This class is <i>not</i> thread-safe in any state.
+ */
+final class ExpressionParser {
+
+  private static final int ARRAY_ACCESS = 4;
+  private static final int ARRAY_LENGTH = 6;
+  private static final int DOT_ACCESS = 7;
+  private static final int CAST = 9;
+  private static final int UNARY_OPERATION = 10;
+  private static final int MULTIPLICATIVE = 11;
+  private static final int ADDITIVE = 12;
+  private static final int COMPARISON = 13;
+  private static final int LOGICAL_AND = 14;
+  private static final int LOGICAL_OR = 15;
+
+  private final Token[] tokens;
+  private int position;
+
+  private ExpressionParser(Token[] tokens) {
+    this.tokens = tokens;
+  }
+
+  /** Returns the {@link Expression} defined by the given {@link ExpressionContext}. */
+  static Expression parse(ExpressionContext ctx) {
+    ExpressionParser parser = new ExpressionParser(flatten(ctx));
+    Expression expression = parser.expression(0);
+    parser.expectEnd();
+    return expression;
+  }
+
+  /**
+   * Returns the {@link Statement} defined by the given {@link SimpleStatementContext}, which is
+   * either a local {@link Variable}, an {@link Assignment} or a standalone {@link Expression}.
+   */
+  static Statement parse(SimpleStatementContext ctx) {
+    ExpressionParser left = new ExpressionParser(flatten(ctx.left));
+    if (ctx.op == null || ctx.op.getType() == PapyrusParser.O_ASSIGN) {
+      Optional<Variable> variable = left.variable(ctx);
+      if (variable.isPresent()) {
+        return variable.get();
+      }
+    }
+    Expression expression = left.expression(0);
+    left.expectEnd();
+    if (ctx.op == null) {
+      return expression;
+    }
+    return Assignment.create(
+        SourceReference.create(ctx),
+        assignee(expression),
+        ctx.op,
+        Expression.create(ctx.right));
+  }
+
+  /**
+   * Returns a local {@link Variable}, if the tokens of this parser are exactly a {@link Type}
+   * followed by an {@link Identifier}.
+   */
+  private Optional<Variable> variable(SimpleStatementContext ctx) {
+    int length = tokens.length;
+    if ((length != 2 && length != 4)
+        || !isTypeName(tokens[0].getType())
+        || tokens[length - 1].getType() != PapyrusParser.ID) {
+      return Optional.empty();
+    }
+    if (length == 4
+        && (tokens[1].getType() != PapyrusParser.S_LBRAKET
+            || tokens[2].getType() != PapyrusParser.S_RBRAKET)) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new Variable(
+            SourceReference.create(ctx),
+            Type.create(tokens[0], tokens[length - 2]),
+            Identifier.create(tokens[length - 1]),
+            ctx.right == null ? Optional.empty() : Optional.of(Expression.create(ctx.right))));
+  }
+
+  private static Assignment.Assignee assignee(Expression expression) {
+    if (expression instanceof Identifier identifier) {
+      return Assignment.Assignee.create(identifier);
+    }
+    if (expression instanceof DotAccess dotAccess) {
+      return Assignment.Assignee.create(dotAccess);
+    }
+    if (expression instanceof ArrayAccess arrayAccess) {
+      return Assignment.Assignee.create(arrayAccess);
+    }
+    throw new SyntaxException(
+        expression.sourceReference(),
+        "Syntax error: cannot assign a value to '%s'",
+        expression.sourceReference().getText());
+  }
+
+  /**
+   * Parses an {@code Expression} whose operators all have a precedence of at least {@code
+   * minimumPrecedence}.
+   */
+  private Expression expression(int minimumPrecedence) {
+    Token start = next();
+    Expression expression = primary(start);
+    while (position < tokens.length) {
+      Token token = tokens[position];
+      int precedence = precedence(token.getType());
+      if (precedence < minimumPrecedence) {
+        break;
+      }
+      switch (token.getType()) {
+        case PapyrusParser.K_AS -> {
+          position++;
+          Type type = type();
+          expression = new Cast(span(start), type, expression);
+        }
+        case PapyrusParser.O_DOT -> {
+          position++;
+          expression = dotAccess(start, expression);
+        }
+        case PapyrusParser.S_LBRAKET -> {
+          position++;
+          Expression index = expression(0);
+          expect(PapyrusParser.S_RBRAKET);
+          expression = new ArrayAccess(span(start), expression, index);
+        }
+        default -> {
+          position++;
+          Expression right = expression(precedence + 1);
+          expression = BinaryOperation.create(span(start), token, expression, right);
+        }
+      }
+    }
+    return expression;
+  }
+
+  /** Parses the {@code Expression} that begins with the given, already consumed, {@link Token}. */
+  private Expression primary(Token start) {
+    switch (start.getType()) {
+      case PapyrusParser.O_SUBTRACT, PapyrusParser.O_LOGICAL_NOT -> {
+        Expression operand = expression(UNARY_OPERATION);
+        return UnaryOperation.create(span(start), start, operand);
+      }
+      case PapyrusParser.ID -> {
+        if (!at(PapyrusParser.S_LPAREN)) {
+          return Identifier.create(start);
+        }
+        position++;
+        ImmutableList<CallParameter> callParameters = callParameters();
+        return new FunctionCall(
+            span(start), Optional.empty(), Identifier.create(start), callParameters);
+      }
+      case PapyrusParser.S_LPAREN -> {
+        Expression expression = expression(0);
+        expect(PapyrusParser.S_RPAREN);
+        return new Parenthetical(span(start), expression);
+      }
+      case PapyrusParser.K_NEW -> {
+        Type type = type();
+        expect(PapyrusParser.S_LBRAKET);
+        Token size = expect(PapyrusParser.L_UINT);
+        expect(PapyrusParser.S_RBRAKET);
+        return ArrayInitialization.create(span(start), type, size);
+      }
+      case PapyrusParser.K_TRUE,
+          PapyrusParser.K_FALSE,
+          PapyrusParser.L_FLOAT,
+          PapyrusParser.L_UINT,
+          PapyrusParser.L_INT,
+          PapyrusParser.L_STRING,
+          PapyrusParser.K_NONE,
+          PapyrusParser.K_SELF,
+          PapyrusParser.K_PARENT -> {
+        return Literal.create(start);
+      }
+      default -> throw unexpected(start);
+    }
+  }
+
+  /** Parses what follows the (already consumed) {@code .} of a dot access or function call. */
+  private Expression dotAccess(Token start, Expression reference) {
+    Token token = next();
+    if (token.getType() == PapyrusParser.K_LENGTH) {
+      return new ArrayLength(span(start), reference);
+    }
+    if (token.getType() != PapyrusParser.ID) {
+      throw unexpected(token);
+    }
+    if (!at(PapyrusParser.S_LPAREN)) {
+      return new DotAccess(span(start), reference, Identifier.create(token));
+    }
+    position++;
+    ImmutableList<CallParameter> callParameters = callParameters();
+    return new FunctionCall(
+        span(start), Optional.of(reference), Identifier.create(token), callParameters);
+  }
+
+  /** Parses the parameters (and closing parenthesis) of a function call. */
+  private ImmutableList<CallParameter> callParameters() {
+    ImmutableList.Builder<CallParameter> callParameters = ImmutableList.builder();
+    if (!at(PapyrusParser.S_RPAREN)) {
+      if (!at(PapyrusParser.S_COMMA)) {
+        callParameters.add(callParameter());
+      }
+      while (at(PapyrusParser.S_COMMA)) {
+        position++;
+        callParameters.add(callParameter());
+      }
+    }
+    expect(PapyrusParser.S_RPAREN);
+    return callParameters.build();
+  }
+
+  private CallParameter callParameter() {
+    if (position >= tokens.length) {
+      throw unexpectedEnd();
+    }
+    Token start = tokens[position];
+    Optional<Identifier> identifier = Optional.empty();
+    if (start.getType() == PapyrusParser.ID
+        && position + 1 < tokens.length
+        && tokens[position + 1].getType() == PapyrusParser.O_ASSIGN) {
+      identifier = Optional.of(Identifier.create(start));
+      position += 2;
+    }
+    Expression expression = expression(0);
+    return new CallParameter(span(start), identifier, expression);
+  }
+
+  /** Parses a {@code Type}, which is only an array type if its brackets are empty. */
+  private Type type() {
+    Token name = next();
+    if (!isTypeName(name.getType())) {
+      throw unexpected(name);
+    }
+    if (at(PapyrusParser.S_LBRAKET)
+        && position + 1 < tokens.length
+        && tokens[position + 1].getType() == PapyrusParser.S_RBRAKET) {
+      position += 2;
+    }
+    return Type.create(name, tokens[position - 1]);
+  }
+
+  /** Returns the precedence of the operator of the given type, or -1 if it isn't an operator. */
+  private int precedence(int type) {
+    return switch (type) {
+      case PapyrusParser.O_LOGICAL_OR -> LOGICAL_OR;
+      case PapyrusParser.O_LOGICAL_AND -> LOGICAL_AND;
+      case PapyrusParser.O_EQUAL,
+          PapyrusParser.O_NOT_EQUAL,
+          PapyrusParser.O_GREATER,
+          PapyrusParser.O_GREATER_OR_EQUAL,
+          PapyrusParser.O_LESS,
+          PapyrusParser.O_LESS_OR_EQUAL ->
+          COMPARISON;
+      case PapyrusParser.O_ADD, PapyrusParser.O_SUBTRACT -> ADDITIVE;
+      case PapyrusParser.O_MULTIPLY, PapyrusParser.O_DIVIDE, PapyrusParser.O_MODULO ->
+          MULTIPLICATIVE;
+      case PapyrusParser.K_AS -> CAST;
+      case PapyrusParser.O_DOT ->
+          position + 1 < tokens.length && tokens[position + 1].getType() == PapyrusParser.K_LENGTH
+              ? ARRAY_LENGTH
+              : DOT_ACCESS;
+      case PapyrusParser.S_LBRAKET -> ARRAY_ACCESS;
+      default -> -1;
+    };
+  }
+
+  private static boolean isTypeName(int type) {
+    return switch (type) {
+      case PapyrusParser.K_BOOL,
+          PapyrusParser.K_INT,
+          PapyrusParser.K_FLOAT,
+          PapyrusParser.K_STRING,
+          PapyrusParser.ID ->
+          true;
+      default -> false;
+    };
+  }
+
+  /** Returns a {@code SourceReference} from the given {@link Token} to the last consumed one. */
+  private SourceReference span(Token start) {
+    return SourceReference.create(start, tokens[position - 1]);
+  }
+
+  private boolean at(int type) {
+    return position < tokens.length && tokens[position].getType() == type;
+  }
+
+  private Token next() {
+    if (position >= tokens.length) {
+      throw unexpectedEnd();
+    }
+    return tokens[position++];
+  }
+
+  @CanIgnoreReturnValue
+  private Token expect(int type) {
+    Token token = next();
+    if (token.getType() != type) {
+      throw unexpected(token);
+    }
+    return token;
+  }
+
+  private void expectEnd() {
+    if (position < tokens.length) {
+      throw unexpected(tokens[position]);
+    }
+  }
+
+  private static SyntaxException unexpected(Token token) {
+    return new SyntaxException(
+        SourceReference.create(token),
+        "Syntax error: unexpected input '%s' in expression",
+        token.getText());
+  }
+
+  private SyntaxException unexpectedEnd() {
+    Token last = tokens[tokens.length - 1];
+    return new SyntaxException(
+        SourceReference.create(last),
+        "Syntax error: expression ends unexpectedly after '%s'",
+        last.getText());
+  }
+
+  /** Returns every {@link Token} of the given {@link ExpressionContext}, in order. */
+  private static Token[] flatten(ExpressionContext ctx) {
+    List<Token> tokens = new ArrayList<>();
+    flatten(ctx, tokens);
+    return tokens.toArray(new Token[0]);
+  }
+
+  private static void flatten(ParseTree tree, List<Token> tokens) {
+    for (int i = 0; i < tree.getChildCount(); i++) {
+      ParseTree child = tree.getChild(i);
+      if (child instanceof TerminalNode node) {
+        tokens.add(node.getSymbol());
+      } else {
+        flatten(child, tokens);
+      }
+    }
+  }
+}
@@ -4,7 +4,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.errorprone.annotations.Immutable;
 import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.TerminalNode;
 import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.source.SourceReference;
 
@@ -17,13 +16,12 @@ public record FloatLiteral(SourceReference sourceReference, float value) impleme
     visitor.visit(this);
   }
 
-  /** Returns a new {@code FloatLiteral} based on the given {@link TerminalNode}. */
-  static FloatLiteral create(TerminalNode node) {
-    Token token = node.getSymbol();
+  /** Returns a new {@code FloatLiteral} based on the given {@link Token}. */
+  static FloatLiteral create(Token token) {
     checkArgument(
         token.getType() == PapyrusParser.L_FLOAT,
-        " FloatLiteral::create passed an unsupported TerminalNode: %s",
-        node);
-    return new FloatLiteral(SourceReference.create(node), Float.valueOf(token.getText()));
+        " FloatLiteral::create passed an unsupported Token: %s",
+        token);
+    return new FloatLiteral(SourceReference.create(token), Float.valueOf(token.getText()));
   }
 }
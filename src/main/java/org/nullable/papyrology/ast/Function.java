@@ -85,7 +85,7 @@ public record Function(
         /* isNative= */ false);
   }
 
-  private static final String GET_IDENTIFIER = "Get";
+  private static final IdentifierKey GET_IDENTIFIER = IdentifierKey.of("Get");
 
   static Function create(SetPropertyFunctionContext ctx) {
     Identifier identifier = Identifier.create(ctx.ID());
@@ -105,5 +105,5 @@ public record Function(
         /* isNative= */ false);
   }
 
-  private static final String SET_IDENTIFIER = "Set";
+  private static final IdentifierKey SET_IDENTIFIER = IdentifierKey.of("Set");
 }
@@ -3,15 +3,43 @@ package org.nullable.papyrology.ast;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.errorprone.annotations.Immutable;
-import java.util.Locale;
 import org.antlr.v4.runtime.Token;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.source.SourceReference;
 
-/** An {@link Expression} that evaluates to some scoped identifier (e.g. variable name). */
+/**
+ * An {@link Expression} that evaluates to some scoped identifier (e.g. variable name).
+ *
+ * <p>The {@link IdentifierKey} of the {@code value} is computed once, when the {@code Identifier}
+ * is created, so comparisons and lookups never need to case-fold the {@code value} again. The
+ * {@code key} must always be {@code IdentifierKey.of(value)}.
+ */
 @Immutable
-public record Identifier(SourceReference sourceReference, String value) implements Expression {
+public record Identifier(SourceReference sourceReference, String value, IdentifierKey key)
+    implements Expression {
+
+  /**
+   * Returns a new {@code Identifier} with the given {@link IdentifierKey}.
+   *
+   * @throws IllegalArgumentException if the {@code key} isn't {@code IdentifierKey.of(value)}.
+   */
+  public Identifier {
+    // Every reachable key is the interned one for its value, so one that matches the value ignoring
+    // case is the right one; only values that case-fold unusually need to be interned again.
+    checkArgument(
+        key.value().equalsIgnoreCase(value) || key == IdentifierKey.of(value),
+        "Identifier passed the key %s for the value %s",
+        key,
+        value);
+  }
+
+  /**
+   * Returns a new {@code Identifier}, computing its {@link IdentifierKey} from the {@code value}.
+   */
+  public Identifier(SourceReference sourceReference, String value) {
+    this(sourceReference, value, IdentifierKey.of(value));
+  }
 
   @Override
   public void accept(Visitor visitor) {
@@ -20,23 +48,35 @@ public record Identifier(SourceReference sourceReference, String value) implemen
 
   /** Returns whether or not this {@link Identifier} refers to the same entity as the given one. */
   public boolean isEquivalent(Identifier other) {
-    return value().toUpperCase(Locale.US).equals(other.value().toUpperCase(Locale.US));
+    return key == other.key;
   }
 
   /**
    * Returns whether or not this {@link Identifier} refers to the same entity as the given literal.
    */
   public boolean isEquivalent(String other) {
-    return value().toUpperCase(Locale.US).equals(other.toUpperCase(Locale.US));
+    return key == IdentifierKey.of(other);
+  }
+
+  /**
+   * Returns whether or not this {@link Identifier} refers to the same entity as the given {@link
+   * IdentifierKey}.
+   */
+  public boolean isEquivalent(IdentifierKey other) {
+    return key == other;
   }
 
   /** Returns a new {@code Identifier} based on the given {@link TerminalNode}. */
   static Identifier create(TerminalNode node) {
-    Token token = node.getSymbol();
+    return create(node.getSymbol());
+  }
+
+  /** Returns a new {@code Identifier} based on the given {@link Token}. */
+  static Identifier create(Token token) {
     checkArgument(
         token.getType() == PapyrusParser.ID,
-        "Identifier::create passed an unsupported TerminalNode: %s",
-        node);
-    return new Identifier(SourceReference.create(node), token.getText());
+        "Identifier::create passed an unsupported Token: %s",
+        token);
+    return new Identifier(SourceReference.create(token), token.getText());
   }
 }
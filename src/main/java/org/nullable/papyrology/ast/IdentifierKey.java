@@ -0,0 +1,57 @@
+package org.nullable.papyrology.ast;
+
+import com.google.common.collect.MapMaker;
+import com.google.errorprone.annotations.Immutable;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The canonical, case-insensitive key of an {@link Identifier}.
+ *
+ * <p>Papyrus identifiers are case-insensitive, so every spelling of an identifier (e.g. {@code
+ * foo}, {@code Foo}, {@code FOO}) maps to the same {@code IdentifierKey}. Keys are interned, which
+ * means two keys are equal if and only if they are the same instance; comparing and hashing them
+ * never touches the underlying characters.
+ *
+ * <p>Interned keys are only weakly referenced, so the keys of identifiers that are no longer used
+ * anywhere are garbage collected (and are interned anew if they ever come up again).
+ */
+@Immutable
+public final class IdentifierKey {
+
+  private static final ConcurrentMap<String, IdentifierKey> INTERNED =
+      new MapMaker().weakValues().makeMap();
+
+  private final String value;
+  private final int hashCode;
+
+  private IdentifierKey(String value) {
+    this.value = value;
+    this.hashCode = value.hashCode();
+  }
+
+  /** Returns the interned {@code IdentifierKey} of the given identifier. */
+  public static IdentifierKey of(String identifier) {
+    String value = identifier.toUpperCase(Locale.US);
+    IdentifierKey key = INTERNED.get(value);
+    if (key != null) {
+      return key;
+    }
+    return INTERNED.computeIfAbsent(value, IdentifierKey::new);
+  }
+
+  /** Returns the case-folded (i.e. upper case) form of the identifier. */
+  public String value() {
+    return value;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
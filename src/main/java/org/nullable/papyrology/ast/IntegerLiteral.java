@@ -6,7 +6,6 @@ import com.google.errorprone.annotations.Immutable;
 import java.math.BigInteger;
 import java.util.Locale;
 import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.TerminalNode;
 import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.source.SourceReference;
 
@@ -26,15 +25,14 @@ public record IntegerLiteral(SourceReference sourceReference, int value, boolean
     visitor.visit(this);
   }
 
-  /** Returns a new {@code IntegerLiteral} based on the given {@link TerminalNode}. */
-  static IntegerLiteral create(TerminalNode node) {
-    Token token = node.getSymbol();
+  /** Returns a new {@code IntegerLiteral} based on the given {@link Token}. */
+  static IntegerLiteral create(Token token) {
     checkArgument(
         token.getType() == PapyrusParser.L_UINT || token.getType() == PapyrusParser.L_INT,
-        " IntegerLiteral::create passed an unsupported TerminalNode: %s",
-        node);
+        " IntegerLiteral::create passed an unsupported Token: %s",
+        token);
     ParsedValue parsed = parseInteger(token.getText());
-    return new IntegerLiteral(SourceReference.create(node), parsed.value(), parsed.isOutOfRange());
+    return new IntegerLiteral(SourceReference.create(token), parsed.value(), parsed.isOutOfRange());
   }
 
   /**
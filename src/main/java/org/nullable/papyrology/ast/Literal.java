@@ -1,6 +1,8 @@
 package org.nullable.papyrology.ast;
 
 import com.google.errorprone.annotations.Immutable;
+import org.antlr.v4.runtime.Token;
+import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.grammar.PapyrusParser.LiteralContext;
 
 /** An {@link Expression} that is a literal value defined by the source code. */
@@ -9,34 +11,21 @@ public interface Literal extends Expression {
 
   /** Returns a new {@code Literal} based on the given {@link LiteralContext}. */
   static Literal create(LiteralContext ctx) {
-    if (ctx.K_TRUE() != null) {
-      return BooleanLiteral.create(ctx.K_TRUE());
-    }
-    if (ctx.K_FALSE() != null) {
-      return BooleanLiteral.create(ctx.K_FALSE());
-    }
-    if (ctx.L_FLOAT() != null) {
-      return FloatLiteral.create(ctx.L_FLOAT());
-    }
-    if (ctx.L_UINT() != null) {
-      return IntegerLiteral.create(ctx.L_UINT());
-    }
-    if (ctx.L_INT() != null) {
-      return IntegerLiteral.create(ctx.L_INT());
-    }
-    if (ctx.L_STRING() != null) {
-      return StringLiteral.create(ctx.L_STRING());
-    }
-    if (ctx.K_NONE() != null) {
-      return ObjectLiteral.create(ctx.K_NONE());
-    }
-    if (ctx.K_SELF() != null) {
-      return ObjectLiteral.create(ctx.K_SELF());
-    }
-    if (ctx.K_PARENT() != null) {
-      return ObjectLiteral.create(ctx.K_PARENT());
-    }
-    throw new IllegalArgumentException(
-        String.format("Literal::create passed malformed LiteralContext: %s", ctx));
+    return create(ctx.getStart());
+  }
+
+  /** Returns a new {@code Literal} based on the given {@link Token}. */
+  static Literal create(Token token) {
+    return switch (token.getType()) {
+      case PapyrusParser.K_TRUE, PapyrusParser.K_FALSE -> BooleanLiteral.create(token);
+      case PapyrusParser.L_FLOAT -> FloatLiteral.create(token);
+      case PapyrusParser.L_UINT, PapyrusParser.L_INT -> IntegerLiteral.create(token);
+      case PapyrusParser.L_STRING -> StringLiteral.create(token);
+      case PapyrusParser.K_NONE, PapyrusParser.K_SELF, PapyrusParser.K_PARENT ->
+          ObjectLiteral.create(token);
+      default ->
+          throw new IllegalArgumentException(
+              String.format("Literal::create passed an unsupported Token: %s", token));
+    };
   }
 }
@@ -2,7 +2,6 @@ package org.nullable.papyrology.ast;
 
 import com.google.errorprone.annotations.Immutable;
 import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.TerminalNode;
 import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.source.SourceReference;
 
@@ -32,10 +31,9 @@ public record ObjectLiteral(SourceReference sourceReference, Reference value) im
     visitor.visit(this);
   }
 
-  /** Returns a new {@code ObjectLiteral} based on the given {@link TerminalNode}. */
-  static ObjectLiteral create(TerminalNode node) {
-    Token token = node.getSymbol();
-    SourceReference sourceReference = SourceReference.create(node);
+  /** Returns a new {@code ObjectLiteral} based on the given {@link Token}. */
+  static ObjectLiteral create(Token token) {
+    SourceReference sourceReference = SourceReference.create(token);
     if (token.getType() == PapyrusParser.K_NONE) {
       return new ObjectLiteral(sourceReference, Reference.NONE);
     }
@@ -46,6 +44,6 @@ public record ObjectLiteral(SourceReference sourceReference, Reference value) im
       return new ObjectLiteral(sourceReference, Reference.PARENT);
     }
     throw new IllegalArgumentException(
-        String.format("ObjectLiteral::create passed an unsupported TerminalNode: %s", node));
+        String.format("ObjectLiteral::create passed an unsupported Token: %s", token));
   }
 }
@@ -0,0 +1,128 @@
+package org.nullable.papyrology.ast;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.nullable.papyrology.grammar.PapyrusLexer;
+import org.nullable.papyrology.grammar.PapyrusParser;
+import org.nullable.papyrology.source.file.SourceFile;
+
+/**
+ * An on-disk cache of parsed {@link Script Scripts}.
+ *
+ * <p>Entries are keyed by a hash of the content of the {@link SourceFile}, the grammar (i.e. the
+ * serialized ATNs of the {@link PapyrusLexer} and {@link PapyrusParser}), the {@link
+ * ScriptParser#AST_VERSION} and the {@link ScriptCodec#FORMAT_VERSION}, so a change to any of
+ * those simply misses the cache. Cached {@code Scripts} are stored with {@link ScriptCodec} and
+ * memory-mapped when they are read back.
+ *
+ * <p>This class is thread-safe, and several processes can share the same directory: entries are
+ * written to a temporary file and then atomically moved into place.
+ */
+public final class PersistentScriptCache {
+
+  private static final String EXTENSION = ".past";
+
+  private static final HashCode VERSION =
+      Hashing.sha256()
+          .newHasher()
+          .putString(PapyrusLexer._serializedATN, UTF_8)
+          .putString(PapyrusParser._serializedATN, UTF_8)
+          .putInt(ScriptParser.AST_VERSION)
+          .putInt(ScriptCodec.FORMAT_VERSION)
+          .hash();
+
+  private final Path directory;
+  private final ScriptParser parser;
+
+  private PersistentScriptCache(Path directory, ScriptParser parser) {
+    this.directory = directory;
+    this.parser = parser;
+  }
+
+  /**
+   * Returns a new {@code PersistentScriptCache} that stores its entries in the given {@code
+   * directory} (creating it if needed) and parses misses with the given {@link ScriptParser}.
+   */
+  public static PersistentScriptCache create(Path directory, ScriptParser parser) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create the script cache directory.", e);
+    }
+    return new PersistentScriptCache(directory, parser);
+  }
+
+  /**
+   * Returns the {@link Script} defined by the given {@link SourceFile}, reading it from the cache
+   * if possible and parsing (and caching) it otherwise.
+   *
+   * @throws SyntaxException if the content of the {@code SourceFile} is not a valid {@code Script}.
+   */
+  public Script load(SourceFile sourceFile) {
+    CharStream source = CharStreams.fromString(sourceFile.getContent(), sourceFile.getFileName());
+    Path entry = directory.resolve(key(sourceFile.getContent()) + EXTENSION);
+    Script script = read(entry, source);
+    if (script != null) {
+      return script;
+    }
+    script = parser.parse(source);
+    write(entry, ScriptCodec.encode(script));
+    return script;
+  }
+
+  private static String key(String content) {
+    return Hashing.sha256()
+        .newHasher()
+        .putBytes(VERSION.asBytes())
+        .putString(content, UTF_8)
+        .hash()
+        .toString();
+  }
+
+  /** Returns the cached {@link Script} in the given {@code entry}, or {@code null} if unusable. */
+  private static Script read(Path entry, CharStream source) {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (IOException | UnsupportedOperationException e) {
+      // Most commonly a NoSuchFileException, i.e. a cache miss.
+      return null;
+    }
+    try {
+      return ScriptCodec.decode(buffer, source);
+    } catch (IllegalArgumentException e) {
+      // The entry is corrupt (e.g. truncated); it will be replaced.
+      return null;
+    }
+  }
+
+  private void write(Path entry, byte[] encoded) {
+    try {
+      Path temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+      try {
+        Files.write(temporary, encoded);
+        Files.move(
+            temporary,
+            entry,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    } catch (IOException e) {
+      // Failing to cache a Script is never fatal; it will simply be parsed again next time.
+    }
+  }
+}
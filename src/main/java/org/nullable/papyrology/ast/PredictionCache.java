@@ -0,0 +1,116 @@
+package org.nullable.papyrology.ast;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import org.antlr.v4.runtime.atn.ATN;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.nullable.papyrology.grammar.PapyrusParser;
+import org.nullable.papyrology.grammar.PapyrusTokenizer;
+
+/**
+ * The prediction state (i.e. the DFAs) used by the {@link PapyrusParser}.
+ *
+ * <p>Scripts are lexed by the {@link PapyrusTokenizer}, which doesn't simulate an ATN, so only the
+ * parser has prediction state to cache.
+ *
+ * <p>ANTLR builds its DFAs lazily while parsing, so the first scripts parsed with an empty {@code
+ * PredictionCache} are much slower than the rest. {@link #warm()} can be used to pay that cost up
+ * front by parsing a bundled corpus that exercises every construct in the grammar.
+ *
+ * <p>This class is thread-safe; a single {@code PredictionCache} can back any number of concurrent
+ * parses.
+ */
+public final class PredictionCache {
+
+  private static final String WARM_UP_CORPUS = "warmup.psc";
+
+  private static final PredictionCache SHARED = createShared();
+
+  private final DFA[] parserDecisionToDfa;
+  private final PredictionContextCache parserContextCache;
+
+  private PredictionCache(DFA[] parserDecisionToDfa, PredictionContextCache parserContextCache) {
+    this.parserDecisionToDfa = parserDecisionToDfa;
+    this.parserContextCache = parserContextCache;
+  }
+
+  /**
+   * Returns the {@code PredictionCache} that is shared by every {@link PapyrusParser} in this JVM
+   * by default.
+   */
+  public static PredictionCache shared() {
+    return SHARED;
+  }
+
+  /** Returns a new, empty {@code PredictionCache} that is isolated from every other one. */
+  public static PredictionCache create() {
+    return new PredictionCache(newDecisionToDfa(PapyrusParser._ATN), new PredictionContextCache());
+  }
+
+  private static PredictionCache createShared() {
+    ParserATNSimulator parserSimulator = new PapyrusParser(null).getInterpreter();
+    return new PredictionCache(
+        parserSimulator.decisionToDFA, parserSimulator.getSharedContextCache());
+  }
+
+  private static DFA[] newDecisionToDfa(ATN atn) {
+    DFA[] decisionToDfa = new DFA[atn.getNumberOfDecisions()];
+    for (int i = 0; i < decisionToDfa.length; i++) {
+      decisionToDfa[i] = new DFA(atn.getDecisionState(i), i);
+    }
+    return decisionToDfa;
+  }
+
+  /**
+   * Fills this {@code PredictionCache} by parsing a bundled corpus of representative Papyrus
+   * constructs.
+   *
+   * @return this {@code PredictionCache}
+   */
+  @CanIgnoreReturnValue
+  public PredictionCache warm() {
+    String corpus;
+    try (InputStream stream = PredictionCache.class.getResourceAsStream(WARM_UP_CORPUS)) {
+      if (stream == null) {
+        throw new IllegalStateException("Unable to locate the warm-up corpus.");
+      }
+      corpus = new String(stream.readAllBytes(), UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read the warm-up corpus.", e);
+    }
+    Script unused = ScriptParser.builder().setPredictionCache(this).build().parse(corpus);
+    return this;
+  }
+
+  /**
+   * Discards all prediction state held by this {@code PredictionCache}.
+   *
+   * <p>Parses that are in progress while this is called remain correct, but may be slower.
+   */
+  public void clear() {
+    for (int i = 0; i < parserDecisionToDfa.length; i++) {
+      parserDecisionToDfa[i] = new DFA(parserDecisionToDfa[i].atnStartState, i);
+    }
+  }
+
+  /** Returns the number of DFA states currently held by this {@code PredictionCache}. */
+  int stateCount() {
+    int states = 0;
+    for (DFA dfa : parserDecisionToDfa) {
+      states += dfa.states.size();
+    }
+    return states;
+  }
+
+  /** Points the given {@link PapyrusParser} at this {@code PredictionCache}. */
+  void install(PapyrusParser parser) {
+    parser.setInterpreter(
+        new ParserATNSimulator(parser, parser.getATN(), parserDecisionToDfa, parserContextCache));
+  }
+}
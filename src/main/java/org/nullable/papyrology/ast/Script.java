@@ -20,12 +20,21 @@ public record Script(
 
   /** Returns a new {@code Script} based on the given {@link ScriptContext}. */
   static Script create(ScriptContext ctx) {
+    return create(
+        ctx,
+        Header.create(ctx.header()),
+        ctx.declaration().stream().map(Declaration::create).collect(toImmutableList()));
+  }
+
+  /**
+   * Returns a new {@code Script} based on the given {@link ScriptContext}, with the given {@link
+   * Header} and {@link Declaration Declarations} that have already been built from its children.
+   */
+  static Script create(ScriptContext ctx, Header header, ImmutableList<Declaration> declarations) {
     SourceReference sourceReference = SourceReference.create(ctx);
-    ImmutableList<Declaration> declarations =
-        ctx.declaration().stream().map(Declaration::create).collect(toImmutableList());
     if (declarations.stream().filter(d -> d instanceof State s && s.isAuto()).count() > 1) {
       throw new SyntaxException(sourceReference, "Cannot specify multiple auto States.");
     }
-    return new Script(sourceReference, Header.create(ctx.header()), declarations);
+    return new Script(sourceReference, header, declarations);
   }
 }
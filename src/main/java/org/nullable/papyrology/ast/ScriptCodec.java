@@ -0,0 +1,908 @@
+package org.nullable.papyrology.ast;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.antlr.v4.runtime.CharStream;
+import org.nullable.papyrology.ast.If.ConditionalBlock;
+import org.nullable.papyrology.source.SourceReference;
+
+/**
+ * A compact binary encoding of {@link Script Scripts}.
+ *
+ * <p>The encoding is a pre-order walk of the AST: every polymorphic node is preceded by a one byte
+ * tag, integers are variable-length and strings are written once per encoded {@code Script} and
+ * then referred to by index. {@link SourceReference SourceReferences} are stored as offsets only;
+ * decoding attaches them to the {@link CharStream} of the (unchanged) source, so their text is
+ * still read lazily.
+ *
+ * <p>Decoding reads directly from a {@link ByteBuffer}, so encoded {@code Scripts} can be
+ * memory-mapped.
+ */
+public final class ScriptCodec {
+
+  /** Identifies the version of the encoding; bump it whenever the encoding changes. */
+  public static final int FORMAT_VERSION = 2;
+
+  private static final int MAGIC = 0x50415354; // "PAST"
+
+  // Declarations.
+  private static final int TAG_IMPORT = 1;
+  private static final int TAG_SCRIPT_VARIABLE = 2;
+  private static final int TAG_PROPERTY = 3;
+  private static final int TAG_STATE = 4;
+  private static final int TAG_FUNCTION = 5;
+  private static final int TAG_EVENT = 6;
+  // Statements.
+  private static final int TAG_VARIABLE = 10;
+  private static final int TAG_ASSIGNMENT = 11;
+  private static final int TAG_RETURN = 12;
+  private static final int TAG_IF = 13;
+  private static final int TAG_WHILE = 14;
+  // Expressions.
+  private static final int TAG_BINARY_OPERATION = 20;
+  private static final int TAG_UNARY_OPERATION = 21;
+  private static final int TAG_CAST = 22;
+  private static final int TAG_FUNCTION_CALL = 23;
+  private static final int TAG_DOT_ACCESS = 24;
+  private static final int TAG_ARRAY_LENGTH = 25;
+  private static final int TAG_PARENTHETICAL = 26;
+  private static final int TAG_ARRAY_ACCESS = 27;
+  private static final int TAG_ARRAY_INITIALIZATION = 28;
+  private static final int TAG_IDENTIFIER = 29;
+  // Literals.
+  private static final int TAG_BOOLEAN_LITERAL = 30;
+  private static final int TAG_INTEGER_LITERAL = 31;
+  private static final int TAG_FLOAT_LITERAL = 32;
+  private static final int TAG_STRING_LITERAL = 33;
+  private static final int TAG_OBJECT_LITERAL = 34;
+
+  private static final BinaryOperation.Operator[] BINARY_OPERATORS =
+      BinaryOperation.Operator.values();
+  private static final UnaryOperation.Operator[] UNARY_OPERATORS = UnaryOperation.Operator.values();
+  private static final Assignment.Operator[] ASSIGNMENT_OPERATORS = Assignment.Operator.values();
+  private static final ObjectLiteral.Reference[] OBJECT_REFERENCES =
+      ObjectLiteral.Reference.values();
+  private static final DataType[] DATA_TYPES = DataType.values();
+  private static final Assignment.Assignee.Type[] ASSIGNEE_TYPES =
+      Assignment.Assignee.Type.values();
+
+  private ScriptCodec() {}
+
+  /** Returns the encoding of the given {@link Script}. */
+  public static byte[] encode(Script script) {
+    Encoder encoder = new Encoder();
+    encoder.writeInt(MAGIC);
+    encoder.writeUnsigned(FORMAT_VERSION);
+    encoder.write(script);
+    return encoder.toByteArray();
+  }
+
+  /**
+   * Returns the {@link Script} encoded in the remaining content of the given {@link ByteBuffer}.
+   *
+   * <p>The {@link SourceReference SourceReferences} of the {@code Script} will refer to the given
+   * {@link CharStream}, which must hold the exact source the {@code Script} was parsed from.
+   *
+   * @throws IllegalArgumentException if the {@code ByteBuffer} doesn't hold a valid encoding.
+   */
+  public static Script decode(ByteBuffer buffer, CharStream source) {
+    Decoder decoder = new Decoder(buffer.slice(), source);
+    try {
+      if (decoder.readInt() != MAGIC || decoder.readUnsigned() != FORMAT_VERSION) {
+        throw new IllegalArgumentException("ScriptCodec::decode passed an unknown encoding.");
+      }
+      Script script = decoder.readScript();
+      if (decoder.buffer.hasRemaining()) {
+        throw new IllegalArgumentException("ScriptCodec::decode passed trailing data.");
+      }
+      return script;
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("ScriptCodec::decode passed a truncated encoding.", e);
+    }
+  }
+
+  /** Writes the encoding of a {@link Script} into a growable byte array. */
+  private static final class Encoder {
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    private byte[] bytes = new byte[4096];
+    private int size = 0;
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+
+    void write(Script script) {
+      write(script.sourceReference());
+      write(script.header());
+      writeList(script.declarations(), this::write);
+    }
+
+    void write(Header header) {
+      write(header.sourceReference());
+      write(header.scriptIdentifier());
+      writeOptional(header.parentScriptIdentifier(), this::write);
+      writeBoolean(header.isHidden());
+      writeBoolean(header.isConditional());
+      writeOptional(header.comment(), this::write);
+    }
+
+    void write(Declaration declaration) {
+      if (declaration instanceof Import importDeclaration) {
+        writeTag(TAG_IMPORT);
+        write(importDeclaration.sourceReference());
+        write(importDeclaration.importedScriptIdentifier());
+      } else if (declaration instanceof ScriptVariable variable) {
+        writeTag(TAG_SCRIPT_VARIABLE);
+        write(variable.sourceReference());
+        write(variable.type());
+        write(variable.identifier());
+        writeOptional(variable.literal(), this::write);
+        writeBoolean(variable.isConditional());
+      } else if (declaration instanceof Property property) {
+        writeTag(TAG_PROPERTY);
+        write(property.sourceReference());
+        write(property.type());
+        write(property.identifier());
+        writeOptional(property.defaultValueLiteral(), this::write);
+        writeOptional(property.setFunction(), this::writeFunction);
+        writeOptional(property.getFunction(), this::writeFunction);
+        writeOptional(property.comment(), this::write);
+        writeBoolean(property.isAuto());
+        writeBoolean(property.isAutoReadOnly());
+        writeBoolean(property.isHidden());
+        writeBoolean(property.isConditional());
+      } else if (declaration instanceof State state) {
+        writeTag(TAG_STATE);
+        write(state.sourceReference());
+        write(state.identifier());
+        writeList(state.invokables(), this::write);
+        writeBoolean(state.isAuto());
+      } else if (declaration instanceof Function function) {
+        writeTag(TAG_FUNCTION);
+        writeFunction(function);
+      } else if (declaration instanceof Event event) {
+        writeTag(TAG_EVENT);
+        write(event.sourceReference());
+        write(event.identifier());
+        writeList(event.parameters(), this::write);
+        writeOptional(event.body(), this::write);
+        writeOptional(event.comment(), this::write);
+        writeBoolean(event.isNative());
+      } else {
+        throw new IllegalArgumentException(
+            String.format("ScriptCodec passed an unsupported Declaration: %s", declaration));
+      }
+    }
+
+    void writeFunction(Function function) {
+      write(function.sourceReference());
+      writeOptional(function.returnType(), this::write);
+      write(function.identifier());
+      writeList(function.parameters(), this::write);
+      writeOptional(function.body(), this::write);
+      writeOptional(function.comment(), this::write);
+      writeBoolean(function.isGlobal());
+      writeBoolean(function.isNative());
+    }
+
+    void write(Parameter parameter) {
+      write(parameter.sourceReference());
+      write(parameter.type());
+      write(parameter.identifier());
+      writeOptional(parameter.defaultValueLiteral(), this::write);
+    }
+
+    void write(Type type) {
+      write(type.sourceReference());
+      writeUnsigned(type.dataType().ordinal());
+      writeOptional(type.identifier(), this::write);
+    }
+
+    void write(Block block) {
+      write(block.sourceReference());
+      writeList(block.bodyStatements(), this::write);
+    }
+
+    void write(Statement statement) {
+      if (statement instanceof Expression expression) {
+        write(expression);
+      } else if (statement instanceof Variable variable) {
+        writeTag(TAG_VARIABLE);
+        write(variable.sourceReference());
+        write(variable.type());
+        write(variable.identifier());
+        writeOptional(variable.valueExpression(), this::write);
+      } else if (statement instanceof Assignment assignment) {
+        writeTag(TAG_ASSIGNMENT);
+        write(assignment.sourceReference());
+        Assignment.Assignee assignee = assignment.assignee();
+        writeUnsigned(assignee.type().ordinal());
+        switch (assignee.type()) {
+          case IDENTIFIER -> write(assignee.identifier());
+          case DOT_ACCESS -> write((Expression) assignee.dotAccess());
+          case ARRAY_ACCESS -> write((Expression) assignee.arrayAccess());
+        }
+        writeUnsigned(assignment.operator().ordinal());
+        write(assignment.valueExpression());
+      } else if (statement instanceof Return returnStatement) {
+        writeTag(TAG_RETURN);
+        write(returnStatement.sourceReference());
+        writeOptional(returnStatement.valueExpression(), this::write);
+      } else if (statement instanceof If ifStatement) {
+        writeTag(TAG_IF);
+        write(ifStatement.sourceReference());
+        writeList(
+            ifStatement.conditionalBlocks(),
+            conditionalBlock -> {
+              write(conditionalBlock.conditionalExpression());
+              write(conditionalBlock.body());
+            });
+        writeOptional(ifStatement.elseBlock(), this::write);
+      } else if (statement instanceof While whileStatement) {
+        writeTag(TAG_WHILE);
+        write(whileStatement.sourceReference());
+        write(whileStatement.conditionalExpression());
+        write(whileStatement.body());
+      } else {
+        throw new IllegalArgumentException(
+            String.format("ScriptCodec passed an unsupported Statement: %s", statement));
+      }
+    }
+
+    /**
+     * Writes an {@link Expression} and, in pre-order, every {@code Expression} it contains, which
+     * are tracked on an explicit stack so that long chains of operations can't overflow the call
+     * stack. All of the other fields of an {@code Expression} precede its operands.
+     */
+    void write(Expression root) {
+      Deque<Expression> expressions = new ArrayDeque<>();
+      expressions.push(root);
+      while (!expressions.isEmpty()) {
+        Expression expression = expressions.pop();
+        if (expression instanceof Identifier identifier) {
+          writeTag(TAG_IDENTIFIER);
+          write(identifier);
+        } else if (expression instanceof Literal literal) {
+          write(literal);
+        } else if (expression instanceof BinaryOperation operation) {
+          writeTag(TAG_BINARY_OPERATION);
+          write(operation.sourceReference());
+          writeUnsigned(operation.operator().ordinal());
+          expressions.push(operation.rightExpression());
+          expressions.push(operation.leftExpression());
+        } else if (expression instanceof UnaryOperation operation) {
+          writeTag(TAG_UNARY_OPERATION);
+          write(operation.sourceReference());
+          writeUnsigned(operation.operator().ordinal());
+          expressions.push(operation.expression());
+        } else if (expression instanceof Cast cast) {
+          writeTag(TAG_CAST);
+          write(cast.sourceReference());
+          write(cast.type());
+          expressions.push(cast.expression());
+        } else if (expression instanceof FunctionCall functionCall) {
+          writeTag(TAG_FUNCTION_CALL);
+          write(functionCall.sourceReference());
+          write(functionCall.identifier());
+          writeBoolean(functionCall.referenceExpression().isPresent());
+          writeList(
+              functionCall.callParameters(),
+              callParameter -> {
+                write(callParameter.sourceReference());
+                writeOptional(callParameter.identifier(), this::write);
+              });
+          for (CallParameter callParameter : functionCall.callParameters().reverse()) {
+            expressions.push(callParameter.expression());
+          }
+          functionCall.referenceExpression().ifPresent(expressions::push);
+        } else if (expression instanceof DotAccess dotAccess) {
+          writeTag(TAG_DOT_ACCESS);
+          write(dotAccess.sourceReference());
+          write(dotAccess.identifier());
+          expressions.push(dotAccess.referenceExpression());
+        } else if (expression instanceof ArrayLength arrayLength) {
+          writeTag(TAG_ARRAY_LENGTH);
+          write(arrayLength.sourceReference());
+          expressions.push(arrayLength.arrayExpression());
+        } else if (expression instanceof Parenthetical parenthetical) {
+          writeTag(TAG_PARENTHETICAL);
+          write(parenthetical.sourceReference());
+          expressions.push(parenthetical.expression());
+        } else if (expression instanceof ArrayAccess arrayAccess) {
+          writeTag(TAG_ARRAY_ACCESS);
+          write(arrayAccess.sourceReference());
+          expressions.push(arrayAccess.indexExpression());
+          expressions.push(arrayAccess.arrayExpression());
+        } else if (expression instanceof ArrayInitialization arrayInitialization) {
+          writeTag(TAG_ARRAY_INITIALIZATION);
+          write(arrayInitialization.sourceReference());
+          write(arrayInitialization.type());
+          writeIntegerLiteral(arrayInitialization.size());
+        } else {
+          throw new IllegalArgumentException(
+              String.format("ScriptCodec passed an unsupported Expression: %s", expression));
+        }
+      }
+    }
+
+    void write(Literal literal) {
+      if (literal instanceof BooleanLiteral booleanLiteral) {
+        writeTag(TAG_BOOLEAN_LITERAL);
+        write(booleanLiteral.sourceReference());
+        writeBoolean(booleanLiteral.value());
+      } else if (literal instanceof IntegerLiteral integerLiteral) {
+        writeTag(TAG_INTEGER_LITERAL);
+        writeIntegerLiteral(integerLiteral);
+      } else if (literal instanceof FloatLiteral floatLiteral) {
+        writeTag(TAG_FLOAT_LITERAL);
+        write(floatLiteral.sourceReference());
+        writeInt(Float.floatToRawIntBits(floatLiteral.value()));
+      } else if (literal instanceof StringLiteral stringLiteral) {
+        writeTag(TAG_STRING_LITERAL);
+        write(stringLiteral.sourceReference());
+        write(stringLiteral.value());
+      } else if (literal instanceof ObjectLiteral objectLiteral) {
+        writeTag(TAG_OBJECT_LITERAL);
+        write(objectLiteral.sourceReference());
+        writeUnsigned(objectLiteral.value().ordinal());
+      } else {
+        throw new IllegalArgumentException(
+            String.format("ScriptCodec passed an unsupported Literal: %s", literal));
+      }
+    }
+
+    void writeIntegerLiteral(IntegerLiteral integerLiteral) {
+      write(integerLiteral.sourceReference());
+      writeSigned(integerLiteral.value());
+      writeBoolean(integerLiteral.isOutOfRange());
+    }
+
+    void write(Identifier identifier) {
+      write(identifier.sourceReference());
+      write(identifier.value());
+    }
+
+    void write(SourceReference sourceReference) {
+      if (sourceReference == null) {
+        writeUnsigned(0);
+        return;
+      }
+      // Offsets are stored +1 so that 0 can denote a missing SourceReference.
+      writeUnsigned(sourceReference.getStartIndex() + 1);
+      writeUnsigned(sourceReference.getStopIndex() - sourceReference.getStartIndex() + 1);
+      writeUnsigned(sourceReference.getLine());
+      writeUnsigned(sourceReference.getColumn());
+    }
+
+    /** Writes a string the first time it is seen, and its index every time after that. */
+    void write(String value) {
+      Integer index = stringIndices.get(value);
+      if (index != null) {
+        writeUnsigned(index + 1);
+        return;
+      }
+      stringIndices.put(value, stringIndices.size());
+      byte[] encoded = value.getBytes(UTF_8);
+      writeUnsigned(0);
+      writeUnsigned(encoded.length);
+      ensureCapacity(encoded.length);
+      System.arraycopy(encoded, 0, bytes, size, encoded.length);
+      size += encoded.length;
+    }
+
+    <T> void writeOptional(Optional<T> value, Writer<T> writer) {
+      writeBoolean(value.isPresent());
+      value.ifPresent(writer::write);
+    }
+
+    <T> void writeList(List<T> values, Writer<T> writer) {
+      writeUnsigned(values.size());
+      values.forEach(writer::write);
+    }
+
+    void writeTag(int tag) {
+      writeByte(tag);
+    }
+
+    void writeBoolean(boolean value) {
+      writeByte(value ? 1 : 0);
+    }
+
+    void writeSigned(int value) {
+      writeUnsigned((value << 1) ^ (value >> 31));
+    }
+
+    void writeUnsigned(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0) {
+        bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[size++] = (byte) value;
+    }
+
+    void writeInt(int value) {
+      ensureCapacity(4);
+      bytes[size++] = (byte) (value >>> 24);
+      bytes[size++] = (byte) (value >>> 16);
+      bytes[size++] = (byte) (value >>> 8);
+      bytes[size++] = (byte) value;
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) value;
+    }
+
+    void ensureCapacity(int additional) {
+      if (size + additional > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+      }
+    }
+  }
+
+  /** Writes a single value with an {@link Encoder}. */
+  @FunctionalInterface
+  private interface Writer<T> {
+    void write(T value);
+  }
+
+  /** An {@link Expression} being decoded, whose operands are still being read. */
+  private static final class Operation {
+    private final Expression[] operands;
+    private final Combiner combiner;
+    private int size;
+
+    Operation(int operands, Combiner combiner) {
+      this.operands = new Expression[operands];
+      this.combiner = combiner;
+    }
+
+    /** Adds the next operand, returning the built {@link Expression} if it was the last one. */
+    Expression add(Expression operand) {
+      operands[size++] = operand;
+      return size == operands.length ? build() : null;
+    }
+
+    Expression build() {
+      return combiner.combine(operands);
+    }
+  }
+
+  /** Builds an {@link Expression} out of its (decoded) operands. */
+  @FunctionalInterface
+  private interface Combiner {
+    Expression combine(Expression[] operands);
+  }
+
+  /** Reads a {@link Script} out of a {@link ByteBuffer}. */
+  private static final class Decoder {
+    private final ByteBuffer buffer;
+    private final CharStream source;
+    private final List<String> strings = new ArrayList<>();
+    private final List<IdentifierKey> keys = new ArrayList<>();
+    private int lastStringIndex;
+
+    Decoder(ByteBuffer buffer, CharStream source) {
+      this.buffer = buffer;
+      this.source = source;
+    }
+
+    Script readScript() {
+      return new Script(readSourceReference(), readHeader(), readList(this::readDeclaration));
+    }
+
+    Header readHeader() {
+      return new Header(
+          readSourceReference(),
+          readIdentifier(),
+          readOptional(this::readIdentifier),
+          readBoolean(),
+          readBoolean(),
+          readOptional(this::readString));
+    }
+
+    Declaration readDeclaration() {
+      int tag = readTag();
+      return switch (tag) {
+        case TAG_IMPORT -> new Import(readSourceReference(), readIdentifier());
+        case TAG_SCRIPT_VARIABLE ->
+            new ScriptVariable(
+                readSourceReference(),
+                readType(),
+                readIdentifier(),
+                readOptional(this::readLiteral),
+                readBoolean());
+        case TAG_PROPERTY ->
+            new Property(
+                readSourceReference(),
+                readType(),
+                readIdentifier(),
+                readOptional(this::readLiteral),
+                readOptional(this::readFunction),
+                readOptional(this::readFunction),
+                readOptional(this::readString),
+                readBoolean(),
+                readBoolean(),
+                readBoolean(),
+                readBoolean());
+        case TAG_STATE ->
+            new State(
+                readSourceReference(),
+                readIdentifier(),
+                readList(this::readInvokable),
+                readBoolean());
+        case TAG_FUNCTION -> readFunction();
+        case TAG_EVENT ->
+            new Event(
+                readSourceReference(),
+                readIdentifier(),
+                readList(this::readParameter),
+                readOptional(this::readBlock),
+                readOptional(this::readString),
+                readBoolean());
+        default -> throw unknownTag(tag);
+      };
+    }
+
+    Invokable readInvokable() {
+      if (!(readDeclaration() instanceof Invokable invokable)) {
+        throw new IllegalArgumentException("ScriptCodec::decode expected an Invokable.");
+      }
+      return invokable;
+    }
+
+    Function readFunction() {
+      return new Function(
+          readSourceReference(),
+          readOptional(this::readType),
+          readIdentifier(),
+          readList(this::readParameter),
+          readOptional(this::readBlock),
+          readOptional(this::readString),
+          readBoolean(),
+          readBoolean());
+    }
+
+    Parameter readParameter() {
+      return new Parameter(
+          readSourceReference(), readType(), readIdentifier(), readOptional(this::readLiteral));
+    }
+
+    Type readType() {
+      return new Type(
+          readSourceReference(),
+          readEnum(DATA_TYPES),
+          readOptional(this::readIdentifier));
+    }
+
+    Block readBlock() {
+      return new Block(readSourceReference(), readList(this::readStatement));
+    }
+
+    Statement readStatement() {
+      int tag = readTag();
+      return switch (tag) {
+        case TAG_VARIABLE ->
+            new Variable(
+                readSourceReference(),
+                readType(),
+                readIdentifier(),
+                readOptional(this::readExpression));
+        case TAG_ASSIGNMENT ->
+            new Assignment(
+                readSourceReference(),
+                readAssignee(),
+                readEnum(ASSIGNMENT_OPERATORS),
+                readExpression());
+        case TAG_RETURN -> new Return(readSourceReference(), readOptional(this::readExpression));
+        case TAG_IF ->
+            new If(
+                readSourceReference(),
+                readList(() -> new ConditionalBlock(readExpression(), readBlock())),
+                readOptional(this::readBlock));
+        case TAG_WHILE -> new While(readSourceReference(), readExpression(), readBlock());
+        default -> readExpression(tag);
+      };
+    }
+
+    Assignment.Assignee readAssignee() {
+      return switch (readEnum(ASSIGNEE_TYPES)) {
+        case IDENTIFIER -> AutoOneOf_Assignment_Assignee.identifier(readIdentifier());
+        case DOT_ACCESS ->
+            AutoOneOf_Assignment_Assignee.dotAccess(readExpression(DotAccess.class));
+        case ARRAY_ACCESS ->
+            AutoOneOf_Assignment_Assignee.arrayAccess(readExpression(ArrayAccess.class));
+      };
+    }
+
+    Expression readExpression() {
+      return readExpression(readTag());
+    }
+
+    <T extends Expression> T readExpression(Class<T> kind) {
+      Expression expression = readExpression();
+      if (!kind.isInstance(expression)) {
+        throw new IllegalArgumentException(
+            String.format(
+                "ScriptCodec::decode expected a %s: %s", kind.getSimpleName(), expression));
+      }
+      return kind.cast(expression);
+    }
+
+    /**
+     * Reads the {@link Expression} that starts with the given (already read) tag, keeping the
+     * operations whose operands are still being read on an explicit stack (see {@link
+     * Encoder#write(Expression)}).
+     */
+    Expression readExpression(int tag) {
+      Deque<Operation> operations = new ArrayDeque<>();
+      while (true) {
+        Expression expression = readOperation(tag, operations);
+        // Hand the Expression to the innermost Operation, building each one that is now complete.
+        while (expression != null) {
+          Operation operation = operations.peek();
+          if (operation == null) {
+            return expression;
+          }
+          expression = operation.add(expression);
+          if (expression != null) {
+            operations.pop();
+          }
+        }
+        tag = readTag();
+      }
+    }
+
+    /**
+     * Reads every field of the {@link Expression} that starts with the given tag apart from its
+     * operands. Returns the {@code Expression} if it has no operands, and otherwise pushes an
+     * {@link Operation} that builds it onto the given stack and returns {@code null}.
+     */
+    Expression readOperation(int tag, Deque<Operation> operations) {
+      switch (tag) {
+        case TAG_IDENTIFIER -> {
+          return readIdentifier();
+        }
+        case TAG_BINARY_OPERATION -> {
+          SourceReference sourceReference = readSourceReference();
+          BinaryOperation.Operator operator = readEnum(BINARY_OPERATORS);
+          operations.push(
+              new Operation(
+                  2,
+                  operands ->
+                      new BinaryOperation(sourceReference, operator, operands[0], operands[1])));
+        }
+        case TAG_UNARY_OPERATION -> {
+          SourceReference sourceReference = readSourceReference();
+          UnaryOperation.Operator operator = readEnum(UNARY_OPERATORS);
+          operations.push(
+              new Operation(
+                  1, operands -> new UnaryOperation(sourceReference, operator, operands[0])));
+        }
+        case TAG_CAST -> {
+          SourceReference sourceReference = readSourceReference();
+          Type type = readType();
+          operations.push(
+              new Operation(1, operands -> new Cast(sourceReference, type, operands[0])));
+        }
+        case TAG_FUNCTION_CALL -> {
+          SourceReference sourceReference = readSourceReference();
+          Identifier identifier = readIdentifier();
+          boolean hasReference = readBoolean();
+          int size = readCount();
+          SourceReference[] sourceReferences = new SourceReference[size];
+          List<Optional<Identifier>> identifiers = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            sourceReferences[i] = readSourceReference();
+            identifiers.add(readOptional(this::readIdentifier));
+          }
+          int offset = hasReference ? 1 : 0;
+          Operation operation =
+              new Operation(
+                  offset + size,
+                  operands -> {
+                    ImmutableList.Builder<CallParameter> callParameters =
+                        ImmutableList.builderWithExpectedSize(size);
+                    for (int i = 0; i < size; i++) {
+                      callParameters.add(
+                          new CallParameter(
+                              sourceReferences[i], identifiers.get(i), operands[offset + i]));
+                    }
+                    return new FunctionCall(
+                        sourceReference,
+                        hasReference ? Optional.of(operands[0]) : Optional.empty(),
+                        identifier,
+                        callParameters.build());
+                  });
+          if (offset + size == 0) {
+            return operation.build();
+          }
+          operations.push(operation);
+        }
+        case TAG_DOT_ACCESS -> {
+          SourceReference sourceReference = readSourceReference();
+          Identifier identifier = readIdentifier();
+          operations.push(
+              new Operation(
+                  1, operands -> new DotAccess(sourceReference, operands[0], identifier)));
+        }
+        case TAG_ARRAY_LENGTH -> {
+          SourceReference sourceReference = readSourceReference();
+          operations.push(
+              new Operation(1, operands -> new ArrayLength(sourceReference, operands[0])));
+        }
+        case TAG_PARENTHETICAL -> {
+          SourceReference sourceReference = readSourceReference();
+          operations.push(
+              new Operation(1, operands -> new Parenthetical(sourceReference, operands[0])));
+        }
+        case TAG_ARRAY_ACCESS -> {
+          SourceReference sourceReference = readSourceReference();
+          operations.push(
+              new Operation(
+                  2, operands -> new ArrayAccess(sourceReference, operands[0], operands[1])));
+        }
+        case TAG_ARRAY_INITIALIZATION -> {
+          return new ArrayInitialization(readSourceReference(), readType(), readIntegerLiteral());
+        }
+        default -> {
+          return readLiteral(tag);
+        }
+      }
+      return null;
+    }
+
+    Literal readLiteral() {
+      return readLiteral(readTag());
+    }
+
+    Literal readLiteral(int tag) {
+      return switch (tag) {
+        case TAG_BOOLEAN_LITERAL -> new BooleanLiteral(readSourceReference(), readBoolean());
+        case TAG_INTEGER_LITERAL -> readIntegerLiteral();
+        case TAG_FLOAT_LITERAL ->
+            new FloatLiteral(readSourceReference(), Float.intBitsToFloat(readInt()));
+        case TAG_STRING_LITERAL -> new StringLiteral(readSourceReference(), readString());
+        case TAG_OBJECT_LITERAL ->
+            new ObjectLiteral(readSourceReference(), readEnum(OBJECT_REFERENCES));
+        default -> throw unknownTag(tag);
+      };
+    }
+
+    IntegerLiteral readIntegerLiteral() {
+      return new IntegerLiteral(readSourceReference(), readSigned(), readBoolean());
+    }
+
+    Identifier readIdentifier() {
+      SourceReference sourceReference = readSourceReference();
+      String value = readString();
+      IdentifierKey key = keys.get(lastStringIndex);
+      if (key == null) {
+        key = IdentifierKey.of(value);
+        keys.set(lastStringIndex, key);
+      }
+      return new Identifier(sourceReference, value, key);
+    }
+
+    SourceReference readSourceReference() {
+      int start = readUnsigned();
+      if (start == 0) {
+        return null;
+      }
+      int startIndex = start - 1;
+      int stopIndex = startIndex + readUnsigned() - 1;
+      if (startIndex < 0 || stopIndex < startIndex - 1 || stopIndex >= source.size()) {
+        throw new IllegalArgumentException("ScriptCodec::decode passed an out of range reference.");
+      }
+      return SourceReference.create(source, startIndex, stopIndex, readUnsigned(), readUnsigned());
+    }
+
+    String readString() {
+      int index = readUnsigned();
+      if (index > 0) {
+        if (index > strings.size()) {
+          throw new IllegalArgumentException("ScriptCodec::decode passed an unknown string.");
+        }
+        lastStringIndex = index - 1;
+        return strings.get(lastStringIndex);
+      }
+      if (index < 0) {
+        throw new IllegalArgumentException("ScriptCodec::decode passed an unknown string.");
+      }
+      byte[] encoded = new byte[readCount()];
+      buffer.get(encoded);
+      String value = new String(encoded, UTF_8);
+      lastStringIndex = strings.size();
+      strings.add(value);
+      keys.add(null);
+      return value;
+    }
+
+    <T> Optional<T> readOptional(Supplier<T> reader) {
+      return readBoolean() ? Optional.of(reader.get()) : Optional.empty();
+    }
+
+    <T> ImmutableList<T> readList(Supplier<T> reader) {
+      int size = readCount();
+      ImmutableList.Builder<T> values = ImmutableList.builderWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        values.add(reader.get());
+      }
+      return values.build();
+    }
+
+    int readTag() {
+      return buffer.get() & 0xFF;
+    }
+
+    boolean readBoolean() {
+      return switch (buffer.get()) {
+        case 0 -> false;
+        case 1 -> true;
+        default -> throw new IllegalArgumentException("ScriptCodec::decode passed a bad boolean.");
+      };
+    }
+
+    /** Returns the element of the given {@code values} whose ordinal is read next. */
+    <T extends Enum<T>> T readEnum(T[] values) {
+      int ordinal = readUnsigned();
+      if (ordinal < 0 || ordinal >= values.length) {
+        throw new IllegalArgumentException(
+            String.format("ScriptCodec::decode passed an unknown ordinal: %d", ordinal));
+      }
+      return values[ordinal];
+    }
+
+    /**
+     * Returns the number of elements (or bytes) that follow, which can't exceed the remaining size
+     * of the buffer as every element is at least one byte long.
+     */
+    int readCount() {
+      int count = readUnsigned();
+      if (count < 0 || count > buffer.remaining()) {
+        throw new IllegalArgumentException(
+            String.format("ScriptCodec::decode passed an impossible count: %d", count));
+      }
+      return count;
+    }
+
+    int readSigned() {
+      int value = readUnsigned();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    int readUnsigned() {
+      int value = 0;
+      for (int shift = 0; shift < 35; shift += 7) {
+        byte b = buffer.get();
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("ScriptCodec::decode passed a malformed integer.");
+    }
+
+    int readInt() {
+      return buffer.getInt();
+    }
+
+    private static IllegalArgumentException unknownTag(int tag) {
+      return new IllegalArgumentException(
+          String.format("ScriptCodec::decode passed an unknown tag: %d", tag));
+    }
+  }
+}
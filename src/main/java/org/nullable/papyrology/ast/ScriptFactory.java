@@ -1,7 +1,17 @@
 package org.nullable.papyrology.ast;
 
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
 import org.nullable.papyrology.grammar.PapyrusBaseVisitor;
+import org.nullable.papyrology.grammar.PapyrusParser.DeclarationContext;
+import org.nullable.papyrology.grammar.PapyrusParser.HeaderContext;
 import org.nullable.papyrology.grammar.PapyrusParser.ScriptContext;
 
 /** A factory of {@link Script Scripts}. */
@@ -12,6 +22,14 @@ public final class ScriptFactory {
     return tree.accept(new ScriptVisitor());
   }
 
+  /**
+   * Returns a new {@link IncrementalBuilder}, which builds a {@link Script} while it is being
+   * parsed, rather than from a complete {@link ParseTree}.
+   */
+  static IncrementalBuilder incrementalBuilder() {
+    return new IncrementalBuilder();
+  }
+
   private static class ScriptVisitor extends PapyrusBaseVisitor<Script> {
 
     @Override
@@ -20,5 +38,65 @@ public final class ScriptFactory {
     }
   }
 
+  /**
+   * A {@link ParseTreeListener} that, when added to a {@code PapyrusParser} as a parse listener,
+   * builds the {@link Header} and every {@link Declaration} of a {@link Script} as soon as it has
+   * been parsed, and then detaches its subtree from the parse tree.
+   *
+   * <p>As a result, only the subtree of the declaration that is currently being parsed is held in
+   * memory, rather than the whole parse tree.
+   */
+  static final class IncrementalBuilder implements ParseTreeListener {
+    private final ImmutableList.Builder<Declaration> declarations = ImmutableList.builder();
+    private Header header;
+    private ParserRuleContext pending;
+
+    private IncrementalBuilder() {}
+
+    @Override
+    public void exitEveryRule(ParserRuleContext ctx) {
+      // Rules are also exited while a syntax error unwinds the parser, so a rule is only known to
+      // be complete once the parser moves on to whatever follows it.
+      if (ctx instanceof DeclarationContext || ctx instanceof HeaderContext) {
+        pending = ctx;
+      }
+    }
+
+    @Override
+    public void enterEveryRule(ParserRuleContext ctx) {
+      buildPending();
+    }
+
+    @Override
+    public void visitTerminal(TerminalNode node) {
+      buildPending();
+    }
+
+    @Override
+    public void visitErrorNode(ErrorNode node) {}
+
+    private void buildPending() {
+      if (pending == null) {
+        return;
+      }
+      if (pending instanceof DeclarationContext declaration) {
+        declarations.add(Declaration.create(declaration));
+      } else {
+        header = Header.create((HeaderContext) pending);
+      }
+      // By now, whatever follows the rule has already been added to its parent as well.
+      List<ParseTree> siblings = pending.getParent().children;
+      siblings.remove(siblings.lastIndexOf(pending));
+      pending = null;
+    }
+
+    /** Returns the {@link Script} defined by the given, fully parsed, {@link ScriptContext}. */
+    Script build(ScriptContext ctx) {
+      buildPending();
+      checkState(header != null, "IncrementalBuilder::build called before the header was parsed");
+      return Script.create(ctx, header, declarations.build());
+    }
+  }
+
   private ScriptFactory() {}
 }
@@ -0,0 +1,275 @@
+package org.nullable.papyrology.ast;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.Pair;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.nullable.papyrology.grammar.PapyrusParser;
+import org.nullable.papyrology.grammar.PapyrusParser.ScriptContext;
+import org.nullable.papyrology.grammar.PapyrusTokenizer;
+import org.nullable.papyrology.grammar.TokenBuffer;
+import org.nullable.papyrology.metrics.Phase;
+import org.nullable.papyrology.metrics.PhaseTimer;
+import org.nullable.papyrology.metrics.PipelineMetrics;
+import org.nullable.papyrology.source.SourceReference;
+import org.nullable.papyrology.source.file.SourceFile;
+
+/**
+ * A service that turns Papyrus source code into {@link Script Scripts}.
+ *
+ * <p>Parsing happens in two stages. The source is first parsed with the much cheaper {@link
+ * PredictionMode#SLL} prediction mode and a {@link BailErrorStrategy}. Only if that fails is the
+ * source re-parsed with full {@link PredictionMode#LL} prediction, which is guaranteed to produce
+ * the same result for valid input and properly reports syntax errors for invalid input.
+ *
+ * <p>The source is lexed by a {@link PapyrusTokenizer}, which produces the same tokens as the
+ * generated {@code PapyrusLexer} without simulating its ATN, into a {@link TokenBuffer}, which
+ * holds them as packed columns of {@code int} values rather than as {@code Token} objects.
+ *
+ * <p>The DFAs that drive prediction are held in a {@link PredictionCache}; unless configured
+ * otherwise, the {@link PredictionCache#shared() shared} one is used. A {@link DecisionProfile} can
+ * be configured to find out which of those predictions are expensive.
+ *
+ * <p>Lexing, parsing and building the AST are each timed as a separate {@link Phase} in the {@link
+ * PipelineMetrics#global() global} {@code PipelineMetrics}.
+ *
+ * <p>This class is thread-safe; every call to {@code parse} uses its own tokenizer and parser.
+ */
+public final class ScriptParser {
+
+  /**
+   * Identifies the version of how {@link Script Scripts} are built from source code, beyond the
+   * grammar itself: the {@link PapyrusTokenizer}, the {@link ExpressionParser} and the factories of
+   * the AST. Bump it whenever a change to any of those could change the {@code Script} built from
+   * some source, so that the ones cached by a {@link PersistentScriptCache} are built again.
+   */
+  public static final int AST_VERSION = 1;
+
+  private final PredictionCache predictionCache;
+  private final boolean buildIncrementally;
+  private final DecisionProfile decisionProfile;
+
+  private ScriptParser(
+      PredictionCache predictionCache,
+      boolean buildIncrementally,
+      DecisionProfile decisionProfile) {
+    this.predictionCache = predictionCache;
+    this.buildIncrementally = buildIncrementally;
+    this.decisionProfile = decisionProfile;
+  }
+
+  /** Returns a new {@code ScriptParser} with the default configuration. */
+  public static ScriptParser create() {
+    return builder().build();
+  }
+
+  /** Returns a fresh {@code ScriptParser} builder. */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the {@link Script} defined by the given {@link SourceFile}.
+   *
+   * @throws SyntaxException if the content of the {@code SourceFile} is not a valid {@code Script}.
+   */
+  public Script parse(SourceFile sourceFile) {
+    return parse(CharStreams.fromString(sourceFile.getContent(), sourceFile.getFileName()));
+  }
+
+  /**
+   * Returns the {@link Script} defined by the given {@code content}.
+   *
+   * @throws SyntaxException if the {@code content} is not a valid {@code Script}.
+   */
+  public Script parse(String content) {
+    return parse(CharStreams.fromString(content));
+  }
+
+  /**
+   * Returns the {@link Script} defined by the given {@link CharStream}.
+   *
+   * @throws SyntaxException if the content of the {@code CharStream} is not a valid {@code Script}.
+   */
+  public Script parse(CharStream input) {
+    PipelineMetrics metrics = PipelineMetrics.global();
+    String sourceName = input.getSourceName();
+    PapyrusTokenizer tokenizer = PapyrusTokenizer.create(input, ThrowingErrorListener.INSTANCE);
+    TokenBuffer tokens;
+    try (PhaseTimer timer = metrics.start(Phase.LEX, sourceName)) {
+      // Lex everything up front (rather than on demand while parsing) so it's timed on its own.
+      tokens = TokenBuffer.create(tokenizer);
+      timer.setBytes(input.size()).setTokens(tokens.size());
+    }
+    ScriptContext tree;
+    ScriptFactory.IncrementalBuilder incrementalBuilder = null;
+    try (PhaseTimer timer = metrics.start(Phase.PARSE, sourceName)) {
+      PapyrusParser parser = new PapyrusParser(tokens.stream());
+      predictionCache.install(parser);
+      parser.removeErrorListeners();
+      if (buildIncrementally) {
+        incrementalBuilder = ScriptFactory.incrementalBuilder();
+        parser.addParseListener(incrementalBuilder);
+      }
+      if (decisionProfile != null) {
+        tree = parseProfiled(parser);
+      } else {
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+          tree = parser.script();
+        } catch (ParseCancellationException | SyntaxException e) {
+          // SLL is unable to handle every input; rewind and retry with full LL prediction. As SLL
+          // may have mispredicted, anything that was built incrementally must be rebuilt as well.
+          parser.reset();
+          parser.addErrorListener(ThrowingErrorListener.INSTANCE);
+          parser.setErrorHandler(new DefaultErrorStrategy());
+          parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+          if (buildIncrementally) {
+            parser.removeParseListeners();
+            incrementalBuilder = ScriptFactory.incrementalBuilder();
+            parser.addParseListener(incrementalBuilder);
+          }
+          tree = parser.script();
+        }
+      }
+      timer.setTokens(tokens.size());
+      if (timer.isRecording()) {
+        timer.setNodes(countNodes(tree));
+      }
+    }
+    try (PhaseTimer timer = metrics.start(Phase.BUILD_AST, sourceName)) {
+      Script script =
+          incrementalBuilder != null ? incrementalBuilder.build(tree) : ScriptFactory.create(tree);
+      timer.setScript(script.header().scriptIdentifier().value());
+      return script;
+    }
+  }
+
+  /**
+   * Parses with full {@link PredictionMode#LL} prediction straight away (which still attempts SLL
+   * prediction for every decision first), recording every decision in the {@link DecisionProfile}.
+   */
+  private ScriptContext parseProfiled(PapyrusParser parser) {
+    decisionProfile.install(parser);
+    parser.addErrorListener(ThrowingErrorListener.INSTANCE);
+    try {
+      return parser.script();
+    } finally {
+      decisionProfile.record(parser);
+    }
+  }
+
+  /** Returns the number of nodes (rules and tokens) in the given parse tree. */
+  private static long countNodes(ParseTree tree) {
+    long nodes = 0;
+    Deque<ParseTree> pending = new ArrayDeque<>();
+    pending.push(tree);
+    while (!pending.isEmpty()) {
+      ParseTree node = pending.pop();
+      nodes++;
+      for (int i = 0; i < node.getChildCount(); i++) {
+        pending.push(node.getChild(i));
+      }
+    }
+    return nodes;
+  }
+
+  /** A builder of {@code ScriptParsers}. */
+  public static final class Builder {
+    private PredictionCache predictionCache = PredictionCache.shared();
+    private boolean buildIncrementally = false;
+    private DecisionProfile decisionProfile = null;
+
+    private Builder() {}
+
+    /** Sets the {@link PredictionCache} that parses will read from and contribute to. */
+    @CanIgnoreReturnValue
+    public Builder setPredictionCache(PredictionCache predictionCache) {
+      this.predictionCache = predictionCache;
+      return this;
+    }
+
+    /**
+     * Sets whether the {@link Header} and every {@link Declaration} are built as soon as they are
+     * parsed, with their part of the parse tree discarded right after, rather than building the
+     * whole {@link Script} once its entire parse tree has been built.
+     *
+     * <p>Building incrementally bounds the memory a parse needs by the size of the AST (and the
+     * largest single declaration), rather than by the size of the whole parse tree. The {@link
+     * Phase#PARSE} phase then includes building every declaration, leaving only the assembly of the
+     * {@code Script} itself to {@link Phase#BUILD_AST}. Defaults to {@code false}.
+     */
+    @CanIgnoreReturnValue
+    public Builder setBuildIncrementally(boolean buildIncrementally) {
+      this.buildIncrementally = buildIncrementally;
+      return this;
+    }
+
+    /**
+     * Sets the {@link DecisionProfile} that every parse adds its prediction decisions to. Profiled
+     * parses skip the {@link PredictionMode#SLL} stage and are considerably slower, so this is
+     * only meant for analyzing the grammar. Defaults to none.
+     */
+    @CanIgnoreReturnValue
+    public Builder setDecisionProfile(DecisionProfile decisionProfile) {
+      this.decisionProfile = decisionProfile;
+      return this;
+    }
+
+    /** Returns a new {@link ScriptParser} based on this builder. */
+    public ScriptParser build() {
+      return new ScriptParser(predictionCache, buildIncrementally, decisionProfile);
+    }
+  }
+
+  /** A {@link BaseErrorListener} that turns every reported error into a {@link SyntaxException}. */
+  private static final class ThrowingErrorListener extends BaseErrorListener {
+    private static final ThrowingErrorListener INSTANCE = new ThrowingErrorListener();
+
+    @Override
+    public void syntaxError(
+        Recognizer<?, ?> recognizer,
+        Object offendingSymbol,
+        int line,
+        int charPositionInLine,
+        String msg,
+        RecognitionException e) {
+      Token token;
+      if (offendingSymbol instanceof Token offendingToken) {
+        token = offendingToken;
+      } else {
+        // Lexer errors don't have an offending token, so one is synthesized from the position.
+        CommonToken synthesized;
+        if (recognizer instanceof Lexer lexer) {
+          synthesized =
+              new CommonToken(
+                  new Pair<>(lexer, lexer.getInputStream()),
+                  Token.INVALID_TYPE,
+                  Token.DEFAULT_CHANNEL,
+                  lexer._tokenStartCharIndex,
+                  lexer.getCharIndex());
+        } else {
+          synthesized = new CommonToken(Token.INVALID_TYPE, "");
+        }
+        synthesized.setLine(line);
+        synthesized.setCharPositionInLine(charPositionInLine);
+        token = synthesized;
+      }
+      throw new SyntaxException(SourceReference.create(token), "Syntax error: %s", msg);
+    }
+  }
+}
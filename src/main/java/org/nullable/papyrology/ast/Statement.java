@@ -1,11 +1,9 @@
 package org.nullable.papyrology.ast;
 
 import com.google.errorprone.annotations.Immutable;
-import org.nullable.papyrology.grammar.PapyrusParser.AssignmentContext;
 import org.nullable.papyrology.grammar.PapyrusParser.IfContext;
-import org.nullable.papyrology.grammar.PapyrusParser.LocalVariableContext;
 import org.nullable.papyrology.grammar.PapyrusParser.ReturnContext;
-import org.nullable.papyrology.grammar.PapyrusParser.StandaloneExpressionContext;
+import org.nullable.papyrology.grammar.PapyrusParser.SimpleStatementContext;
 import org.nullable.papyrology.grammar.PapyrusParser.StatementContext;
 import org.nullable.papyrology.grammar.PapyrusParser.WhileContext;
 
@@ -15,12 +13,6 @@ public interface Statement extends Construct {
 
   /** Returns a new {@code Statement} based on the given {@link StatementContext}. */
   static Statement create(StatementContext ctx) {
-    if (ctx instanceof LocalVariableContext) {
-      return Variable.create((LocalVariableContext) ctx);
-    }
-    if (ctx instanceof AssignmentContext) {
-      return Assignment.create((AssignmentContext) ctx);
-    }
     if (ctx instanceof ReturnContext) {
       return Return.create((ReturnContext) ctx);
     }
@@ -30,8 +22,8 @@ public interface Statement extends Construct {
     if (ctx instanceof WhileContext) {
       return While.create((WhileContext) ctx);
     }
-    if (ctx instanceof StandaloneExpressionContext) {
-      return Expression.create(((StandaloneExpressionContext) ctx).expression());
+    if (ctx instanceof SimpleStatementContext) {
+      return ExpressionParser.parse((SimpleStatementContext) ctx);
     }
     throw new IllegalArgumentException(
         String.format("Statement::create passed malformed StatementContext: %s", ctx));
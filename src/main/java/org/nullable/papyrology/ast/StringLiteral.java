@@ -4,7 +4,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.errorprone.annotations.Immutable;
 import org.antlr.v4.runtime.Token;
-import org.antlr.v4.runtime.tree.TerminalNode;
 import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.source.SourceReference;
 
@@ -17,13 +16,12 @@ public record StringLiteral(SourceReference sourceReference, String value) imple
     visitor.visit(this);
   }
 
-  /** Returns a new {@code StringLiteral} based on the given {@link TerminalNode}. */
-  static StringLiteral create(TerminalNode node) {
-    Token token = node.getSymbol();
+  /** Returns a new {@code StringLiteral} based on the given {@link Token}. */
+  static StringLiteral create(Token token) {
     checkArgument(
         token.getType() == PapyrusParser.L_STRING,
-        " StringLiteral::create passed an unsupported TerminalNode: %s",
-        node);
-    return new StringLiteral(SourceReference.create(node), /* value= */ token.getText());
+        " StringLiteral::create passed an unsupported Token: %s",
+        token);
+    return new StringLiteral(SourceReference.create(token), /* value= */ token.getText());
   }
 }
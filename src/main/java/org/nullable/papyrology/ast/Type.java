@@ -2,6 +2,8 @@ package org.nullable.papyrology.ast;
 
 import com.google.errorprone.annotations.Immutable;
 import java.util.Optional;
+import org.antlr.v4.runtime.Token;
+import org.nullable.papyrology.grammar.PapyrusParser;
 import org.nullable.papyrology.grammar.PapyrusParser.TypeContext;
 import org.nullable.papyrology.source.SourceReference;
 
@@ -23,24 +25,31 @@ public record Type(
 
   /** Returns a new {@code Type} based on the given {@link TypeContext}. */
   static Type create(TypeContext ctx) {
-    boolean isArray = ctx.S_LBRAKET() != null;
+    return create(ctx.getStart(), ctx.getStop());
+  }
+
+  /**
+   * Returns a new {@code Type} named by the given {@code name} {@link Token} and ending at the
+   * given {@code stop} {@link Token}, which is either the {@code name} itself or the closing
+   * bracket of an array type.
+   */
+  static Type create(Token name, Token stop) {
+    boolean isArray = stop != name;
     DataType dataType = null;
     Optional<Identifier> identifier = Optional.empty();
-    if (ctx.K_BOOL() != null) {
-      dataType = isArray ? DataType.BOOL_ARRAY : DataType.BOOL;
-    } else if (ctx.K_INT() != null) {
-      dataType = isArray ? DataType.INT_ARRAY : DataType.INT;
-    } else if (ctx.K_FLOAT() != null) {
-      dataType = isArray ? DataType.FLOAT_ARRAY : DataType.FLOAT;
-    } else if (ctx.K_STRING() != null) {
-      dataType = isArray ? DataType.STRING_ARRAY : DataType.STRING;
-    } else if (ctx.ID() != null) {
-      dataType = isArray ? DataType.OBJECT_ARRAY : DataType.OBJECT;
-      identifier = Optional.of(Identifier.create(ctx.ID()));
-    } else {
-      throw new IllegalArgumentException(
-          String.format("Type::create passed malformed TypeContext: %s", ctx));
+    switch (name.getType()) {
+      case PapyrusParser.K_BOOL -> dataType = isArray ? DataType.BOOL_ARRAY : DataType.BOOL;
+      case PapyrusParser.K_INT -> dataType = isArray ? DataType.INT_ARRAY : DataType.INT;
+      case PapyrusParser.K_FLOAT -> dataType = isArray ? DataType.FLOAT_ARRAY : DataType.FLOAT;
+      case PapyrusParser.K_STRING -> dataType = isArray ? DataType.STRING_ARRAY : DataType.STRING;
+      case PapyrusParser.ID -> {
+        dataType = isArray ? DataType.OBJECT_ARRAY : DataType.OBJECT;
+        identifier = Optional.of(Identifier.create(name));
+      }
+      default ->
+          throw new IllegalArgumentException(
+              String.format("Type::create passed an unsupported Token: %s", name));
     }
-    return new Type(SourceReference.create(ctx), dataType, identifier);
+    return new Type(SourceReference.create(name, stop), dataType, identifier);
   }
 }
@@ -4,8 +4,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
+import org.antlr.v4.runtime.Token;
 import org.nullable.papyrology.grammar.PapyrusParser;
-import org.nullable.papyrology.grammar.PapyrusParser.UnaryOperationContext;
 import org.nullable.papyrology.source.SourceReference;
 
 /** An {@link Expression} that evaluates to the result of an operation on a single input. */
@@ -30,10 +30,10 @@ public record UnaryOperation(
     visitor.visit(this);
   }
 
-  /** Returns a new {@code UnaryOperation} based on the given {@link UnaryOperationContext}. */
-  static UnaryOperation create(UnaryOperationContext ctx) {
-    Operator operator = TOKEN_TYPES_TO_OPERATORS.get(ctx.op.getType());
+  /** Returns a new {@code UnaryOperation} of the operator identified by the given {@link Token}. */
+  static UnaryOperation create(SourceReference sourceReference, Token op, Expression expression) {
+    Operator operator = TOKEN_TYPES_TO_OPERATORS.get(op.getType());
     checkState(operator != null, "UnaryOperation::create was unable to resolve the operator");
-    return new UnaryOperation(SourceReference.create(ctx), operator, Expression.create(ctx.value));
+    return new UnaryOperation(sourceReference, operator, expression);
   }
 }
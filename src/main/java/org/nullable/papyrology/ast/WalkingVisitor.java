@@ -1,19 +1,75 @@
 package org.nullable.papyrology.ast;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.errorprone.annotations.ForOverride;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * A {@link Visitor} that walks all constructs in a {@code Script} in order.
  *
  * <p>This {@code Visitor} walks through every {@code Construct} and invokes a {@link Walker} while
  * visiting.
+ *
+ * <p>The walk is driven by an explicit, heap-allocated stack rather than by recursion, so its depth
+ * is only bounded by the heap: arbitrarily deep ASTs (e.g. long chains of concatenations, or deeply
+ * nested {@code If} statements in generated scripts) can be walked, even on threads with small
+ * stacks.
+ *
+ * <p>A {@code WalkingVisitor} holds the state of its walk, so it must only be used by one thread
+ * at a time.
  */
 public final class WalkingVisitor implements Visitor {
 
+  private static final int INITIAL_CAPACITY = 64;
+
   private final Walker walker;
 
+  /**
+   * Every {@code Walker} whose {@link Walker#skipSubtree()} requests this visitor may read: its
+   * own, and the ones it forwards to.
+   */
+  private final Walker[] skippers;
+
+  private final Expander expander;
+  private final Exiter exiter;
+
+  /**
+   * The kinds of {@code Constructs} that are worth walking into, i.e. whose subtrees may contain a
+   * {@code Construct} the {@link Walker} is interested in ({@code null} if it's interested in all).
+   */
+  private final ImmutableSet<Class<? extends Construct>> relevantKinds;
+
+  /** The {@code Constructs} still to be entered (or exited, as marked by {@link #exiting}). */
+  private Construct[] pending;
+
+  private boolean[] exiting;
+  private int size;
+
   private WalkingVisitor(Walker walker) {
     this.walker = walker;
+    this.skippers = skippers(walker);
+    this.expander = new Expander();
+    this.exiter = new Exiter();
+    this.relevantKinds = relevantKinds(walker.interests());
+    this.pending = new Construct[INITIAL_CAPACITY];
+    this.exiting = new boolean[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  private static Walker[] skippers(Walker walker) {
+    if (walker instanceof CompositeWalker composite) {
+      Walker[] skippers = Arrays.copyOf(composite.walkers, composite.walkers.length + 1);
+      skippers[composite.walkers.length] = walker;
+      return skippers;
+    }
+    return new Walker[] {walker};
   }
 
   /** Returns a new {@code WalkingVisitor} that uses the given {@link Walker}. */
@@ -21,336 +77,868 @@ public final class WalkingVisitor implements Visitor {
     return new WalkingVisitor(walker);
   }
 
+  /**
+   * Returns a new {@code WalkingVisitor} that uses all of the given {@link Walker Walkers}.
+   *
+   * <p>Every {@code Construct} is visited once, and each callback is dispatched to the {@code
+   * Walkers} in the order they are given; this is much cheaper than walking the same {@code Script}
+   * once per {@code Walker}.
+   */
+  public static WalkingVisitor create(List<? extends Walker> walkers) {
+    if (walkers.size() == 1) {
+      return new WalkingVisitor(walkers.get(0));
+    }
+    return new WalkingVisitor(new CompositeWalker(walkers.toArray(new Walker[0])));
+  }
+
+  /**
+   * Walks the given {@link Construct} and everything it's composed of.
+   *
+   * <p>Walks can be nested (i.e. a {@code Walker} may visit another {@code Construct} from one of
+   * its callbacks); the nested walk completes before the outer one continues.
+   */
+  private void walk(Construct construct) {
+    // A nested walk may start after the outer one's current Construct asked to be skipped: that
+    // request must neither apply to this walk, nor be cleared by it.
+    boolean[] outerSkipping = new boolean[skippers.length];
+    for (int i = 0; i < skippers.length; i++) {
+      outerSkipping[i] = skippers[i].skipping;
+      skippers[i].skipping = false;
+    }
+    int base = size;
+    try {
+      push(construct, /* exit= */ false);
+      while (size > base) {
+        size--;
+        Construct next = pending[size];
+        pending[size] = null;
+        next.accept(exiting[size] ? exiter : expander);
+        walker.skipping = false;
+      }
+    } finally {
+      for (int i = 0; i < skippers.length; i++) {
+        skippers[i].skipping = outerSkipping[i];
+      }
+    }
+  }
+
+  /** Returns whether the {@link Walker} asked to skip the subtree of the entered construct. */
+  private boolean skipped() {
+    return walker.skipping;
+  }
+
+  private void push(Construct construct) {
+    if (relevantKinds == null || relevantKinds.contains(construct.getClass())) {
+      push(construct, /* exit= */ false);
+    }
+  }
+
+  private void push(Optional<? extends Construct> construct) {
+    if (construct.isPresent()) {
+      push(construct.get());
+    }
+  }
+
+  /** Pushes the given {@code constructs} so that they are walked in order. */
+  private void pushAll(List<? extends Construct> constructs) {
+    for (int i = constructs.size() - 1; i >= 0; i--) {
+      push(constructs.get(i));
+    }
+  }
+
+  /** Pushes a marker to exit the given {@link Construct} once all of its children are walked. */
+  private void pushExit(Construct construct) {
+    push(construct, /* exit= */ true);
+  }
+
+  private void push(Construct construct, boolean exit) {
+    if (size == pending.length) {
+      pending = Arrays.copyOf(pending, size * 2);
+      exiting = Arrays.copyOf(exiting, size * 2);
+    }
+    pending[size] = construct;
+    exiting[size] = exit;
+    size++;
+  }
+
+  private static final ImmutableSet<Class<? extends Construct>> LITERALS =
+      ImmutableSet.of(
+          BooleanLiteral.class,
+          FloatLiteral.class,
+          IntegerLiteral.class,
+          ObjectLiteral.class,
+          StringLiteral.class);
+
+  private static final ImmutableSet<Class<? extends Construct>> EXPRESSIONS =
+      ImmutableSet.<Class<? extends Construct>>builder()
+          .add(ArrayAccess.class)
+          .add(ArrayInitialization.class)
+          .add(ArrayLength.class)
+          .add(BinaryOperation.class)
+          .add(Cast.class)
+          .add(DotAccess.class)
+          .add(FunctionCall.class)
+          .add(Identifier.class)
+          .add(Parenthetical.class)
+          .add(UnaryOperation.class)
+          .addAll(LITERALS)
+          .build();
+
+  private static final ImmutableSet<Class<? extends Construct>> STATEMENTS =
+      ImmutableSet.<Class<? extends Construct>>builder()
+          .add(Assignment.class)
+          .add(If.class)
+          .add(Return.class)
+          .add(Variable.class)
+          .add(While.class)
+          .addAll(EXPRESSIONS)
+          .build();
+
+  /** The kinds of {@code Constructs} that each kind can be directly composed of. */
+  private static final ImmutableSetMultimap<Class<? extends Construct>, Class<? extends Construct>>
+      CHILD_KINDS =
+          ImmutableSetMultimap.<Class<? extends Construct>, Class<? extends Construct>>builder()
+              .putAll(ArrayAccess.class, EXPRESSIONS)
+              .putAll(ArrayInitialization.class, ImmutableSet.of(Type.class, IntegerLiteral.class))
+              .putAll(ArrayLength.class, EXPRESSIONS)
+              .putAll(Assignment.class, EXPRESSIONS)
+              .putAll(BinaryOperation.class, EXPRESSIONS)
+              .putAll(Block.class, STATEMENTS)
+              .putAll(CallParameter.class, EXPRESSIONS)
+              .putAll(Cast.class, EXPRESSIONS)
+              .put(Cast.class, Type.class)
+              .putAll(DotAccess.class, EXPRESSIONS)
+              .putAll(Event.class, ImmutableSet.of(Identifier.class, Parameter.class, Block.class))
+              .putAll(
+                  Function.class,
+                  ImmutableSet.of(Identifier.class, Type.class, Parameter.class, Block.class))
+              .putAll(FunctionCall.class, EXPRESSIONS)
+              .put(FunctionCall.class, CallParameter.class)
+              .put(Header.class, Identifier.class)
+              .putAll(If.class, EXPRESSIONS)
+              .put(If.class, Block.class)
+              .put(Import.class, Identifier.class)
+              .putAll(Parameter.class, LITERALS)
+              .putAll(Parameter.class, ImmutableSet.of(Type.class, Identifier.class))
+              .putAll(Parenthetical.class, EXPRESSIONS)
+              .putAll(Property.class, LITERALS)
+              .putAll(Property.class, ImmutableSet.of(Type.class, Identifier.class, Function.class))
+              .putAll(Return.class, EXPRESSIONS)
+              .putAll(
+                  Script.class,
+                  ImmutableSet.of(
+                      Header.class,
+                      Event.class,
+                      Function.class,
+                      Import.class,
+                      Property.class,
+                      ScriptVariable.class,
+                      State.class))
+              .putAll(ScriptVariable.class, LITERALS)
+              .putAll(ScriptVariable.class, ImmutableSet.of(Type.class, Identifier.class))
+              .putAll(State.class, ImmutableSet.of(Identifier.class, Event.class, Function.class))
+              .put(Type.class, Identifier.class)
+              .putAll(UnaryOperation.class, EXPRESSIONS)
+              .putAll(Variable.class, EXPRESSIONS)
+              .put(Variable.class, Type.class)
+              .putAll(While.class, EXPRESSIONS)
+              .put(While.class, Block.class)
+              .build();
+
+  /** Every kind of {@code Construct}. */
+  private static final ImmutableSet<Class<? extends Construct>> KINDS =
+      ImmutableSet.<Class<? extends Construct>>builder()
+          .addAll(CHILD_KINDS.keySet())
+          .addAll(CHILD_KINDS.values())
+          .build();
+
+  /**
+   * Returns the kinds of {@code Constructs} whose subtrees may contain one of the given {@code
+   * interests} (or {@code null} if every kind is of interest).
+   */
+  private static ImmutableSet<Class<? extends Construct>> relevantKinds(
+      ImmutableSet<Class<? extends Construct>> interests) {
+    if (interests.isEmpty()) {
+      return null;
+    }
+    checkArgument(
+        KINDS.containsAll(interests),
+        "Walker::interests returned an unknown kind of Construct: %s",
+        interests);
+    // Iterate to a fixed point: a kind is relevant if it, or one of its children, is.
+    Set<Class<? extends Construct>> relevant = new HashSet<>(interests);
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (Class<? extends Construct> kind : CHILD_KINDS.keySet()) {
+        if (!relevant.contains(kind)
+            && CHILD_KINDS.get(kind).stream().anyMatch(relevant::contains)) {
+          changed |= relevant.add(kind);
+        }
+      }
+    }
+    return ImmutableSet.copyOf(relevant);
+  }
+
   @Override
   public void visit(ArrayAccess arrayAccess) {
-    walker.enter(arrayAccess);
-    visit(arrayAccess.arrayExpression());
-    visit(arrayAccess.indexExpression());
-    walker.exit(arrayAccess);
+    walk(arrayAccess);
   }
 
   @Override
   public void visit(ArrayInitialization arrayInitialization) {
-    walker.enter(arrayInitialization);
-    visit(arrayInitialization.type());
-    visit(arrayInitialization.size());
-    walker.exit(arrayInitialization);
+    walk(arrayInitialization);
   }
 
   @Override
   public void visit(ArrayLength arrayLength) {
-    walker.enter(arrayLength);
-    visit(arrayLength.arrayExpression());
-    walker.exit(arrayLength);
+    walk(arrayLength);
   }
 
   @Override
   public void visit(Assignment assignment) {
-    walker.enter(assignment);
-    switch (assignment.assignee().type()) {
-      case IDENTIFIER:
-        visit(assignment.assignee().identifier());
-        break;
-      case DOT_ACCESS:
-        visit(assignment.assignee().dotAccess());
-        break;
-      case ARRAY_ACCESS:
-        visit(assignment.assignee().arrayAccess());
-        break;
-    }
-    visit(assignment.valueExpression());
-    walker.exit(assignment);
+    walk(assignment);
   }
 
   @Override
   public void visit(BinaryOperation binaryOperation) {
-    walker.enter(binaryOperation);
-    visit(binaryOperation.leftExpression());
-    visit(binaryOperation.rightExpression());
-    walker.exit(binaryOperation);
+    walk(binaryOperation);
   }
 
   @Override
   public void visit(Block block) {
-    walker.enter(block);
-    block.bodyStatements().forEach(this::visit);
-    walker.exit(block);
+    walk(block);
   }
 
   @Override
   public void visit(BooleanLiteral booleanLiteral) {
-    walker.touch(booleanLiteral);
+    walk(booleanLiteral);
   }
 
   @Override
   public void visit(CallParameter callParameter) {
-    walker.enter(callParameter);
-    callParameter.identifier().ifPresent(this::visit);
-    visit(callParameter.expression());
-    walker.exit(callParameter);
+    walk(callParameter);
   }
 
   @Override
   public void visit(Cast cast) {
-    walker.enter(cast);
-    visit(cast.type());
-    visit(cast.expression());
-    walker.exit(cast);
+    walk(cast);
   }
 
   @Override
   public void visit(DotAccess dotAccess) {
-    walker.enter(dotAccess);
-    visit(dotAccess.referenceExpression());
-    visit(dotAccess.identifier());
-    walker.exit(dotAccess);
+    walk(dotAccess);
   }
 
   @Override
   public void visit(Event event) {
-    walker.enter(event);
-    visit(event.identifier());
-    event.parameters().forEach(this::visit);
-    event.body().ifPresent(this::visit);
-    walker.exit(event);
+    walk(event);
   }
 
   @Override
   public void visit(FloatLiteral floatLiteral) {
-    walker.touch(floatLiteral);
+    walk(floatLiteral);
   }
 
   @Override
   public void visit(Function function) {
-    walker.enter(function);
-    visit(function.identifier());
-    function.returnType().ifPresent(this::visit);
-    function.parameters().forEach(this::visit);
-    function.body().ifPresent(this::visit);
-    walker.exit(function);
+    walk(function);
   }
 
   @Override
   public void visit(FunctionCall functionCall) {
-    walker.enter(functionCall);
-    functionCall.referenceExpression().ifPresent(this::visit);
-    visit(functionCall.identifier());
-    functionCall.callParameters().forEach(this::visit);
-    walker.exit(functionCall);
+    walk(functionCall);
   }
 
   @Override
   public void visit(Header header) {
-    walker.enter(header);
-    visit(header.scriptIdentifier());
-    header.parentScriptIdentifier().ifPresent(this::visit);
-    walker.exit(header);
+    walk(header);
   }
 
   @Override
   public void visit(Identifier identifier) {
-    walker.touch(identifier);
+    walk(identifier);
   }
 
   @Override
   public void visit(If ifStatement) {
-    walker.enter(ifStatement);
-    ifStatement
-        .conditionalBlocks()
-        .forEach(
-            cb -> {
-              visit(cb.conditionalExpression());
-              visit(cb.body());
-            });
-    ifStatement.elseBlock().ifPresent(this::visit);
-    walker.exit(ifStatement);
+    walk(ifStatement);
   }
 
   @Override
   public void visit(Import importDeclaration) {
-    walker.enter(importDeclaration);
-    visit(importDeclaration.importedScriptIdentifier());
-    walker.exit(importDeclaration);
+    walk(importDeclaration);
   }
 
   @Override
   public void visit(IntegerLiteral integerLiteral) {
-    walker.touch(integerLiteral);
+    walk(integerLiteral);
   }
 
   @Override
   public void visit(ObjectLiteral objectLiteral) {
-    walker.touch(objectLiteral);
+    walk(objectLiteral);
   }
 
   @Override
   public void visit(Parameter parameter) {
-    walker.enter(parameter);
-    visit(parameter.type());
-    visit(parameter.identifier());
-    parameter.defaultValueLiteral().ifPresent(this::visit);
-    walker.exit(parameter);
+    walk(parameter);
   }
 
   @Override
   public void visit(Parenthetical parenthetical) {
-    walker.enter(parenthetical);
-    visit(parenthetical.expression());
-    walker.exit(parenthetical);
+    walk(parenthetical);
   }
 
   @Override
   public void visit(Property property) {
-    walker.enter(property);
-    visit(property.type());
-    visit(property.identifier());
-    property.defaultValueLiteral().ifPresent(this::visit);
-    property.setFunction().ifPresent(this::visit);
-    property.getFunction().ifPresent(this::visit);
-    walker.exit(property);
+    walk(property);
   }
 
   @Override
   public void visit(Return returnStatement) {
-    walker.enter(returnStatement);
-    returnStatement.valueExpression().ifPresent(this::visit);
-    walker.exit(returnStatement);
+    walk(returnStatement);
   }
 
   @Override
   public void visit(Script script) {
-    walker.enter(script);
-    visit(script.header());
-    script.declarations().forEach(this::visit);
-    walker.exit(script);
+    walk(script);
   }
 
   @Override
   public void visit(ScriptVariable scriptVariable) {
-    walker.enter(scriptVariable);
-    visit(scriptVariable.type());
-    visit(scriptVariable.identifier());
-    scriptVariable.literal().ifPresent(this::visit);
-    walker.exit(scriptVariable);
+    walk(scriptVariable);
   }
 
   @Override
   public void visit(State state) {
-    walker.enter(state);
-    visit(state.identifier());
-    state.invokables().forEach(this::visit);
-    walker.exit(state);
+    walk(state);
   }
 
   @Override
   public void visit(StringLiteral stringLiteral) {
-    walker.touch(stringLiteral);
+    walk(stringLiteral);
   }
 
   @Override
   public void visit(Type type) {
-    walker.enter(type);
-    type.identifier().ifPresent(this::visit);
-    walker.exit(type);
+    walk(type);
   }
 
   @Override
   public void visit(UnaryOperation unaryOperation) {
-    walker.enter(unaryOperation);
-    visit(unaryOperation.expression());
-    walker.exit(unaryOperation);
+    walk(unaryOperation);
   }
 
   @Override
   public void visit(Variable variable) {
-    walker.enter(variable);
-    visit(variable.type());
-    visit(variable.identifier());
-    variable.valueExpression().ifPresent(this::visit);
-    walker.exit(variable);
+    walk(variable);
   }
 
   @Override
   public void visit(While whileStatement) {
-    walker.enter(whileStatement);
-    visit(whileStatement.body());
-    walker.exit(whileStatement);
-  }
-
-  // The following methods are needed to satisfy the compiler, but are never actually invoked.
-
-  private void visit(Literal literal) {
-    switch (literal) {
-      case BooleanLiteral b -> visit(b);
-      case FloatLiteral f -> visit(f);
-      case IntegerLiteral i -> visit(i);
-      case StringLiteral s -> visit(s);
-      case ObjectLiteral o -> visit(o);
-      default -> throw new IllegalArgumentException(
-          String.format(
-              "ScriptWalker::visit passed an unsupported Literal: %s",
-              literal.getClass().getName()));
-    }
-  }
-
-  private void visit(Declaration declaration) {
-    switch (declaration) {
-      case Event e -> visit(e);
-      case Function f -> visit(f);
-      case Import i -> visit(i);
-      case Property p -> visit(p);
-      case ScriptVariable v -> visit(v);
-      case State s -> visit(s);
-      default -> throw new IllegalArgumentException(
-          String.format(
-              "ScriptWalker::visit passed an unsupported Declaration: %s",
-              declaration.getClass().getName()));
-    }
-  }
-
-  private void visit(Expression expression) {
-    switch (expression) {
-      case ArrayAccess a -> visit(a);
-      case ArrayInitialization i -> visit(i);
-      case ArrayLength l -> visit(l);
-      case BinaryOperation b -> visit(b);
-      case Cast c -> visit(c);
-      case DotAccess d -> visit(d);
-      case FunctionCall f -> visit(f);
-      case Identifier i -> visit(i);
-      case Literal l -> visit(l);
-      case Parenthetical p -> visit(p);
-      case UnaryOperation u -> visit(u);
-      default -> throw new IllegalArgumentException(
-          String.format(
-              "ScriptWalker::visit passed an unsupported Expression: %s",
-              expression.getClass().getName()));
-    }
-  }
-
-  private void visit(Invokable invokable) {
-    switch (invokable) {
-      case Event e -> visit(e);
-      case Function f -> visit(f);
-      default -> throw new IllegalArgumentException(
-          String.format(
-              "ScriptWalker::visit passed an unsupported Invokable: %s",
-              invokable.getClass().getName()));
-    }
-  }
-
-  private void visit(Statement statement) {
-    switch (statement) {
-      case Assignment a -> visit(a);
-      case Expression e -> visit(e);
-      case If i -> visit(i);
-      case Return r -> visit(r);
-      case Variable v -> visit(v);
-      case While w -> visit(w);
-      default -> throw new IllegalArgumentException(
-          String.format(
-              "ScriptWalker::visit passed an unsupported Statement: %s",
-              statement.getClass().getName()));
+    walk(whileStatement);
+  }
+
+  /**
+   * Enters (or touches) each {@link Construct} it visits, then pushes its exit marker and its
+   * sub-components, in reverse order, so that they are popped in order.
+   */
+  private final class Expander implements Visitor {
+    @Override
+    public void visit(ArrayAccess arrayAccess) {
+      walker.enter(arrayAccess);
+      pushExit(arrayAccess);
+      if (skipped()) {
+        return;
+      }
+      push(arrayAccess.indexExpression());
+      push(arrayAccess.arrayExpression());
+    }
+
+    @Override
+    public void visit(ArrayInitialization arrayInitialization) {
+      walker.enter(arrayInitialization);
+      pushExit(arrayInitialization);
+      if (skipped()) {
+        return;
+      }
+      push(arrayInitialization.size());
+      push(arrayInitialization.type());
+    }
+
+    @Override
+    public void visit(ArrayLength arrayLength) {
+      walker.enter(arrayLength);
+      pushExit(arrayLength);
+      if (skipped()) {
+        return;
+      }
+      push(arrayLength.arrayExpression());
+    }
+
+    @Override
+    public void visit(Assignment assignment) {
+      walker.enter(assignment);
+      pushExit(assignment);
+      if (skipped()) {
+        return;
+      }
+      push(assignment.valueExpression());
+      switch (assignment.assignee().type()) {
+        case IDENTIFIER:
+          push(assignment.assignee().identifier());
+          break;
+        case DOT_ACCESS:
+          push(assignment.assignee().dotAccess());
+          break;
+        case ARRAY_ACCESS:
+          push(assignment.assignee().arrayAccess());
+          break;
+      }
+    }
+
+    @Override
+    public void visit(BinaryOperation binaryOperation) {
+      walker.enter(binaryOperation);
+      pushExit(binaryOperation);
+      if (skipped()) {
+        return;
+      }
+      push(binaryOperation.rightExpression());
+      push(binaryOperation.leftExpression());
+    }
+
+    @Override
+    public void visit(Block block) {
+      walker.enter(block);
+      pushExit(block);
+      if (skipped()) {
+        return;
+      }
+      pushAll(block.bodyStatements());
+    }
+
+    @Override
+    public void visit(BooleanLiteral booleanLiteral) {
+      walker.touch(booleanLiteral);
+    }
+
+    @Override
+    public void visit(CallParameter callParameter) {
+      walker.enter(callParameter);
+      pushExit(callParameter);
+      if (skipped()) {
+        return;
+      }
+      push(callParameter.expression());
+      push(callParameter.identifier());
+    }
+
+    @Override
+    public void visit(Cast cast) {
+      walker.enter(cast);
+      pushExit(cast);
+      if (skipped()) {
+        return;
+      }
+      push(cast.expression());
+      push(cast.type());
+    }
+
+    @Override
+    public void visit(DotAccess dotAccess) {
+      walker.enter(dotAccess);
+      pushExit(dotAccess);
+      if (skipped()) {
+        return;
+      }
+      push(dotAccess.identifier());
+      push(dotAccess.referenceExpression());
+    }
+
+    @Override
+    public void visit(Event event) {
+      walker.enter(event);
+      pushExit(event);
+      if (skipped()) {
+        return;
+      }
+      push(event.body());
+      pushAll(event.parameters());
+      push(event.identifier());
+    }
+
+    @Override
+    public void visit(FloatLiteral floatLiteral) {
+      walker.touch(floatLiteral);
+    }
+
+    @Override
+    public void visit(Function function) {
+      walker.enter(function);
+      pushExit(function);
+      if (skipped()) {
+        return;
+      }
+      push(function.body());
+      pushAll(function.parameters());
+      push(function.returnType());
+      push(function.identifier());
+    }
+
+    @Override
+    public void visit(FunctionCall functionCall) {
+      walker.enter(functionCall);
+      pushExit(functionCall);
+      if (skipped()) {
+        return;
+      }
+      pushAll(functionCall.callParameters());
+      push(functionCall.identifier());
+      push(functionCall.referenceExpression());
+    }
+
+    @Override
+    public void visit(Header header) {
+      walker.enter(header);
+      pushExit(header);
+      if (skipped()) {
+        return;
+      }
+      push(header.parentScriptIdentifier());
+      push(header.scriptIdentifier());
+    }
+
+    @Override
+    public void visit(Identifier identifier) {
+      walker.touch(identifier);
+    }
+
+    @Override
+    public void visit(If ifStatement) {
+      walker.enter(ifStatement);
+      pushExit(ifStatement);
+      if (skipped()) {
+        return;
+      }
+      push(ifStatement.elseBlock());
+      List<If.ConditionalBlock> conditionalBlocks = ifStatement.conditionalBlocks();
+      for (int i = conditionalBlocks.size() - 1; i >= 0; i--) {
+        push(conditionalBlocks.get(i).body());
+        push(conditionalBlocks.get(i).conditionalExpression());
+      }
+    }
+
+    @Override
+    public void visit(Import importDeclaration) {
+      walker.enter(importDeclaration);
+      pushExit(importDeclaration);
+      if (skipped()) {
+        return;
+      }
+      push(importDeclaration.importedScriptIdentifier());
+    }
+
+    @Override
+    public void visit(IntegerLiteral integerLiteral) {
+      walker.touch(integerLiteral);
+    }
+
+    @Override
+    public void visit(ObjectLiteral objectLiteral) {
+      walker.touch(objectLiteral);
+    }
+
+    @Override
+    public void visit(Parameter parameter) {
+      walker.enter(parameter);
+      pushExit(parameter);
+      if (skipped()) {
+        return;
+      }
+      push(parameter.defaultValueLiteral());
+      push(parameter.identifier());
+      push(parameter.type());
+    }
+
+    @Override
+    public void visit(Parenthetical parenthetical) {
+      walker.enter(parenthetical);
+      pushExit(parenthetical);
+      if (skipped()) {
+        return;
+      }
+      push(parenthetical.expression());
+    }
+
+    @Override
+    public void visit(Property property) {
+      walker.enter(property);
+      pushExit(property);
+      if (skipped()) {
+        return;
+      }
+      push(property.getFunction());
+      push(property.setFunction());
+      push(property.defaultValueLiteral());
+      push(property.identifier());
+      push(property.type());
+    }
+
+    @Override
+    public void visit(Return returnStatement) {
+      walker.enter(returnStatement);
+      pushExit(returnStatement);
+      if (skipped()) {
+        return;
+      }
+      push(returnStatement.valueExpression());
+    }
+
+    @Override
+    public void visit(Script script) {
+      walker.enter(script);
+      pushExit(script);
+      if (skipped()) {
+        return;
+      }
+      pushAll(script.declarations());
+      push(script.header());
+    }
+
+    @Override
+    public void visit(ScriptVariable scriptVariable) {
+      walker.enter(scriptVariable);
+      pushExit(scriptVariable);
+      if (skipped()) {
+        return;
+      }
+      push(scriptVariable.literal());
+      push(scriptVariable.identifier());
+      push(scriptVariable.type());
+    }
+
+    @Override
+    public void visit(State state) {
+      walker.enter(state);
+      pushExit(state);
+      if (skipped()) {
+        return;
+      }
+      pushAll(state.invokables());
+      push(state.identifier());
+    }
+
+    @Override
+    public void visit(StringLiteral stringLiteral) {
+      walker.touch(stringLiteral);
+    }
+
+    @Override
+    public void visit(Type type) {
+      walker.enter(type);
+      pushExit(type);
+      if (skipped()) {
+        return;
+      }
+      push(type.identifier());
+    }
+
+    @Override
+    public void visit(UnaryOperation unaryOperation) {
+      walker.enter(unaryOperation);
+      pushExit(unaryOperation);
+      if (skipped()) {
+        return;
+      }
+      push(unaryOperation.expression());
+    }
+
+    @Override
+    public void visit(Variable variable) {
+      walker.enter(variable);
+      pushExit(variable);
+      if (skipped()) {
+        return;
+      }
+      push(variable.valueExpression());
+      push(variable.identifier());
+      push(variable.type());
+    }
+
+    @Override
+    public void visit(While whileStatement) {
+      walker.enter(whileStatement);
+      pushExit(whileStatement);
+      if (skipped()) {
+        return;
+      }
+      push(whileStatement.body());
+      push(whileStatement.conditionalExpression());
+    }
+  }
+
+  /** Exits each {@link Construct} it visits (which are never leaves). */
+  private final class Exiter implements Visitor {
+    @Override
+    public void visit(ArrayAccess arrayAccess) {
+      walker.exit(arrayAccess);
+    }
+
+    @Override
+    public void visit(ArrayInitialization arrayInitialization) {
+      walker.exit(arrayInitialization);
+    }
+
+    @Override
+    public void visit(ArrayLength arrayLength) {
+      walker.exit(arrayLength);
+    }
+
+    @Override
+    public void visit(Assignment assignment) {
+      walker.exit(assignment);
+    }
+
+    @Override
+    public void visit(BinaryOperation binaryOperation) {
+      walker.exit(binaryOperation);
+    }
+
+    @Override
+    public void visit(Block block) {
+      walker.exit(block);
+    }
+
+    @Override
+    public void visit(BooleanLiteral booleanLiteral) {
+      throw new IllegalStateException("WalkingVisitor never exits a leaf Construct.");
+    }
+
+    @Override
+    public void visit(CallParameter callParameter) {
+      walker.exit(callParameter);
+    }
+
+    @Override
+    public void visit(Cast cast) {
+      walker.exit(cast);
+    }
+
+    @Override
+    public void visit(DotAccess dotAccess) {
+      walker.exit(dotAccess);
+    }
+
+    @Override
+    public void visit(Event event) {
+      walker.exit(event);
+    }
+
+    @Override
+    public void visit(FloatLiteral floatLiteral) {
+      throw new IllegalStateException("WalkingVisitor never exits a leaf Construct.");
+    }
+
+    @Override
+    public void visit(Function function) {
+      walker.exit(function);
+    }
+
+    @Override
+    public void visit(FunctionCall functionCall) {
+      walker.exit(functionCall);
+    }
+
+    @Override
+    public void visit(Header header) {
+      walker.exit(header);
+    }
+
+    @Override
+    public void visit(Identifier identifier) {
+      throw new IllegalStateException("WalkingVisitor never exits a leaf Construct.");
+    }
+
+    @Override
+    public void visit(If ifStatement) {
+      walker.exit(ifStatement);
+    }
+
+    @Override
+    public void visit(Import importDeclaration) {
+      walker.exit(importDeclaration);
+    }
+
+    @Override
+    public void visit(IntegerLiteral integerLiteral) {
+      throw new IllegalStateException("WalkingVisitor never exits a leaf Construct.");
+    }
+
+    @Override
+    public void visit(ObjectLiteral objectLiteral) {
+      throw new IllegalStateException("WalkingVisitor never exits a leaf Construct.");
+    }
+
+    @Override
+    public void visit(Parameter parameter) {
+      walker.exit(parameter);
+    }
+
+    @Override
+    public void visit(Parenthetical parenthetical) {
+      walker.exit(parenthetical);
+    }
+
+    @Override
+    public void visit(Property property) {
+      walker.exit(property);
+    }
+
+    @Override
+    public void visit(Return returnStatement) {
+      walker.exit(returnStatement);
+    }
+
+    @Override
+    public void visit(Script script) {
+      walker.exit(script);
+    }
+
+    @Override
+    public void visit(ScriptVariable scriptVariable) {
+      walker.exit(scriptVariable);
+    }
+
+    @Override
+    public void visit(State state) {
+      walker.exit(state);
+    }
+
+    @Override
+    public void visit(StringLiteral stringLiteral) {
+      throw new IllegalStateException("WalkingVisitor never exits a leaf Construct.");
+    }
+
+    @Override
+    public void visit(Type type) {
+      walker.exit(type);
+    }
+
+    @Override
+    public void visit(UnaryOperation unaryOperation) {
+      walker.exit(unaryOperation);
+    }
+
+    @Override
+    public void visit(Variable variable) {
+      walker.exit(variable);
+    }
+
+    @Override
+    public void visit(While whileStatement) {
+      walker.exit(whileStatement);
     }
   }
 
@@ -366,6 +954,32 @@ public final class WalkingVisitor implements Visitor {
    * {@code touch} method exists; this is called whenever that {@code Construct} is encountered.
    */
   public abstract static class Walker {
+    private boolean skipping;
+
+    /**
+     * Returns the kinds of {@link Construct Constructs} that this {@code Walker} is interested in,
+     * or an empty set (the default) if it is interested in every kind.
+     *
+     * <p>A {@link WalkingVisitor} doesn't walk into subtrees that can't contain any of these kinds
+     * (e.g. the {@link Type Types} and {@link Literal Literals} of a declaration, for a {@code
+     * Walker} only interested in {@link FunctionCall FunctionCalls}). A {@code Walker} may still
+     * have its methods invoked for other kinds of {@code Constructs} that contain these.
+     */
+    @ForOverride
+    protected ImmutableSet<Class<? extends Construct>> interests() {
+      return ImmutableSet.of();
+    }
+
+    /**
+     * Skips the sub-components of the {@link Construct} currently being entered.
+     *
+     * <p>This may only be called from an {@code enter} method; the {@code exit} method of the
+     * skipped {@code Construct} is still invoked.
+     */
+    protected final void skipSubtree() {
+      skipping = true;
+    }
+
     /** Performs some operation(s) when an {@link ArrayAccess} is first encountered. */
     @ForOverride
     protected void enter(ArrayAccess arrayAccess) {}
@@ -640,4 +1254,710 @@ public final class WalkingVisitor implements Visitor {
     @ForOverride
     protected void touch(StringLiteral stringLiteral) {}
   }
+
+  /**
+   * A {@link Walker} that forwards every callback to several {@code Walkers}, in order.
+   *
+   * <p>When one of the {@code Walkers} skips a subtree, it alone stops receiving callbacks until
+   * the skipped {@code Construct} is exited; the subtree is only skipped outright once all of them
+   * have skipped it.
+   */
+  private static final class CompositeWalker extends Walker {
+    private final Walker[] walkers;
+
+    /** The {@code Construct} whose subtree each {@code Walker} is skipping, if any. */
+    private final Construct[] skippedAt;
+
+    private CompositeWalker(Walker[] walkers) {
+      this.walkers = walkers;
+      this.skippedAt = new Construct[walkers.length];
+    }
+
+    @Override
+    protected ImmutableSet<Class<? extends Construct>> interests() {
+      ImmutableSet.Builder<Class<? extends Construct>> interests = ImmutableSet.builder();
+      for (Walker walker : walkers) {
+        ImmutableSet<Class<? extends Construct>> walkerInterests = walker.interests();
+        if (walkerInterests.isEmpty()) {
+          return ImmutableSet.of();
+        }
+        interests.addAll(walkerInterests);
+      }
+      return interests.build();
+    }
+
+    private void skipIfRequested(int i, Construct construct) {
+      if (walkers[i].skipping) {
+        walkers[i].skipping = false;
+        skippedAt[i] = construct;
+      }
+    }
+
+    private void skipIfAllSkipped() {
+      for (Construct construct : skippedAt) {
+        if (construct == null) {
+          return;
+        }
+      }
+      skipSubtree();
+    }
+
+    @Override
+    protected void enter(ArrayAccess arrayAccess) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(arrayAccess);
+          skipIfRequested(i, arrayAccess);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(ArrayInitialization arrayInitialization) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(arrayInitialization);
+          skipIfRequested(i, arrayInitialization);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(ArrayLength arrayLength) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(arrayLength);
+          skipIfRequested(i, arrayLength);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Assignment assignment) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(assignment);
+          skipIfRequested(i, assignment);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(BinaryOperation binaryOperation) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(binaryOperation);
+          skipIfRequested(i, binaryOperation);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Block block) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(block);
+          skipIfRequested(i, block);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(CallParameter callParameter) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(callParameter);
+          skipIfRequested(i, callParameter);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Cast cast) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(cast);
+          skipIfRequested(i, cast);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(DotAccess dotAccess) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(dotAccess);
+          skipIfRequested(i, dotAccess);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Event event) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(event);
+          skipIfRequested(i, event);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Function function) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(function);
+          skipIfRequested(i, function);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(FunctionCall functionCall) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(functionCall);
+          skipIfRequested(i, functionCall);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Header header) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(header);
+          skipIfRequested(i, header);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(If ifStatement) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(ifStatement);
+          skipIfRequested(i, ifStatement);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Import importDeclaration) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(importDeclaration);
+          skipIfRequested(i, importDeclaration);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Parameter parameter) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(parameter);
+          skipIfRequested(i, parameter);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Parenthetical parenthetical) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(parenthetical);
+          skipIfRequested(i, parenthetical);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Property property) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(property);
+          skipIfRequested(i, property);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Return returnStatement) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(returnStatement);
+          skipIfRequested(i, returnStatement);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Script script) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(script);
+          skipIfRequested(i, script);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(ScriptVariable scriptVariable) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(scriptVariable);
+          skipIfRequested(i, scriptVariable);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(State state) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(state);
+          skipIfRequested(i, state);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Type type) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(type);
+          skipIfRequested(i, type);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(UnaryOperation unaryOperation) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(unaryOperation);
+          skipIfRequested(i, unaryOperation);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(Variable variable) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(variable);
+          skipIfRequested(i, variable);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void enter(While whileStatement) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].enter(whileStatement);
+          skipIfRequested(i, whileStatement);
+        }
+      }
+      skipIfAllSkipped();
+    }
+
+    @Override
+    protected void exit(ArrayAccess arrayAccess) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == arrayAccess) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(arrayAccess);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(ArrayInitialization arrayInitialization) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == arrayInitialization) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(arrayInitialization);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(ArrayLength arrayLength) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == arrayLength) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(arrayLength);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Assignment assignment) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == assignment) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(assignment);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(BinaryOperation binaryOperation) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == binaryOperation) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(binaryOperation);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Block block) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == block) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(block);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(CallParameter callParameter) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == callParameter) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(callParameter);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Cast cast) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == cast) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(cast);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(DotAccess dotAccess) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == dotAccess) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(dotAccess);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Event event) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == event) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(event);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Function function) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == function) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(function);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(FunctionCall functionCall) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == functionCall) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(functionCall);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Header header) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == header) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(header);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(If ifStatement) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == ifStatement) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(ifStatement);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Import importDeclaration) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == importDeclaration) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(importDeclaration);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Parameter parameter) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == parameter) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(parameter);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Parenthetical parenthetical) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == parenthetical) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(parenthetical);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Property property) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == property) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(property);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Return returnStatement) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == returnStatement) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(returnStatement);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Script script) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == script) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(script);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(ScriptVariable scriptVariable) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == scriptVariable) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(scriptVariable);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(State state) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == state) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(state);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Type type) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == type) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(type);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(UnaryOperation unaryOperation) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == unaryOperation) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(unaryOperation);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(Variable variable) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == variable) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(variable);
+        }
+      }
+    }
+
+    @Override
+    protected void exit(While whileStatement) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == whileStatement) {
+          skippedAt[i] = null;
+        }
+        if (skippedAt[i] == null) {
+          walkers[i].exit(whileStatement);
+        }
+      }
+    }
+
+    @Override
+    protected void touch(BooleanLiteral booleanLiteral) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].touch(booleanLiteral);
+          walkers[i].skipping = false;
+        }
+      }
+    }
+
+    @Override
+    protected void touch(FloatLiteral floatLiteral) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].touch(floatLiteral);
+          walkers[i].skipping = false;
+        }
+      }
+    }
+
+    @Override
+    protected void touch(Identifier identifier) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].touch(identifier);
+          walkers[i].skipping = false;
+        }
+      }
+    }
+
+    @Override
+    protected void touch(IntegerLiteral integerLiteral) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].touch(integerLiteral);
+          walkers[i].skipping = false;
+        }
+      }
+    }
+
+    @Override
+    protected void touch(ObjectLiteral objectLiteral) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].touch(objectLiteral);
+          walkers[i].skipping = false;
+        }
+      }
+    }
+
+    @Override
+    protected void touch(StringLiteral stringLiteral) {
+      for (int i = 0; i < walkers.length; i++) {
+        if (skippedAt[i] == null) {
+          walkers[i].touch(stringLiteral);
+          walkers[i].skipping = false;
+        }
+      }
+    }
+  }
 }
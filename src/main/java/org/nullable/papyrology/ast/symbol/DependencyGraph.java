@@ -0,0 +1,132 @@
+package org.nullable.papyrology.ast.symbol;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import org.nullable.papyrology.ast.IdentifierKey;
+import org.nullable.papyrology.ast.Script;
+
+/**
+ * An immutable graph of the dependencies between {@link Script Scripts}, i.e. the scripts each
+ * {@code Script} imports or extends.
+ *
+ * <p>Edges are keyed by name only, so a {@code Script} can depend on one that isn't (or is no
+ * longer) known; it is still reported as a dependent of that name.
+ */
+final class DependencyGraph {
+
+  static final DependencyGraph EMPTY = new DependencyGraph(ImmutableMap.of(), ImmutableMap.of());
+
+  private final ImmutableMap<IdentifierKey, ImmutableSet<IdentifierKey>> dependenciesByScript;
+  private final ImmutableMap<IdentifierKey, ImmutableSet<IdentifierKey>> dependentsByScript;
+
+  private DependencyGraph(
+      ImmutableMap<IdentifierKey, ImmutableSet<IdentifierKey>> dependenciesByScript,
+      ImmutableMap<IdentifierKey, ImmutableSet<IdentifierKey>> dependentsByScript) {
+    this.dependenciesByScript = dependenciesByScript;
+    this.dependentsByScript = dependentsByScript;
+  }
+
+  /** Returns the scripts that the given script directly imports or extends. */
+  ImmutableSet<IdentifierKey> dependencies(IdentifierKey script) {
+    return dependenciesByScript.getOrDefault(script, ImmutableSet.of());
+  }
+
+  /**
+   * Returns every script that transitively depends on the given script (excluding the script
+   * itself), closest dependents first.
+   */
+  ImmutableSet<IdentifierKey> dependents(IdentifierKey script) {
+    Set<IdentifierKey> dependents = new LinkedHashSet<>();
+    Queue<IdentifierKey> queue = new ArrayDeque<>();
+    queue.add(script);
+    while (!queue.isEmpty()) {
+      IdentifierKey next = queue.remove();
+      for (IdentifierKey dependent : dependentsByScript.getOrDefault(next, ImmutableSet.of())) {
+        if (!dependent.equals(script) && dependents.add(dependent)) {
+          queue.add(dependent);
+        }
+      }
+    }
+    return ImmutableSet.copyOf(dependents);
+  }
+
+  /** Returns an {@link Editor} that starts from this {@code DependencyGraph}. */
+  Editor edit() {
+    return new Editor(this);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this).add("Dependencies", dependenciesByScript).toString();
+  }
+
+  /**
+   * Accumulates changes to a {@link DependencyGraph}.
+   *
+   * <p>Only the edge sets of the scripts that change are rebuilt (once, in {@link #build()}); every
+   * other one is shared with the original graph.
+   */
+  static final class Editor {
+    private final Map<IdentifierKey, ImmutableSet<IdentifierKey>> dependenciesByScript;
+    private final ImmutableMap<IdentifierKey, ImmutableSet<IdentifierKey>> originalDependents;
+    private final Map<IdentifierKey, Set<IdentifierKey>> editedDependents;
+
+    private Editor(DependencyGraph graph) {
+      this.dependenciesByScript = new HashMap<>(graph.dependenciesByScript);
+      this.originalDependents = graph.dependentsByScript;
+      this.editedDependents = new HashMap<>();
+    }
+
+    /** Sets the direct dependencies of the given script, replacing any previous ones. */
+    void put(IdentifierKey script, ImmutableSet<IdentifierKey> dependencies) {
+      remove(script);
+      if (dependencies.isEmpty()) {
+        return;
+      }
+      dependenciesByScript.put(script, dependencies);
+      for (IdentifierKey dependency : dependencies) {
+        dependents(dependency).add(script);
+      }
+    }
+
+    /** Removes the direct dependencies of the given script. */
+    void remove(IdentifierKey script) {
+      ImmutableSet<IdentifierKey> previous = dependenciesByScript.remove(script);
+      if (previous == null) {
+        return;
+      }
+      for (IdentifierKey dependency : previous) {
+        dependents(dependency).remove(script);
+      }
+    }
+
+    private Set<IdentifierKey> dependents(IdentifierKey script) {
+      return editedDependents.computeIfAbsent(
+          script,
+          s -> new LinkedHashSet<>(originalDependents.getOrDefault(s, ImmutableSet.of())));
+    }
+
+    /** Returns the edited {@link DependencyGraph}. */
+    DependencyGraph build() {
+      Map<IdentifierKey, ImmutableSet<IdentifierKey>> dependentsByScript =
+          new HashMap<>(originalDependents);
+      editedDependents.forEach(
+          (script, dependents) -> {
+            if (dependents.isEmpty()) {
+              dependentsByScript.remove(script);
+            } else {
+              dependentsByScript.put(script, ImmutableSet.copyOf(dependents));
+            }
+          });
+      return new DependencyGraph(
+          ImmutableMap.copyOf(dependenciesByScript), ImmutableMap.copyOf(dependentsByScript));
+    }
+  }
+}
@@ -7,20 +7,29 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
-import java.util.Locale;
 import java.util.Map;
+import org.nullable.papyrology.ast.Construct;
 import org.nullable.papyrology.ast.Identifier;
+import org.nullable.papyrology.ast.IdentifierKey;
 import org.nullable.papyrology.ast.SyntaxException;
 import org.nullable.papyrology.source.SourceReference;
 
 /**
  * A scope of {@code Symbols}.
  *
+ * <p>A {@code Scope} only knows about the {@code Scopes} that enclose it within its own {@link
+ * Type#SCRIPT}; identifiers that can't be resolved locally are handed to the global {@link
+ * Resolver} passed to {@link #resolve(Identifier, Resolver)}. This keeps a {@code Scope} free of
+ * references to the rest of the {@link SymbolTable}, so it can be shared between snapshots. A
+ * {@link Type#SCRIPT} {@code Scope} only records the <i>name</i> of the script it extends, if any.
+ *
  * <p>NOTE: This class is <i>not</i> thread safe before {@link #lock()} has been called, thus a
  * {@code Scope} should only have {@link Symbol Symbols} inserted by one thread.
  */
-final class Scope implements Resolver {
+final class Scope {
   /** The type associated with a {@code Scope}. */
   public enum Type {
     SCRIPT,
@@ -30,6 +39,15 @@ final class Scope implements Resolver {
     ANONYMOUS_BLOCK
   }
 
+  /** The {@link Symbol.Type Types} of the {@code Symbols} that child scripts inherit. */
+  private static final ImmutableSet<Symbol.Type> INHERITED_TYPES =
+      ImmutableSet.of(
+          Symbol.Type.EVENT,
+          Symbol.Type.FUNCTION,
+          Symbol.Type.READ_ONLY_PROPERTY,
+          Symbol.Type.WRITE_ONLY_PROPERTY,
+          Symbol.Type.READ_WRITE_PROPERTY);
+
   private static final ImmutableMap<Symbol.Type, Type> TO_SCOPE_TYPE =
       ImmutableMap.<Symbol.Type, Type>builder()
           .put(Symbol.Type.SCRIPT, Type.SCRIPT)
@@ -40,51 +58,78 @@ final class Scope implements Resolver {
           .buildOrThrow();
 
   private final Type type;
-  private final Resolver parent;
+  private final Scope parent;
   private final Symbol symbol;
-  private final Map<String, Symbol> symbols;
+  private final IdentifierKey parentScript;
+  private final Map<IdentifierKey, Symbol> symbols;
+  private IdentityHashMap<Construct, Scope> scopesByConstruct;
   private boolean lock;
 
-  private Scope(Type type, Resolver parent, Symbol symbol) {
+  private Scope(Type type, Scope parent, Symbol symbol, IdentifierKey parentScript) {
     this.type = type;
     this.parent = parent;
     this.symbol = symbol;
+    this.parentScript = parentScript;
     this.symbols = new LinkedHashMap<>();
     this.lock = false;
   }
 
   /**
    * Returns an empty {@code Scope} identified by the given {@link Symbol} that is contained in a
-   * {@code parent} {@code Resolver} and .
+   * {@code parent} {@code Scope} (which is {@code null} for a {@link Type#SCRIPT}).
    */
-  public static Scope create(Resolver parent, Symbol symbol) {
+  public static Scope create(Scope parent, Symbol symbol) {
     checkArgument(
         TO_SCOPE_TYPE.containsKey(symbol.type()),
         "Scope::create passed a Symbol of an unsupported Type: %s",
         symbol);
-    return new Scope(TO_SCOPE_TYPE.get(symbol.type()), parent, symbol);
+    return new Scope(TO_SCOPE_TYPE.get(symbol.type()), parent, symbol, /* parentScript= */ null);
   }
 
   /**
-   * Returns an empty, anonymous {@code Scope} that is contained in a {@code parent} {@code
-   * Resolver}.
+   * Returns an empty {@link Type#SCRIPT} {@code Scope} identified by the given {@link Symbol} that
+   * extends the script named {@code parentScript} (which is {@code null} if it extends nothing).
    */
-  public static Scope create(Resolver parent) {
-    return new Scope(Type.ANONYMOUS_BLOCK, parent, null);
+  public static Scope createScript(Symbol symbol, IdentifierKey parentScript) {
+    checkArgument(
+        symbol.type().equals(Symbol.Type.SCRIPT),
+        "Scope::createScript passed a Symbol that isn't a SCRIPT: %s",
+        symbol);
+    return new Scope(Type.SCRIPT, /* parent= */ null, symbol, parentScript);
   }
 
-  @Override
-  public Symbol resolve(Identifier identifier) {
+  /**
+   * Returns an empty, anonymous {@code Scope} that is contained in a {@code parent} {@code Scope}.
+   */
+  public static Scope create(Scope parent) {
+    return new Scope(Type.ANONYMOUS_BLOCK, parent, null, /* parentScript= */ null);
+  }
+
+  /**
+   * Resolves the given {@link Identifier} to a {@link Symbol} in this {@code Scope} or one of its
+   * parents, falling back to the {@code global} {@link Resolver}.
+   *
+   * @throws SyntaxException if no {@code Symbol} could be found.
+   */
+  Symbol resolve(Identifier identifier, Resolver global) {
     checkState(lock, "Scope::resolve called before Script::lock.");
-    String key = toKey(identifier);
-    if (!symbols.containsKey(key)) {
-      if (parent == null) {
-        throw new SyntaxException(
-            identifier.sourceReference(), "Unable to resolve %s", identifier.value());
+    IdentifierKey key = identifier.key();
+    for (Scope scope = this; scope != null; scope = scope.parent) {
+      Symbol symbol = scope.symbols.get(key);
+      if (symbol != null) {
+        return symbol;
       }
-      return parent.resolve(identifier);
     }
-    return symbols.get(key);
+    return global.resolve(identifier);
+  }
+
+  /**
+   * Returns the {@code Scope} of the given {@link Construct} of this {@link Type#SCRIPT} {@code
+   * Scope}, or {@code null} if it isn't part of the script.
+   */
+  Scope scope(Construct construct) {
+    checkState(lock, "Scope::scope called before Script::lock.");
+    return scopesByConstruct == null ? null : scopesByConstruct.get(construct);
   }
 
   /** Returns the {@link Type} of this {@code Scope}. */
@@ -106,6 +151,29 @@ final class Scope implements Resolver {
     return symbol;
   }
 
+  /**
+   * Returns the name of the script that this {@link Type#SCRIPT} {@code Scope} extends, or {@code
+   * null} if it doesn't extend one (or isn't a {@code SCRIPT}).
+   */
+  IdentifierKey parentScript() {
+    return parentScript;
+  }
+
+  /**
+   * Returns the {@link Symbol Symbols} of this {@code Scope} that are inherited by the scripts that
+   * extend it (i.e. its events, functions and properties), keyed by name.
+   *
+   * <p>This method will return an empty map if this {@code Scope} is not a {@link Type#SCRIPT}.
+   */
+  ImmutableMap<IdentifierKey, Symbol> members() {
+    checkState(lock, "Scope::members called before Script::lock.");
+    if (!type.equals(Type.SCRIPT)) {
+      return ImmutableMap.of();
+    }
+    return ImmutableMap.copyOf(
+        Maps.filterValues(symbols, s -> INHERITED_TYPES.contains(s.type())));
+  }
+
   /**
    * Returns the set of {@link Symbol Symbols} that this {@code Scope} exports to the global scope.
    *
@@ -129,6 +197,16 @@ final class Scope implements Resolver {
     lock = true;
   }
 
+  /**
+   * Locks this {@link Type#SCRIPT} {@code Scope} along with the {@code Scopes} of its {@link
+   * Construct Constructs}, which must never change again.
+   */
+  void lock(IdentityHashMap<Construct, Scope> scopesByConstruct) {
+    checkState(type.equals(Type.SCRIPT), "Scope::lock called with Constructs on a %s.", type);
+    this.scopesByConstruct = scopesByConstruct;
+    lock();
+  }
+
   /**
    * Inserts the given {@link Symbol} into this {@code Scope}.
    *
@@ -136,7 +214,7 @@ final class Scope implements Resolver {
    */
   void insert(Symbol symbol) {
     checkState(!lock, "Scope::insert called after Script::lock.");
-    String key = toKey(symbol.identifier());
+    IdentifierKey key = symbol.identifier().key();
     Symbol existing = symbols.get(key);
     if (existing != null) {
       SourceReference existingRef = existing.identifier().sourceReference();
@@ -150,10 +228,6 @@ final class Scope implements Resolver {
     symbols.put(key, symbol);
   }
 
-  private static String toKey(Identifier identifier) {
-    return identifier.value().toUpperCase(Locale.US);
-  }
-
   @Override
   public String toString() {
     ToStringHelper helper = MoreObjects.toStringHelper(this).add("Type", type).add("Locked", lock);
@@ -163,6 +237,9 @@ final class Scope implements Resolver {
     if (parent != null) {
       helper.add("Parent", parent);
     }
+    if (parentScript != null) {
+      helper.add("Extends", parentScript.value());
+    }
     return helper.add("Symbols", symbols).toString();
   }
 }
@@ -2,15 +2,18 @@ package org.nullable.papyrology.ast.symbol;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import org.nullable.papyrology.ast.Block;
 import org.nullable.papyrology.ast.Construct;
 import org.nullable.papyrology.ast.DataType;
 import org.nullable.papyrology.ast.Event;
 import org.nullable.papyrology.ast.Function;
+import org.nullable.papyrology.ast.Identifier;
+import org.nullable.papyrology.ast.IdentifierKey;
 import org.nullable.papyrology.ast.Import;
 import org.nullable.papyrology.ast.Parameter;
 import org.nullable.papyrology.ast.Property;
@@ -24,44 +27,54 @@ import org.nullable.papyrology.ast.WalkingVisitor;
 /**
  * A {@link WalkingVisitor.Walker} that builds a {@link Scope} by walking a {@link Script}.
  *
+ * <p>{@link Scope Scopes} are keyed by {@link Construct} identity; the structural equality of the
+ * AST records is both expensive (it visits the entire subtree) and wrong for this purpose (two
+ * identical blocks are still distinct scopes).
+ *
  * <p>NOTE: This class is <i>not</i> thread-safe in any state.
  */
 final class ScriptWalker extends WalkingVisitor.Walker {
-  private final Resolver global;
-  private final Map<Construct, Scope> scopesByConstruct;
+  private final IdentityHashMap<Construct, Scope> scopesByConstruct;
   private final Deque<Scope> scopes;
+  private final ImmutableSet.Builder<IdentifierKey> dependencies;
   private Scope root;
   private boolean complete;
 
-  private ScriptWalker(Resolver global) {
-    this.global = global;
+  private ScriptWalker() {
     this.root = null;
-    this.scopesByConstruct = new HashMap<>();
+    this.scopesByConstruct = new IdentityHashMap<>();
     this.scopes = new ArrayDeque<>();
+    this.dependencies = ImmutableSet.builder();
   }
 
   /** Returns a new {@code ScriptWalker} ready to walk a {@link Script}. */
-  static ScriptWalker create(Resolver global) {
-    return new ScriptWalker(global);
+  static ScriptWalker create() {
+    return new ScriptWalker();
   }
 
   @Override
   protected void enter(Script script) {
     checkState(root == null, "A ScriptWalker can only be used once.");
-    Scope scope = Scope.create(global, Symbol.script(script.header().scriptIdentifier()));
-    scopes.push(scope);
+    IdentifierKey parentScript =
+        script.header().parentScriptIdentifier().map(Identifier::key).orElse(null);
+    Symbol symbol = Symbol.script(script.header().scriptIdentifier());
+    scopes.push(Scope.createScript(symbol, parentScript));
+    if (parentScript != null) {
+      dependencies.add(parentScript);
+    }
   }
 
   @Override
   protected void exit(Script script) {
     root = scopes.pop();
-    root.lock();
     scopesByConstruct.put(script, root);
+    root.lock(scopesByConstruct);
   }
 
   @Override
   protected void enter(Import importStatement) {
     scopes.peek().insert(Symbol.script(importStatement.importedScriptIdentifier()));
+    dependencies.add(importStatement.importedScriptIdentifier().key());
   }
 
   @Override
@@ -83,6 +96,15 @@ final class ScriptWalker extends WalkingVisitor.Walker {
       symbol = Symbol.writeOnlyProperty(property.identifier(), property.type().dataType());
     }
     scopes.peek().insert(symbol);
+    // Every property has its own "Get" and "Set" functions, so they can't share the script's scope.
+    scopes.push(Scope.create(scopes.peek()));
+  }
+
+  @Override
+  protected void exit(Property property) {
+    Scope scope = scopes.pop();
+    scope.lock();
+    scopesByConstruct.put(property, scope);
   }
 
   @Override
@@ -163,6 +185,12 @@ final class ScriptWalker extends WalkingVisitor.Walker {
     return scopesByConstruct;
   }
 
+  /** Returns the names of the scripts that the walked {@link Script} imports or extends. */
+  public ImmutableSet<IdentifierKey> dependencies() {
+    checkState(root != null, "ScriptWalker::dependencies called before walk.");
+    return dependencies.build();
+  }
+
   public Scope root() {
     checkState(root != null, "ScriptWalker::scope called before walk.");
     return root;
@@ -4,36 +4,78 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import java.util.HashMap;
-import java.util.Locale;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 import org.nullable.papyrology.ast.Construct;
 import org.nullable.papyrology.ast.Identifier;
+import org.nullable.papyrology.ast.IdentifierKey;
 import org.nullable.papyrology.ast.Script;
 import org.nullable.papyrology.ast.SyntaxException;
 import org.nullable.papyrology.ast.WalkingVisitor;
+import org.nullable.papyrology.metrics.Phase;
+import org.nullable.papyrology.metrics.PhaseTimer;
+import org.nullable.papyrology.metrics.PipelineMetrics;
 
 /**
  * A mutable symbol table.
  *
  * <p>This symbol table only supports the {@link #upsert(Script)} operation for mutation which
- * allows for reloading a single {@link Script} without recomputing the entire symbol table.
+ * allows for reloading a single {@link Script} without recomputing the entire symbol table. Large
+ * sets of {@code Scripts} can be loaded in parallel with {@link #upsertAll(Collection)}.
  *
- * <p>NOTE: This class is <i>not</i> thread-safe in any state.
+ * <p>{@link Construct Constructs} are looked up by identity, so callers must pass the exact AST
+ * nodes that were upserted (rather than structurally equal copies).
+ *
+ * <p>This class is thread-safe. Every mutation publishes a new, immutable {@link Snapshot}; reads
+ * never block and always observe a single, consistent {@code Snapshot} even while other threads
+ * are replacing {@code Scripts}. Callers that need several lookups to agree with each other should
+ * take a {@link #snapshot()} and use it for all of them.
+ *
+ * <p>Every {@code Snapshot} also tracks which {@code Scripts} import or extend which others, so
+ * that when a {@code Script} changes, exactly the {@code Scripts} that (transitively) depend on it
+ * can be found with {@link #dependents(String)} (or {@link #refresh(Script)}), rather than
+ * re-analyzing everything.
+ *
+ * <p>Identifiers that can't be found in a {@code Script} itself are resolved against the members
+ * it inherits through its {@code Extends} chain. Each {@code Snapshot} lazily computes (and
+ * memoizes) a flattened table of the members of every ancestry it is asked about, so resolving an
+ * inherited member is a single lookup regardless of the depth of the hierarchy. Memoized tables
+ * are carried over to later {@code Snapshots} unless an ancestor of their {@code Script} changed.
  */
 public final class SymbolTable {
 
-  private final Map<Construct, Scope> scopesByConstruct;
-  private final Map<String, ScriptScope> scriptScopesByName;
-  private final GlobalResolver globalResolver;
+  /**
+   * The name of the {@link Script} of every {@link Construct} that has ever been upserted (and is
+   * still reachable). This is shared by every {@link Snapshot}, but only ever gains entries that
+   * never change (a {@code Construct} belongs to a single {@code Script}): each {@code Snapshot}
+   * looks the {@link Scope} of a {@code Construct} up in its own {@code Scope} of that name. Keys
+   * are weak and compared by identity, so entries disappear once their ASTs are discarded.
+   */
+  private final ConcurrentMap<Construct, IdentifierKey> scriptNamesByConstruct;
+
+  private volatile Snapshot snapshot;
 
   private SymbolTable() {
-    scopesByConstruct = new HashMap<>();
-    scriptScopesByName = new HashMap<>();
-    globalResolver = new GlobalResolver(scriptScopesByName);
+    scriptNamesByConstruct = new MapMaker().weakKeys().makeMap();
+    snapshot =
+        new Snapshot(
+            scriptNamesByConstruct,
+            ImmutableMap.of(),
+            DependencyGraph.EMPTY,
+            new ConcurrentHashMap<>());
   }
 
   /** Returns an empty {@code SymbolTable}. */
@@ -41,35 +83,42 @@ public final class SymbolTable {
     return new SymbolTable();
   }
 
+  /** Returns the current, immutable {@link Snapshot} of this {@code SymbolTable}. */
+  public Snapshot snapshot() {
+    return snapshot;
+  }
+
   /**
    * Returns a {@link Resolver} that can be used to resolve {@link Symbol Symbols} in the given
    * {@link Construct}.
    *
    * <p>Callers must take care to call this with the closest enclosing {@code Construct} that
    * contains the {@link Identifier} needing to be resolved.
+   *
+   * @see Snapshot#resolver(Construct)
    */
   public Resolver resolver(Construct construct) {
-    checkArgument(
-        scopesByConstruct.containsKey(construct),
-        "SymbolTable::resolver called with an unknown construct: %s",
-        construct);
-    return scopesByConstruct.get(construct);
+    return snapshot.resolver(construct);
   }
 
   /**
    * Returns a {@link Resolver} that can be used to resolve {@link Symbol Symbols} in the {@link
-   * Script} identified
+   * Script} identified by the given {@link Identifier}.
    *
-   * <p>Callers must take care to call this with the closest enclosing {@code Construct} that
-   * contains the {@link Identifier} needing to be resolved.
+   * @see Snapshot#resolver(Identifier)
    */
   public Resolver resolver(Identifier identifier) {
-    String name = normalize(identifier);
-    checkArgument(
-        scriptScopesByName.containsKey(name),
-        "SymbolTable::resolver called with an unknown Script identifier: %s",
-        identifier);
-    return scriptScopesByName.get(name).scope();
+    return snapshot.resolver(identifier);
+  }
+
+  /**
+   * Returns the names of every {@link Script} that transitively imports or extends the {@code
+   * Script} with the given {@code name}.
+   *
+   * @see Snapshot#dependents(String)
+   */
+  public ImmutableSet<IdentifierKey> dependents(String name) {
+    return snapshot.dependents(name);
   }
 
   /**
@@ -84,14 +133,101 @@ public final class SymbolTable {
    */
   @CanIgnoreReturnValue
   public boolean upsert(Script script) {
-    String name = normalize(script.header().scriptIdentifier());
-    boolean removal = remove(name);
-    ScriptWalker walker = ScriptWalker.create(globalResolver);
-    WalkingVisitor.create(walker).visit(script);
-    ScriptScope scriptScope = ScriptScope.create(walker.root(), walker.scopes().keySet());
-    scriptScopesByName.put(name, scriptScope);
-    scopesByConstruct.putAll(walker.scopes());
-    return removal;
+    return publishAll(ImmutableList.of(walk(script))) > 0;
+  }
+
+  /**
+   * Updates or inserts all of the given {@link Script Scripts} into the {@code SymbolTable}.
+   *
+   * <p>This is equivalent to calling {@link #upsert(Script)} for each {@code Script} in order, but
+   * the {@code Scripts} are walked in parallel on the common {@link ForkJoinPool} and their {@link
+   * Symbol Symbols} are only published to the {@code SymbolTable} once all of them have been
+   * walked. If any {@code Script} fails to be walked, the {@code SymbolTable} is left unmodified.
+   *
+   * @return the number of existing {@code Scripts} that were replaced.
+   */
+  @CanIgnoreReturnValue
+  public int upsertAll(Collection<Script> scripts) {
+    return publishAll(walkAll(scripts));
+  }
+
+  /**
+   * Updates or inserts all of the given {@link Script Scripts} into the {@code SymbolTable},
+   * walking them on the given {@link ForkJoinPool}.
+   *
+   * @see #upsertAll(Collection)
+   */
+  @CanIgnoreReturnValue
+  public int upsertAll(Collection<Script> scripts, ForkJoinPool pool) {
+    return publishAll(pool.submit(() -> walkAll(scripts)).join());
+  }
+
+  /**
+   * Updates or inserts the given (changed) {@link Script}, returning the names of every {@code
+   * Script} that transitively depends on it.
+   *
+   * <p>The dependents are computed from the {@code Script} being replaced, i.e. before the change.
+   * They don't need to be reloaded: their own {@link Symbol Symbols} can't have changed, and the
+   * members they inherit are recomputed on their next lookup. The returned names are only the
+   * {@code Scripts} whose resolved identifiers may now differ (e.g. to re-run analyses on them).
+   */
+  @CanIgnoreReturnValue
+  public ImmutableSet<IdentifierKey> refresh(Script script) {
+    ScriptWalker walker = walk(script);
+    synchronized (this) {
+      ImmutableSet<IdentifierKey> dependents =
+          snapshot.dependents(script.header().scriptIdentifier().value());
+      publishAll(ImmutableList.of(walker));
+      return dependents;
+    }
+  }
+
+  private static ImmutableList<ScriptWalker> walkAll(Collection<Script> scripts) {
+    return scripts.parallelStream().map(SymbolTable::walk).collect(toImmutableList());
+  }
+
+  private static ScriptWalker walk(Script script) {
+    String name = script.header().scriptIdentifier().value();
+    try (PhaseTimer timer = PipelineMetrics.global().start(Phase.COLLECT_SYMBOLS, name)) {
+      ScriptWalker walker = ScriptWalker.create();
+      WalkingVisitor.create(walker).visit(script);
+      if (timer.isRecording()) {
+        // Functions and Events share their Scope with their body.
+        timer.setScopes(walker.scopes().values().stream().distinct().count());
+      }
+      return walker;
+    }
+  }
+
+  /**
+   * Publishes the {@link Scope Scopes} collected by the given {@link ScriptWalker ScriptWalkers} as
+   * a single new {@link Snapshot}.
+   *
+   * @return the number of existing {@code Scripts} that were replaced.
+   */
+  private synchronized int publishAll(ImmutableList<ScriptWalker> walkers) {
+    Map<IdentifierKey, Scope> scriptScopesByName = new LinkedHashMap<>(snapshot.scriptScopesByName);
+    DependencyGraph.Editor dependencyGraph = snapshot.dependencyGraph.edit();
+    Set<IdentifierKey> names = new HashSet<>();
+    int replaced = 0;
+    for (ScriptWalker walker : walkers) {
+      IdentifierKey name = walker.root().symbol().identifier().key();
+      for (Construct construct : walker.scopes().keySet()) {
+        scriptNamesByConstruct.put(construct, name);
+      }
+      if (scriptScopesByName.put(name, walker.root()) != null) {
+        replaced++;
+      }
+      dependencyGraph.put(name, walker.dependencies());
+      names.add(name);
+    }
+    snapshot =
+        new Snapshot(
+            scriptNamesByConstruct,
+            ImmutableMap.copyOf(scriptScopesByName),
+            dependencyGraph.build(),
+            snapshot.retainMembers(names));
+    return replaced;
   }
 
   /**
@@ -101,51 +237,225 @@ public final class SymbolTable {
    * @return {@code true} if {@code Symbols} were removed, {@code false} otherwise.
    */
   @CanIgnoreReturnValue
-  public boolean remove(String name) {
-    name = normalize(name);
-    if (!scriptScopesByName.containsKey(name)) {
+  public synchronized boolean remove(String name) {
+    IdentifierKey key = IdentifierKey.of(name);
+    if (!snapshot.scriptScopesByName.containsKey(key)) {
       return false;
     }
-    ScriptScope scriptScope = scriptScopesByName.remove(name);
-    scriptScope.constructs().forEach(scopesByConstruct::remove);
+    Map<IdentifierKey, Scope> scriptScopesByName = new LinkedHashMap<>(snapshot.scriptScopesByName);
+    scriptScopesByName.remove(key);
+    DependencyGraph.Editor dependencyGraph = snapshot.dependencyGraph.edit();
+    dependencyGraph.remove(key);
+    snapshot =
+        new Snapshot(
+            scriptNamesByConstruct,
+            ImmutableMap.copyOf(scriptScopesByName),
+            dependencyGraph.build(),
+            snapshot.retainMembers(ImmutableSet.of(key)));
     return true;
   }
 
   @Override
   public String toString() {
-    return MoreObjects.toStringHelper(this)
-        .add(
-            "Scopes",
-            scriptScopesByName.values().stream().map(s -> s.scope).collect(toImmutableList()))
-        .toString();
+    return MoreObjects.toStringHelper(this).add("Snapshot", snapshot).toString();
+  }
+
+  /**
+   * An immutable view of a {@link SymbolTable} at a single point in time.
+   *
+   * <p>Every {@link Resolver} returned by a {@code Snapshot} (including the global lookup of {@link
+   * Script} identifiers) keeps resolving against that {@code Snapshot}, regardless of any later
+   * mutations of the {@code SymbolTable}.
+   */
+  public static final class Snapshot {
+    private final Map<Construct, IdentifierKey> scriptNamesByConstruct;
+    private final ImmutableMap<IdentifierKey, Scope> scriptScopesByName;
+    private final DependencyGraph dependencyGraph;
+    private final GlobalResolver globalResolver;
+
+    /**
+     * The flattened (i.e. own and inherited) members of each {@code Script}, computed on demand.
+     * Every entry only depends on the {@code Scopes} of the {@code Script} and its ancestors.
+     */
+    private final ConcurrentMap<IdentifierKey, ImmutableMap<IdentifierKey, Symbol>> membersByName;
+
+    private Snapshot(
+        Map<Construct, IdentifierKey> scriptNamesByConstruct,
+        ImmutableMap<IdentifierKey, Scope> scriptScopesByName,
+        DependencyGraph dependencyGraph,
+        ConcurrentMap<IdentifierKey, ImmutableMap<IdentifierKey, Symbol>> membersByName) {
+      this.scriptNamesByConstruct = scriptNamesByConstruct;
+      this.scriptScopesByName = scriptScopesByName;
+      this.dependencyGraph = dependencyGraph;
+      this.globalResolver = new GlobalResolver(scriptScopesByName);
+      this.membersByName = membersByName;
+    }
+
+    /**
+     * Returns a {@link Resolver} that can be used to resolve {@link Symbol Symbols} in the given
+     * {@link Construct}.
+     *
+     * <p>Callers must take care to call this with the closest enclosing {@code Construct} that
+     * contains the {@link Identifier} needing to be resolved.
+     */
+    public Resolver resolver(Construct construct) {
+      IdentifierKey name = scriptNamesByConstruct.get(construct);
+      Scope scriptScope = name == null ? null : scriptScopesByName.get(name);
+      Scope scope = scriptScope == null ? null : scriptScope.scope(construct);
+      checkArgument(
+          scope != null,
+          "SymbolTable::resolver called with an unknown construct: %s",
+          construct);
+      return new ScopeResolver(scope, new InheritedResolver(this, scriptScope.parentScript()));
+    }
+
+    /**
+     * Returns a {@link Resolver} that can be used to resolve {@link Symbol Symbols} in the {@link
+     * Script} identified by the given {@link Identifier}.
+     */
+    public Resolver resolver(Identifier identifier) {
+      Scope scope = scriptScopesByName.get(identifier.key());
+      checkArgument(
+          scope != null,
+          "SymbolTable::resolver called with an unknown Script identifier: %s",
+          identifier);
+      return new ScopeResolver(scope, new InheritedResolver(this, scope.parentScript()));
+    }
+
+    /**
+     * Returns the names of every {@link Script} that transitively imports or extends the {@code
+     * Script} with the given {@code name}, closest dependents first.
+     *
+     * <p>The {@code Script} itself is never included, and need not be known to this {@code
+     * Snapshot}: the {@code Scripts} that depend on a missing {@code Script} are still returned.
+     */
+    public ImmutableSet<IdentifierKey> dependents(String name) {
+      return dependencyGraph.dependents(IdentifierKey.of(name));
+    }
+
+    /**
+     * Returns the members (i.e. events, functions and properties) of the {@code Script} with the
+     * given {@code name}, including the ones it inherits, keyed by name.
+     *
+     * <p>Ancestors that aren't known to this {@code Snapshot} contribute no members, and neither do
+     * the repeated ancestors of a cyclic hierarchy.
+     */
+    ImmutableMap<IdentifierKey, Symbol> members(IdentifierKey name) {
+      ImmutableMap<IdentifierKey, Symbol> members = membersByName.get(name);
+      if (members != null) {
+        return members;
+      }
+      // Walk up the hierarchy until the first ancestor that is already memoized (or unknown)...
+      Deque<Scope> ancestry = new ArrayDeque<>();
+      Set<IdentifierKey> visited = new HashSet<>();
+      members = ImmutableMap.of();
+      for (IdentifierKey key = name; key != null && visited.add(key); ) {
+        ImmutableMap<IdentifierKey, Symbol> memoized = membersByName.get(key);
+        if (memoized != null) {
+          members = memoized;
+          break;
+        }
+        Scope scope = scriptScopesByName.get(key);
+        if (scope == null) {
+          break;
+        }
+        ancestry.push(scope);
+        key = scope.parentScript();
+      }
+      // ...then flatten (and memoize) each table on the way back down.
+      while (!ancestry.isEmpty()) {
+        Scope scope = ancestry.pop();
+        ImmutableMap<IdentifierKey, Symbol> own = scope.members();
+        ImmutableMap<IdentifierKey, Symbol> flattened =
+            ImmutableMap.<IdentifierKey, Symbol>builderWithExpectedSize(members.size() + own.size())
+                .putAll(members)
+                .putAll(own)
+                .buildKeepingLast();
+        ImmutableMap<IdentifierKey, Symbol> existing =
+            membersByName.putIfAbsent(scope.symbol().identifier().key(), flattened);
+        members = existing != null ? existing : flattened;
+      }
+      return members;
+    }
+
+    /**
+     * Returns a copy of the memoized member tables of this {@code Snapshot} without the ones that
+     * depend on any of the given (changed) {@code Scripts}.
+     */
+    private ConcurrentMap<IdentifierKey, ImmutableMap<IdentifierKey, Symbol>> retainMembers(
+        Set<IdentifierKey> changed) {
+      ConcurrentMap<IdentifierKey, ImmutableMap<IdentifierKey, Symbol>> retained =
+          new ConcurrentHashMap<>(membersByName);
+      for (IdentifierKey name : changed) {
+        retained.remove(name);
+        // Dependents are a superset of descendants (they include importers as well).
+        retained.keySet().removeAll(dependencyGraph.dependents(name));
+      }
+      return retained;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("Scopes", scriptScopesByName.values())
+          .toString();
+    }
+  }
+
+  /** {@link Resolver} that resolves {@link Identifier Identifiers} in a single {@link Scope}. */
+  private record ScopeResolver(Scope scope, Resolver global) implements Resolver {
+    @Override
+    public Symbol resolve(Identifier identifier) {
+      return scope.resolve(identifier, global);
+    }
   }
 
   /**
-   * A simple wrapper around a {@link Scope} (typed {@link Scope.Type#SCRIPT}), and the set of
-   * {@link Construct Constructs} it has symbol information for.
+   * {@link Resolver} that resolves {@link Identifier Identifiers} against the members a {@link
+   * Script} inherits, falling back to the {@link GlobalResolver}.
    */
-  private record ScriptScope(Scope scope, ImmutableSet<Construct> constructs) {
-    static ScriptScope create(Scope scope, Set<Construct> constructs) {
-      return new ScriptScope(scope, ImmutableSet.copyOf(constructs));
+  private static final class InheritedResolver implements Resolver {
+    private final Snapshot snapshot;
+    private final IdentifierKey parentScript;
+    private ImmutableMap<IdentifierKey, Symbol> members;
+
+    private InheritedResolver(Snapshot snapshot, IdentifierKey parentScript) {
+      this.snapshot = snapshot;
+      this.parentScript = parentScript;
+    }
+
+    @Override
+    public Symbol resolve(Identifier identifier) {
+      if (parentScript != null) {
+        // Racing threads can only ever compute the same (immutable) table.
+        if (members == null) {
+          members = snapshot.members(parentScript);
+        }
+        Symbol symbol = members.get(identifier.key());
+        if (symbol != null) {
+          return symbol;
+        }
+      }
+      return snapshot.globalResolver.resolve(identifier);
     }
   }
 
   /** {@link Resolver} that handles resolving {@link Script} {@link Identifier Identifiers}. */
   private static class GlobalResolver implements Resolver {
-    private final Map<String, ScriptScope> scriptScopesByName;
+    private final ImmutableMap<IdentifierKey, Scope> scriptScopesByName;
 
-    private GlobalResolver(Map<String, ScriptScope> scriptScopesByName) {
+    private GlobalResolver(ImmutableMap<IdentifierKey, Scope> scriptScopesByName) {
       this.scriptScopesByName = scriptScopesByName;
     }
 
     @Override
     public Symbol resolve(Identifier identifier) {
-      String id = normalize(identifier);
-      if (!scriptScopesByName.containsKey(id)) {
+      Scope scope = scriptScopesByName.get(identifier.key());
+      if (scope == null) {
         throw new SyntaxException(
             identifier.sourceReference(), "Unable to resolve %s", identifier.value());
       }
-      return scriptScopesByName.get(id).scope().symbol();
+      return scope.symbol();
     }
 
     @Override
@@ -156,11 +466,4 @@ public final class SymbolTable {
     }
   }
 
-  private static String normalize(Identifier identifier) {
-    return normalize(identifier.value());
-  }
-
-  private static String normalize(String identifier) {
-    return identifier.toUpperCase(Locale.US);
-  }
 }
@@ -30,37 +30,24 @@ functionDeclaration
 
 statementBlock: (statement | NEWLINE)*;
 statement
-    : type ID (O_ASSIGN expression)? NEWLINE                                                                                                  # LocalVariable
-    | assignee op = (O_ASSIGN | O_ASSIGN_ADD | O_ASSIGN_SUBTRACT | O_ASSIGN_MULTIPLY | O_ASSIGN_DIVIDE | O_ASSIGN_MODULO) expression NEWLINE  # Assignment
-    | K_RETURN expression? NEWLINE                                                                                                            # Return
+    : K_RETURN expression? NEWLINE                                                                                                            # Return
     | K_IF expression NEWLINE statementBlock (K_ELSE_IF expression NEWLINE statementBlock)* (K_ELSE NEWLINE statementBlock)? K_END_IF NEWLINE # If
     | K_WHILE expression NEWLINE statementBlock K_END_WHILE NEWLINE                                                                           # While
-    | expression NEWLINE                                                                                                                      # StandaloneExpression
-    ;
-assignee
-    : ID                                        # IdentifierAssignee
-    | expression O_DOT ID                       # DotAccessAssignee
-    | expression S_LBRAKET expression S_RBRAKET # ArrayAccessAssignee
+    | left = expression (op = (O_ASSIGN | O_ASSIGN_ADD | O_ASSIGN_SUBTRACT | O_ASSIGN_MULTIPLY | O_ASSIGN_DIVIDE | O_ASSIGN_MODULO) right = expression)? NEWLINE # SimpleStatement
     ;
+
+// Expressions are only delimited here, with their brackets balanced; their structure (as well as
+// whether a SimpleStatement defines a local variable, assigns a value or is a standalone
+// expression) is parsed by the AST's ExpressionParser.
 expression
-    : left = expression op = O_LOGICAL_OR right = expression                                                                        # BinaryOperation
-    | left = expression op = O_LOGICAL_AND right = expression                                                                       # BinaryOperation
-    | left = expression op = (O_EQUAL | O_NOT_EQUAL | O_GREATER | O_GREATER_OR_EQUAL | O_LESS | O_LESS_OR_EQUAL) right = expression # BinaryOperation
-    | left = expression op = (O_ADD | O_SUBTRACT) right = expression                                                                # BinaryOperation
-    | left = expression op = (O_MULTIPLY | O_DIVIDE | O_MODULO) right = expression                                                  # BinaryOperation
-    | op = (O_SUBTRACT | O_LOGICAL_NOT) value = expression                                                                          # UnaryOperation
-    | expression K_AS type                                                                                                          # Cast
-    | ID S_LPAREN callParameters S_RPAREN                                                                                           # LocalFunctionCall
-    | expression O_DOT ID (S_LPAREN callParameters S_RPAREN)?                                                                       # DotAccessOrFunctionCall
-    | expression O_DOT K_LENGTH                                                                                                     # ArrayLength
-    | S_LPAREN expression S_RPAREN                                                                                                  # Parenthetical
-    | expression S_LBRAKET expression S_RBRAKET                                                                                     # ArrayAccess
-    | K_NEW type S_LBRAKET L_UINT S_RBRAKET                                                                                         # ArrayInitialization
-    | literal                                                                                                                       # LiteralValue
-    | ID                                                                                                                            # ID
+    : ( ID | K_AS | K_NEW | K_LENGTH | K_BOOL | K_INT | K_FLOAT | K_STRING
+      | K_TRUE | K_FALSE | K_NONE | K_SELF | K_PARENT | L_UINT | L_INT | L_FLOAT | L_STRING
+      | O_DOT | O_LOGICAL_NOT | O_LOGICAL_OR | O_LOGICAL_AND | O_MULTIPLY | O_DIVIDE | O_MODULO | O_ADD | O_SUBTRACT
+      | O_EQUAL | O_NOT_EQUAL | O_GREATER | O_GREATER_OR_EQUAL | O_LESS | O_LESS_OR_EQUAL
+      | S_LPAREN expression? ((S_COMMA | O_ASSIGN) expression?)* S_RPAREN
+      | S_LBRAKET expression? S_RBRAKET
+      )+
     ;
-callParameters: callParameter? (S_COMMA callParameter)*;
-callParameter:  (ID O_ASSIGN)? expression;
 
 type:       (K_INT | K_BOOL | K_FLOAT | K_STRING | ID) (S_LBRAKET S_RBRAKET)?;
 literal:    K_TRUE | K_FALSE | L_FLOAT | L_UINT | L_INT | L_STRING | K_NONE | K_SELF | K_PARENT;
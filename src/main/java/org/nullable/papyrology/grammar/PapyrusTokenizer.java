@@ -0,0 +1,602 @@
+package org.nullable.papyrology.grammar;
+
+import org.antlr.v4.runtime.ANTLRErrorListener;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CommonTokenFactory;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenFactory;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+
+/**
+ * A hand-written {@link TokenSource} that produces exactly the same tokens as the {@link
+ * PapyrusLexer} generated from {@code Papyrus.g4}, without simulating its ATN.
+ *
+ * <p>Every token has the same type, channel, start and stop indices, line and column as the one
+ * {@code PapyrusLexer} would produce, and characters that don't form a token are reported (and
+ * skipped) exactly as {@code PapyrusLexer} would. The only difference is that such an error is
+ * reported with an {@link Token#INVALID_TYPE} token covering the offending text as its offending
+ * symbol (and no {@code Recognizer}), as there is no {@code Lexer} to report it from.
+ *
+ * <p>Tokens are recognized by dispatching on their first character. Identifiers are checked for
+ * being keywords with a perfect hash of their last two (case-folded) characters and their length,
+ * which leaves at most one keyword to compare against.
+ *
+ * <p>Characters are read through the {@link CharStream} (which is never consumed) a fixed-size
+ * window at a time, so the source is never copied as a whole, e.g. out of a memory-mapped {@code
+ * CharStream}.
+ *
+ * <p>NOTE: This class is <i>not</i> thread-safe in any state.
+ */
+public final class PapyrusTokenizer implements TokenSource {
+
+  /** A pseudo token type for text that is matched but skipped (e.g. whitespace and comments). */
+  private static final int SKIP = -2;
+
+  /** A pseudo token type for text that doesn't match any token. */
+  private static final int ERROR = -3;
+
+  /** The maximum number of characters read out of the {@code CharStream} at a time. */
+  private static final int WINDOW_SIZE = 4096;
+
+  private static final int KEYWORD_TABLE_SIZE = 128;
+  private static final int MAXIMUM_KEYWORD_LENGTH = 12;
+  private static final String[] KEYWORDS = new String[KEYWORD_TABLE_SIZE];
+  private static final int[] KEYWORD_TYPES = new int[KEYWORD_TABLE_SIZE];
+
+  static {
+    keyword("as", PapyrusLexer.K_AS);
+    keyword("auto", PapyrusLexer.K_AUTO);
+    keyword("autoreadonly", PapyrusLexer.K_AUTO_READ_ONLY);
+    keyword("bool", PapyrusLexer.K_BOOL);
+    keyword("else", PapyrusLexer.K_ELSE);
+    keyword("elseif", PapyrusLexer.K_ELSE_IF);
+    keyword("endevent", PapyrusLexer.K_END_EVENT);
+    keyword("endfunction", PapyrusLexer.K_END_FUNCTION);
+    keyword("endif", PapyrusLexer.K_END_IF);
+    keyword("endproperty", PapyrusLexer.K_END_PROPERTY);
+    keyword("endstate", PapyrusLexer.K_END_STATE);
+    keyword("endwhile", PapyrusLexer.K_END_WHILE);
+    keyword("event", PapyrusLexer.K_EVENT);
+    keyword("extends", PapyrusLexer.K_EXTENDS);
+    keyword("false", PapyrusLexer.K_FALSE);
+    keyword("float", PapyrusLexer.K_FLOAT);
+    keyword("function", PapyrusLexer.K_FUNCTION);
+    keyword("global", PapyrusLexer.K_GLOBAL);
+    keyword("if", PapyrusLexer.K_IF);
+    keyword("import", PapyrusLexer.K_IMPORT);
+    keyword("int", PapyrusLexer.K_INT);
+    keyword("length", PapyrusLexer.K_LENGTH);
+    keyword("native", PapyrusLexer.K_NATIVE);
+    keyword("new", PapyrusLexer.K_NEW);
+    keyword("none", PapyrusLexer.K_NONE);
+    keyword("parent", PapyrusLexer.K_PARENT);
+    keyword("property", PapyrusLexer.K_PROPERTY);
+    keyword("return", PapyrusLexer.K_RETURN);
+    keyword("scriptname", PapyrusLexer.K_SCRIPT_NAME);
+    keyword("self", PapyrusLexer.K_SELF);
+    keyword("state", PapyrusLexer.K_STATE);
+    keyword("string", PapyrusLexer.K_STRING);
+    keyword("true", PapyrusLexer.K_TRUE);
+    keyword("while", PapyrusLexer.K_WHILE);
+    keyword("hidden", PapyrusLexer.F_HIDDEN);
+    keyword("conditional", PapyrusLexer.F_CONDITIONAL);
+  }
+
+  private static void keyword(String keyword, int type) {
+    int length = keyword.length();
+    int hash = hash(keyword.charAt(length - 2), keyword.charAt(length - 1), length);
+    if (KEYWORDS[hash] != null) {
+      throw new IllegalStateException(
+          String.format("Keywords \"%s\" and \"%s\" collide", KEYWORDS[hash], keyword));
+    }
+    KEYWORDS[hash] = keyword;
+    KEYWORD_TYPES[hash] = type;
+  }
+
+  /** Returns the perfect hash of a keyword with the given last two characters and length. */
+  private static int hash(int secondToLast, int last, int length) {
+    return (5 * ((secondToLast | 0x20) + (last | 0x20)) + length) & (KEYWORD_TABLE_SIZE - 1);
+  }
+
+  private final CharStream input;
+  private final Pair<TokenSource, CharStream> source;
+  private final ANTLRErrorListener errorListener;
+  private final int offset;
+  private final int size;
+  private final int[] window;
+  private int windowStart;
+  private TokenFactory<?> factory;
+  private int position;
+  private int line;
+  private int column;
+  private int tokenStart;
+  private int tokenLine;
+  private int tokenColumn;
+
+  private PapyrusTokenizer(CharStream input, ANTLRErrorListener errorListener) {
+    this.input = input;
+    this.source = new Pair<>(this, input);
+    this.errorListener = errorListener;
+    this.size = input.size();
+    this.factory = CommonTokenFactory.DEFAULT;
+    this.position = input.index();
+    // The CharStream stays at its initial index, from which LA(1) reads.
+    this.offset = 1 - position;
+    // The window may extend past the end of the input (where it holds EOFs), as matches look ahead.
+    this.window = new int[Math.min(WINDOW_SIZE, size - position + 2)];
+    // Start with a window that ends where the input starts, so the first token slides it along.
+    this.windowStart = position - window.length;
+    this.line = 1;
+    this.column = 0;
+  }
+
+  /**
+   * Returns a new {@code PapyrusTokenizer} over the given {@link CharStream} that reports errors to
+   * the {@link ConsoleErrorListener}, as a {@link PapyrusLexer} does by default.
+   */
+  public static PapyrusTokenizer create(CharStream input) {
+    return create(input, ConsoleErrorListener.INSTANCE);
+  }
+
+  /**
+   * Returns a new {@code PapyrusTokenizer} over the given {@link CharStream} that reports errors to
+   * the given {@link ANTLRErrorListener}.
+   */
+  public static PapyrusTokenizer create(CharStream input, ANTLRErrorListener errorListener) {
+    return new PapyrusTokenizer(input, errorListener);
+  }
+
+  @Override
+  public Token nextToken() {
+    int type = advance();
+    int stop = position - 1;
+    return factory.create(
+        source, type, null, Token.DEFAULT_CHANNEL, tokenStart, stop, tokenLine, tokenColumn);
+  }
+
+  /**
+   * Advances past the next token, returning its type, without creating a {@link Token}.
+   *
+   * <p>The token spans from {@link #tokenStart()} up to (but excluding) {@link #tokenEnd()}, and
+   * starts at {@link #tokenLine()} and {@link #tokenColumn()}.
+   */
+  int advance() {
+    while (true) {
+      tokenStart = position;
+      tokenLine = line;
+      tokenColumn = column;
+      if (tokenStart >= size) {
+        return Token.EOF;
+      }
+      if (windowStart + window.length - tokenStart < window.length / 2
+          && windowStart + window.length < size) {
+        // Slide the window along between tokens, so that (in practice) it always holds every
+        // character that a token is matched against.
+        slide(tokenStart);
+      }
+      int type = match(tokenStart);
+      if (type != SKIP && type != ERROR) {
+        return type;
+      }
+    }
+  }
+
+  /** Returns the index of the first character of the token last returned by {@link #advance()}. */
+  int tokenStart() {
+    return tokenStart;
+  }
+
+  /** Returns the index just after the token last returned by {@link #advance()}. */
+  int tokenEnd() {
+    return position;
+  }
+
+  /** Returns the line of the token last returned by {@link #advance()}. */
+  int tokenLine() {
+    return tokenLine;
+  }
+
+  /** Returns the column of the token last returned by {@link #advance()}. */
+  int tokenColumn() {
+    return tokenColumn;
+  }
+
+  /** Returns the number of characters in the input. */
+  int inputSize() {
+    return size;
+  }
+
+  /**
+   * Matches the longest token at {@code start} (preferring the earliest rule in {@code Papyrus.g4}
+   * on a tie), advances past it and returns its type.
+   */
+  private int match(int start) {
+    int c = charAt(start);
+    switch (c) {
+      case '(':
+        return single(PapyrusLexer.S_LPAREN);
+      case ')':
+        return single(PapyrusLexer.S_RPAREN);
+      case '[':
+        return single(PapyrusLexer.S_LBRAKET);
+      case ']':
+        return single(PapyrusLexer.S_RBRAKET);
+      case '}':
+        return single(PapyrusLexer.S_RCURLY);
+      case ',':
+        return single(PapyrusLexer.S_COMMA);
+      case '.':
+        return single(PapyrusLexer.O_DOT);
+      case '{':
+        {
+          int end = indexOf('}', start + 1);
+          if (end < 0) {
+            return single(PapyrusLexer.S_LCURLY);
+          }
+          advanceAcrossLines(end + 1);
+          return PapyrusLexer.DOC_COMMENT;
+        }
+      case '=':
+        return operator(PapyrusLexer.O_ASSIGN, '=', PapyrusLexer.O_EQUAL);
+      case '+':
+        return operator(PapyrusLexer.O_ADD, '=', PapyrusLexer.O_ASSIGN_ADD);
+      case '*':
+        return operator(PapyrusLexer.O_MULTIPLY, '=', PapyrusLexer.O_ASSIGN_MULTIPLY);
+      case '/':
+        return operator(PapyrusLexer.O_DIVIDE, '=', PapyrusLexer.O_ASSIGN_DIVIDE);
+      case '%':
+        return operator(PapyrusLexer.O_MODULO, '=', PapyrusLexer.O_ASSIGN_MODULO);
+      case '!':
+        return operator(PapyrusLexer.O_LOGICAL_NOT, '=', PapyrusLexer.O_NOT_EQUAL);
+      case '>':
+        return operator(PapyrusLexer.O_GREATER, '=', PapyrusLexer.O_GREATER_OR_EQUAL);
+      case '<':
+        return operator(PapyrusLexer.O_LESS, '=', PapyrusLexer.O_LESS_OR_EQUAL);
+      case '|':
+        return operator(ERROR, '|', PapyrusLexer.O_LOGICAL_OR);
+      case '&':
+        return operator(ERROR, '&', PapyrusLexer.O_LOGICAL_AND);
+      case '-':
+        return minus(start);
+      case '"':
+        return string(start);
+      case ';':
+        return comment(start);
+      case '\\':
+        return lineBreak(start);
+      case ' ':
+      case '\t':
+        {
+          int end = start + 1;
+          while (end < size && (charAt(end) == ' ' || charAt(end) == '\t')) {
+            end++;
+          }
+          column += end - start;
+          position = end;
+          return SKIP;
+        }
+      case '\n':
+        advanceAcrossLines(start + 1);
+        return PapyrusLexer.NEWLINE;
+      case '\r':
+        if (charAt(start + 1) == '\n') {
+          advanceAcrossLines(start + 2);
+          return PapyrusLexer.NEWLINE;
+        }
+        return error(start, start + 1);
+      default:
+        if (isDigit(c)) {
+          return number(start, start);
+        }
+        if (isIdentifierStart(c)) {
+          return identifier(start);
+        }
+        return error(start, start);
+    }
+  }
+
+  private int single(int type) {
+    position++;
+    column++;
+    return type;
+  }
+
+  /**
+   * Matches an operator that is either a single character (of type {@code single}, or {@link
+   * #ERROR} if that is not a token) or followed by {@code second} (of type {@code pair}).
+   */
+  private int operator(int single, int second, int pair) {
+    if (charAt(position + 1) == second) {
+      position += 2;
+      column += 2;
+      return pair;
+    }
+    if (single == ERROR) {
+      return error(position, position + 1);
+    }
+    return single(single);
+  }
+
+  /** Matches {@code O_SUBTRACT}, {@code O_ASSIGN_SUBTRACT} or a negative number. */
+  private int minus(int start) {
+    int next = charAt(start + 1);
+    if (next == '=') {
+      position += 2;
+      column += 2;
+      return PapyrusLexer.O_ASSIGN_SUBTRACT;
+    }
+    if (isDigit(next)) {
+      return number(start, start + 1);
+    }
+    return single(PapyrusLexer.O_SUBTRACT);
+  }
+
+  /**
+   * Matches {@code L_UINT}, {@code L_INT} or {@code L_FLOAT}, starting at {@code start} (which is
+   * either the first digit or a preceding minus sign at {@code digits - 1}).
+   */
+  private int number(int start, int digits) {
+    boolean negative = digits != start;
+    int end = skipDigits(digits);
+    int type = negative ? PapyrusLexer.L_INT : PapyrusLexer.L_UINT;
+    if (!negative
+        && charAt(digits) == '0'
+        && end == digits + 1
+        && (charAt(end) | 0x20) == 'x'
+        && isHexDigit(charAt(end + 1))) {
+      end += 2;
+      while (isHexDigit(charAt(end))) {
+        end++;
+      }
+    } else if (charAt(end) == '.' && isDigit(charAt(end + 1))) {
+      end = skipDigits(end + 1);
+      type = PapyrusLexer.L_FLOAT;
+    }
+    column += end - start;
+    position = end;
+    return type;
+  }
+
+  private int skipDigits(int index) {
+    while (isDigit(charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  /** Matches {@code ID} or, if the identifier is one, a keyword. */
+  private int identifier(int start) {
+    int end = start + 1;
+    while (isIdentifierPart(charAt(end))) {
+      end++;
+    }
+    int length = end - start;
+    column += length;
+    position = end;
+    if (length < 2 || length > MAXIMUM_KEYWORD_LENGTH) {
+      return PapyrusLexer.ID;
+    }
+    int hash = hash(charAt(end - 2), charAt(end - 1), length);
+    String keyword = KEYWORDS[hash];
+    if (keyword == null || keyword.length() != length) {
+      return PapyrusLexer.ID;
+    }
+    for (int i = 0; i < length; i++) {
+      // Every keyword is made up of letters, so folding non-letters can't cause a false match.
+      if ((charAt(start + i) | 0x20) != keyword.charAt(i)) {
+        return PapyrusLexer.ID;
+      }
+    }
+    return KEYWORD_TYPES[hash];
+  }
+
+  /**
+   * Matches {@code L_STRING}: {@code '"' (STRING_ESCAPE | .)*? '"'}.
+   *
+   * <p>The string ends at the first quote that isn't part of an escape sequence. If there isn't
+   * one, it ends at the last escaped quote instead (as its backslash can also match {@code .}).
+   */
+  private int string(int start) {
+    int lastQuote = -1;
+    int index = start + 1;
+    while (index < size) {
+      int c = charAt(index);
+      if (c == '"') {
+        advanceAcrossLines(index + 1);
+        return PapyrusLexer.L_STRING;
+      }
+      if (c == '\\') {
+        int escaped = charAt(index + 1);
+        if (escaped == 'n' || escaped == 't' || escaped == '\\' || escaped == '"') {
+          if (escaped == '"') {
+            lastQuote = index + 1;
+          }
+          index += 2;
+          continue;
+        }
+      }
+      index++;
+    }
+    if (lastQuote >= 0) {
+      advanceAcrossLines(lastQuote + 1);
+      return PapyrusLexer.L_STRING;
+    }
+    return error(start, size);
+  }
+
+  /**
+   * Skips {@code LINE_COMMENT} ({@code ';' ~[\n]*}) or, if it is longer, {@code BLOCK_COMMENT}
+   * ({@code ';/' .*? '/;'}).
+   */
+  private int comment(int start) {
+    int lineEnd = indexOf('\n', start + 1);
+    if (lineEnd < 0) {
+      lineEnd = size;
+    }
+    int end = lineEnd;
+    if (charAt(start + 1) == '/') {
+      // A block comment only wins if it is strictly longer, as LINE_COMMENT is defined first.
+      end = Math.max(end, blockCommentEnd(start + 2));
+    }
+    advanceAcrossLines(end);
+    return SKIP;
+  }
+
+  /** Returns the index just after the first {@code "/;"} at or after {@code from}, or -1. */
+  private int blockCommentEnd(int from) {
+    for (int index = indexOf('/', from); index >= 0; index = indexOf('/', index + 1)) {
+      if (charAt(index + 1) == ';') {
+        return index + 2;
+      }
+    }
+    return -1;
+  }
+
+  /** Skips {@code LINE_BREAK}: {@code '\\' [ \t]* '\r'? '\n'}. */
+  private int lineBreak(int start) {
+    int index = start + 1;
+    while (charAt(index) == ' ' || charAt(index) == '\t') {
+      index++;
+    }
+    if (charAt(index) == '\r') {
+      index++;
+    }
+    if (charAt(index) != '\n') {
+      return error(start, index);
+    }
+    advanceAcrossLines(index + 1);
+    return SKIP;
+  }
+
+  /**
+   * Reports that the text from {@code start} up to and including {@code failure} (where no token
+   * could be matched any further) isn't a token and skips it, as {@code Lexer} does.
+   */
+  private int error(int start, int failure) {
+    int stop = Math.min(failure, size - 1);
+    Token offendingToken =
+        factory.create(
+            source, Token.INVALID_TYPE, null, Token.DEFAULT_CHANNEL, start, stop, line, column);
+    String display = errorDisplay(input.getText(Interval.of(start, stop)));
+    String message = "token recognition error at: '" + display + "'";
+    errorListener.syntaxError(null, offendingToken, line, column, message, null);
+    advanceAcrossLines(Math.min(failure + 1, size));
+    return ERROR;
+  }
+
+  private static String errorDisplay(String text) {
+    StringBuilder display = new StringBuilder();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '\n' -> display.append("\\n");
+        case '\t' -> display.append("\\t");
+        case '\r' -> display.append("\\r");
+        default -> display.append(c);
+      }
+    }
+    return display.toString();
+  }
+
+  /** Advances to {@code end}, keeping track of any line terminators that are passed. */
+  private void advanceAcrossLines(int end) {
+    for (int index = position; index < end; index++) {
+      if (charAt(index) == '\n') {
+        line++;
+        column = 0;
+      } else {
+        column++;
+      }
+    }
+    position = end;
+  }
+
+  /** Returns the index of the first {@code c} at or after {@code from}, or -1 if there is none. */
+  private int indexOf(int c, int from) {
+    for (int index = from; index < size; index++) {
+      if (charAt(index) == c) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the character at {@code index}, or {@link CharStream#EOF} if it is out of bounds. */
+  private int charAt(int index) {
+    int offsetInWindow = index - windowStart;
+    if (offsetInWindow >= 0 && offsetInWindow < window.length) {
+      return window[offsetInWindow];
+    }
+    // Only reached by tokens that are longer than half of the window (see advance()).
+    if (index >= size) {
+      return CharStream.EOF;
+    }
+    slide(index);
+    return window[0];
+  }
+
+  /**
+   * Moves the window to start at {@code start}, reading whatever it didn't already hold out of the
+   * input.
+   */
+  private void slide(int start) {
+    int kept = 0;
+    if (start >= windowStart && start < windowStart + window.length) {
+      kept = windowStart + window.length - start;
+      System.arraycopy(window, start - windowStart, window, 0, kept);
+    }
+    windowStart = start;
+    for (int i = kept; i < window.length; i++) {
+      window[i] = input.LA(start + i + offset);
+    }
+  }
+
+  private static boolean isDigit(int c) {
+    return '0' <= c && c <= '9';
+  }
+
+  private static boolean isHexDigit(int c) {
+    return isDigit(c) || ('a' <= (c | 0x20) && (c | 0x20) <= 'f');
+  }
+
+  private static boolean isIdentifierStart(int c) {
+    return ('a' <= (c | 0x20) && (c | 0x20) <= 'z') || c == '_';
+  }
+
+  private static boolean isIdentifierPart(int c) {
+    return isIdentifierStart(c) || isDigit(c);
+  }
+
+  @Override
+  public int getLine() {
+    return line;
+  }
+
+  @Override
+  public int getCharPositionInLine() {
+    return column;
+  }
+
+  @Override
+  public CharStream getInputStream() {
+    return input;
+  }
+
+  @Override
+  public String getSourceName() {
+    return input.getSourceName();
+  }
+
+  @Override
+  public void setTokenFactory(TokenFactory<?> factory) {
+    this.factory = factory;
+  }
+
+  @Override
+  public TokenFactory<?> getTokenFactory() {
+    return factory;
+  }
+}
@@ -0,0 +1,341 @@
+package org.nullable.papyrology.grammar;
+
+import java.util.Arrays;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.RuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * Every token of a Papyrus script, stored as columns of {@code int} values rather than as one
+ * {@link Token} object per token.
+ *
+ * <p>The type, start and stop indices, line and column of every token are packed into parallel
+ * arrays, and the text of a token is only ever read out of the {@link CharStream} it was lexed
+ * from. A {@link Token} is only created (once) for a token that is actually asked for through
+ * {@link #get(int)} or the {@link #stream() TokenStream}, which {@code PapyrusParser} only does for
+ * tokens it matches; lookahead during prediction reads the {@code int} types directly.
+ *
+ * <p>The last token of a {@code TokenBuffer} is always {@link Token#EOF}.
+ *
+ * <p>NOTE: This class is <i>not</i> thread-safe in any state.
+ */
+public final class TokenBuffer {
+
+  private final PapyrusTokenizer tokenizer;
+  private final int size;
+  private final int[] types;
+  private final int[] startIndices;
+  private final int[] stopIndices;
+  private final int[] lines;
+  private final int[] columns;
+  private final BufferedToken[] tokens;
+
+  private TokenBuffer(
+      PapyrusTokenizer tokenizer,
+      int size,
+      int[] types,
+      int[] startIndices,
+      int[] stopIndices,
+      int[] lines,
+      int[] columns) {
+    this.tokenizer = tokenizer;
+    this.size = size;
+    this.types = types;
+    this.startIndices = startIndices;
+    this.stopIndices = stopIndices;
+    this.lines = lines;
+    this.columns = columns;
+    this.tokens = new BufferedToken[size];
+  }
+
+  /**
+   * Returns a new {@code TokenBuffer} holding every token (up to and including {@link Token#EOF})
+   * that the given {@link PapyrusTokenizer} has yet to produce.
+   */
+  public static TokenBuffer create(PapyrusTokenizer tokenizer) {
+    // Scripts average around four characters per token; overestimating is cheaper than growing.
+    int capacity = tokenizer.inputSize() / 3 + 16;
+    int[] types = new int[capacity];
+    int[] startIndices = new int[capacity];
+    int[] stopIndices = new int[capacity];
+    int[] lines = new int[capacity];
+    int[] columns = new int[capacity];
+    int size = 0;
+    int type;
+    do {
+      type = tokenizer.advance();
+      if (size == capacity) {
+        capacity += capacity >> 1;
+        types = Arrays.copyOf(types, capacity);
+        startIndices = Arrays.copyOf(startIndices, capacity);
+        stopIndices = Arrays.copyOf(stopIndices, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        columns = Arrays.copyOf(columns, capacity);
+      }
+      types[size] = type;
+      startIndices[size] = tokenizer.tokenStart();
+      stopIndices[size] = tokenizer.tokenEnd() - 1;
+      lines[size] = tokenizer.tokenLine();
+      columns[size] = tokenizer.tokenColumn();
+      size++;
+    } while (type != Token.EOF);
+    return new TokenBuffer(tokenizer, size, types, startIndices, stopIndices, lines, columns);
+  }
+
+  /** Returns the number of tokens in this buffer, including {@link Token#EOF}. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns the type of the token at the given {@code index}. */
+  public int type(int index) {
+    return types[index];
+  }
+
+  /** Returns the offset of the first character of the token at the given {@code index}. */
+  public int startIndex(int index) {
+    return startIndices[index];
+  }
+
+  /** Returns the offset of the last character of the token at the given {@code index}. */
+  public int stopIndex(int index) {
+    return stopIndices[index];
+  }
+
+  /** Returns the line of the token at the given {@code index}. */
+  public int line(int index) {
+    return lines[index];
+  }
+
+  /** Returns the column of the token at the given {@code index}. */
+  public int column(int index) {
+    return columns[index];
+  }
+
+  /** Returns the text of the token at the given {@code index}. */
+  public String text(int index) {
+    if (types[index] == Token.EOF) {
+      return "<EOF>";
+    }
+    return source().getText(Interval.of(startIndices[index], stopIndices[index]));
+  }
+
+  /** Returns the {@link CharStream} the tokens of this buffer were lexed from. */
+  public CharStream source() {
+    return tokenizer.getInputStream();
+  }
+
+  /** Returns the {@link Token} at the given {@code index}, creating it if necessary. */
+  public Token get(int index) {
+    BufferedToken token = tokens[index];
+    if (token == null) {
+      token = new BufferedToken(this, index);
+      tokens[index] = token;
+    }
+    return token;
+  }
+
+  /** Returns a new {@link TokenStream} over the tokens of this buffer, positioned at the first. */
+  public TokenStream stream() {
+    return new Stream(this);
+  }
+
+  /**
+   * A {@link Token} that is backed by a {@link TokenBuffer}, rather than holding its own state.
+   */
+  public static final class BufferedToken implements Token {
+    private final TokenBuffer buffer;
+    private final int index;
+
+    private BufferedToken(TokenBuffer buffer, int index) {
+      this.buffer = buffer;
+      this.index = index;
+    }
+
+    /** Returns the {@link TokenBuffer} that holds this token. */
+    public TokenBuffer buffer() {
+      return buffer;
+    }
+
+    @Override
+    public String getText() {
+      return buffer.text(index);
+    }
+
+    @Override
+    public int getType() {
+      return buffer.types[index];
+    }
+
+    @Override
+    public int getLine() {
+      return buffer.lines[index];
+    }
+
+    @Override
+    public int getCharPositionInLine() {
+      return buffer.columns[index];
+    }
+
+    @Override
+    public int getChannel() {
+      return Token.DEFAULT_CHANNEL;
+    }
+
+    @Override
+    public int getTokenIndex() {
+      return index;
+    }
+
+    @Override
+    public int getStartIndex() {
+      return buffer.startIndices[index];
+    }
+
+    @Override
+    public int getStopIndex() {
+      return buffer.stopIndices[index];
+    }
+
+    @Override
+    public TokenSource getTokenSource() {
+      return buffer.tokenizer;
+    }
+
+    @Override
+    public CharStream getInputStream() {
+      return buffer.source();
+    }
+
+    @Override
+    public String toString() {
+      // The same format as CommonToken#toString().
+      String text = getText().replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t");
+      return String.format(
+          "[@%d,%d:%d='%s',<%d>,%d:%d]",
+          index,
+          getStartIndex(),
+          getStopIndex(),
+          text,
+          getType(),
+          getLine(),
+          getCharPositionInLine());
+    }
+  }
+
+  /** A {@link TokenStream} over every token of a {@link TokenBuffer}. */
+  private static final class Stream implements TokenStream {
+    private final TokenBuffer buffer;
+    private int position;
+
+    Stream(TokenBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int LA(int i) {
+      int index = indexOf(i);
+      return index < 0 ? Token.INVALID_TYPE : buffer.types[index];
+    }
+
+    @Override
+    public Token LT(int k) {
+      int index = indexOf(k);
+      return index < 0 ? null : buffer.get(index);
+    }
+
+    /**
+     * Returns the index of the {@code i}-th token of lookahead (or lookbehind, if negative), or -1
+     * if there is no such token. Any lookahead past the end of the buffer yields {@code EOF}.
+     */
+    private int indexOf(int i) {
+      if (i == 0) {
+        return -1;
+      }
+      int index = i > 0 ? position + i - 1 : position + i;
+      if (index < 0) {
+        return -1;
+      }
+      return Math.min(index, buffer.size - 1);
+    }
+
+    @Override
+    public Token get(int index) {
+      return buffer.get(index);
+    }
+
+    @Override
+    public void consume() {
+      if (buffer.types[position] == Token.EOF) {
+        throw new IllegalStateException("cannot consume EOF");
+      }
+      position++;
+    }
+
+    @Override
+    public int mark() {
+      // Every token is already buffered, so there is nothing to hold on to.
+      return -1;
+    }
+
+    @Override
+    public void release(int marker) {}
+
+    @Override
+    public int index() {
+      return position;
+    }
+
+    @Override
+    public void seek(int index) {
+      position = Math.max(0, Math.min(index, buffer.size - 1));
+    }
+
+    @Override
+    public int size() {
+      return buffer.size;
+    }
+
+    @Override
+    public String getSourceName() {
+      return buffer.tokenizer.getSourceName();
+    }
+
+    @Override
+    public TokenSource getTokenSource() {
+      return buffer.tokenizer;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+      int start = Math.max(0, interval.a);
+      int stop = Math.min(interval.b, buffer.size - 1);
+      StringBuilder text = new StringBuilder();
+      for (int index = start; index <= stop && buffer.types[index] != Token.EOF; index++) {
+        text.append(buffer.text(index));
+      }
+      return text.toString();
+    }
+
+    @Override
+    public String getText() {
+      return getText(Interval.of(0, buffer.size - 1));
+    }
+
+    @Override
+    public String getText(RuleContext ctx) {
+      return getText(ctx.getSourceInterval());
+    }
+
+    @Override
+    public String getText(Token start, Token stop) {
+      if (start == null || stop == null) {
+        return "";
+      }
+      return getText(Interval.of(start.getTokenIndex(), stop.getTokenIndex()));
+    }
+  }
+}
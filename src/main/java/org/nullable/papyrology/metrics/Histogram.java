@@ -0,0 +1,134 @@
+package org.nullable.papyrology.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.MoreObjects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe histogram of non-negative {@code long} values (e.g. durations in nanoseconds).
+ *
+ * <p>Values are counted in log-linear buckets: every power of two is split into {@value
+ * #SUB_BUCKETS} equal buckets, so any reported percentile is within about 3% of the true value,
+ * regardless of magnitude. Recording a value is wait-free and never allocates.
+ *
+ * <p>Queries made while values are still being recorded are approximate, as they don't observe
+ * every bucket at the same instant.
+ */
+public final class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = SUB_BUCKETS * (Long.SIZE - SUB_BUCKET_BITS);
+
+  private final AtomicLongArray counts;
+  private final LongAdder count;
+  private final LongAdder sum;
+  private final LongAccumulator max;
+
+  private Histogram() {
+    this.counts = new AtomicLongArray(BUCKETS);
+    this.count = new LongAdder();
+    this.sum = new LongAdder();
+    this.max = new LongAccumulator(Math::max, 0);
+  }
+
+  /** Returns a new, empty {@code Histogram}. */
+  public static Histogram create() {
+    return new Histogram();
+  }
+
+  /** Records the given (non-negative) {@code value}. */
+  public void record(long value) {
+    checkArgument(value >= 0, "Histogram::record passed a negative value: %s", value);
+    counts.incrementAndGet(bucketOf(value));
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /** Returns the number of values recorded. */
+  public long count() {
+    return count.sum();
+  }
+
+  /** Returns the sum of every value recorded. */
+  public long sum() {
+    return sum.sum();
+  }
+
+  /** Returns the largest value recorded, or {@code 0} if there are none. */
+  public long max() {
+    return max.get();
+  }
+
+  /** Returns the mean of every value recorded, or {@code 0} if there are none. */
+  public double mean() {
+    long n = count();
+    return n == 0 ? 0 : (double) sum() / n;
+  }
+
+  /**
+   * Returns (an upper bound of) the value at the given {@code percentile} (between {@code 0} and
+   * {@code 100}) of every value recorded, or {@code 0} if there are none.
+   */
+  public long percentile(double percentile) {
+    checkArgument(
+        0 <= percentile && percentile <= 100,
+        "Histogram::percentile passed an invalid percentile: %s",
+        percentile);
+    long total = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(i), max());
+      }
+    }
+    return max();
+  }
+
+  /** Returns the index of the bucket that counts the given {@code value}. */
+  private static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int mantissa = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return SUB_BUCKETS * (shift + 1) + mantissa;
+  }
+
+  /** Returns the largest value that is counted by the bucket with the given {@code index}. */
+  private static long upperBoundOf(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long mantissa = index % SUB_BUCKETS;
+    long lowerBound = (SUB_BUCKETS + mantissa) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("Count", count())
+        .add("Mean", mean())
+        .add("P50", percentile(50))
+        .add("P99", percentile(99))
+        .add("Max", max())
+        .toString();
+  }
+}
@@ -0,0 +1,17 @@
+package org.nullable.papyrology.metrics;
+
+/** A phase of the pipeline that turns Papyrus source files into analyzed {@code Scripts}. */
+public enum Phase {
+  /** Reading a source file from disk. */
+  LOAD,
+  /** Splitting source code into tokens. */
+  LEX,
+  /** Building a parse tree from tokens. */
+  PARSE,
+  /** Building a {@code Script} AST from a parse tree. */
+  BUILD_AST,
+  /** Collecting the {@code Symbols} and {@code Scopes} of a {@code Script}. */
+  COLLECT_SYMBOLS,
+  /** Running static analyzers over a {@code Script}. */
+  ANALYZE,
+}
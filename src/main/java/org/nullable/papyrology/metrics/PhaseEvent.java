@@ -0,0 +1,42 @@
+package org.nullable.papyrology.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JDK Flight Recorder event for a single {@link Phase} of a single script.
+ *
+ * <p>Counts that don't apply to a {@code Phase} are left at zero. Events are created by {@link
+ * PhaseTimer} and cost next to nothing while no recording is running.
+ */
+@Name("org.nullable.papyrology.Phase")
+@Label("Papyrus Pipeline Phase")
+@Description("A phase of loading, parsing or analyzing a single Papyrus script")
+@Category({"Papyrology", "Pipeline"})
+@StackTrace(false)
+public final class PhaseEvent extends Event {
+
+  @Label("Phase")
+  String phase;
+
+  @Label("Script")
+  String script;
+
+  @Label("Size")
+  @DataAmount
+  long bytes;
+
+  @Label("Tokens")
+  long tokens;
+
+  @Label("Nodes")
+  long nodes;
+
+  @Label("Scopes")
+  long scopes;
+}
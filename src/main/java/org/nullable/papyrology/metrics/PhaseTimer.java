@@ -0,0 +1,81 @@
+package org.nullable.papyrology.metrics;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
+/**
+ * Times a single {@link Phase} of a single script, from its creation until it is closed.
+ *
+ * <p>On {@link #close()}, the duration is recorded in the {@link PipelineMetrics} that created this
+ * {@code PhaseTimer} and, if a JDK Flight Recorder recording is interested in it, a {@link
+ * PhaseEvent} (with any counts set) is committed.
+ *
+ * <p>NOTE: This class is <i>not</i> thread-safe; a {@code PhaseTimer} belongs to the thread that is
+ * running its {@code Phase}.
+ */
+public final class PhaseTimer implements AutoCloseable {
+  private final Histogram durations;
+  private final PhaseEvent event;
+  private final long start;
+
+  PhaseTimer(Histogram durations, Phase phase, String script) {
+    this.durations = durations;
+    this.event = new PhaseEvent();
+    event.phase = phase.name();
+    event.script = script;
+    event.begin();
+    this.start = System.nanoTime();
+  }
+
+  /**
+   * Returns whether a JDK Flight Recorder recording is capturing this {@code PhaseTimer}, i.e.
+   * whether counts that are expensive to compute are worth setting.
+   */
+  public boolean isRecording() {
+    return event.isEnabled();
+  }
+
+  /** Sets the name of the script, for when it isn't known until the {@link Phase} is underway. */
+  @CanIgnoreReturnValue
+  public PhaseTimer setScript(String script) {
+    event.script = script;
+    return this;
+  }
+
+  /** Sets the number of bytes (or characters) of source code that were processed. */
+  @CanIgnoreReturnValue
+  public PhaseTimer setBytes(long bytes) {
+    event.bytes = bytes;
+    return this;
+  }
+
+  /** Sets the number of tokens that were processed. */
+  @CanIgnoreReturnValue
+  public PhaseTimer setTokens(long tokens) {
+    event.tokens = tokens;
+    return this;
+  }
+
+  /** Sets the number of tree nodes that were processed. */
+  @CanIgnoreReturnValue
+  public PhaseTimer setNodes(long nodes) {
+    event.nodes = nodes;
+    return this;
+  }
+
+  /** Sets the number of scopes that were processed. */
+  @CanIgnoreReturnValue
+  public PhaseTimer setScopes(long scopes) {
+    event.scopes = scopes;
+    return this;
+  }
+
+  /** Stops timing, recording the duration and committing the {@link PhaseEvent} if needed. */
+  @Override
+  public void close() {
+    durations.record(System.nanoTime() - start);
+    event.end();
+    if (event.shouldCommit()) {
+      event.commit();
+    }
+  }
+}
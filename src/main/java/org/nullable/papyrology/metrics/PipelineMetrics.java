@@ -0,0 +1,91 @@
+package org.nullable.papyrology.metrics;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.errorprone.annotations.MustBeClosed;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A registry of how long each {@link Phase} of the pipeline takes, per script.
+ *
+ * <p>The pipeline itself (e.g. {@code FileSystemBasedSourceFileLoader}, {@code ScriptParser},
+ * {@code SymbolTable} and {@code ProjectAnalyzer}) reports to the {@link #global()} registry, so
+ * a run can be summarized with {@link #report()} once it is done, and profiled in detail (per
+ * script) by recording {@link PhaseEvent PhaseEvents} with JDK Flight Recorder.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class PipelineMetrics {
+
+  private static final PipelineMetrics GLOBAL = new PipelineMetrics();
+
+  private final ImmutableMap<Phase, Histogram> durations;
+
+  private PipelineMetrics() {
+    Map<Phase, Histogram> durations = new EnumMap<>(Phase.class);
+    for (Phase phase : Phase.values()) {
+      durations.put(phase, Histogram.create());
+    }
+    this.durations = Maps.immutableEnumMap(durations);
+  }
+
+  /** Returns the registry that the pipeline reports to. */
+  public static PipelineMetrics global() {
+    return GLOBAL;
+  }
+
+  /** Returns a new, empty {@code PipelineMetrics} registry. */
+  public static PipelineMetrics create() {
+    return new PipelineMetrics();
+  }
+
+  /**
+   * Returns a {@link PhaseTimer} that times the given {@link Phase} of the script with the given
+   * {@code name} until it is closed.
+   */
+  @MustBeClosed
+  public PhaseTimer start(Phase phase, String script) {
+    return new PhaseTimer(durations.get(phase), phase, script);
+  }
+
+  /** Returns the {@link Histogram} of the durations (in nanoseconds) of the given {@link Phase}. */
+  public Histogram durations(Phase phase) {
+    return durations.get(phase);
+  }
+
+  /**
+   * Returns a human-readable summary of every {@link Phase} that has been timed: how many times,
+   * for how long in total and the distribution of the individual durations.
+   */
+  public String report() {
+    StringBuilder report =
+        new StringBuilder(
+            String.format(
+                "%-16s %8s %10s %10s %10s %10s %10s%n",
+                "Phase", "Count", "Total ms", "P50 us", "P90 us", "P99 us", "Max us"));
+    for (Phase phase : Phase.values()) {
+      Histogram histogram = durations.get(phase);
+      if (histogram.count() == 0) {
+        continue;
+      }
+      report.append(
+          String.format(
+              "%-16s %8d %10d %10d %10d %10d %10d%n",
+              phase,
+              histogram.count(),
+              TimeUnit.NANOSECONDS.toMillis(histogram.sum()),
+              TimeUnit.NANOSECONDS.toMicros(histogram.percentile(50)),
+              TimeUnit.NANOSECONDS.toMicros(histogram.percentile(90)),
+              TimeUnit.NANOSECONDS.toMicros(histogram.percentile(99)),
+              TimeUnit.NANOSECONDS.toMicros(histogram.max())));
+    }
+    return report.toString();
+  }
+
+  @Override
+  public String toString() {
+    return report();
+  }
+}
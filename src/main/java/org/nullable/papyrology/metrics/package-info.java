@@ -0,0 +1,12 @@
+/**
+ * Instrumentation of the phases of the Papyrus pipeline (loading, lexing, parsing, AST
+ * construction, symbol collection and analysis).
+ *
+ * <p>Every phase of every script is timed into an in-process {@link
+ * org.nullable.papyrology.metrics.PipelineMetrics} registry and, while a JDK Flight Recorder
+ * recording is running, emitted as a {@link org.nullable.papyrology.metrics.PhaseEvent}.
+ */
+@CheckReturnValue
+package org.nullable.papyrology.metrics;
+
+import com.google.errorprone.annotations.CheckReturnValue;
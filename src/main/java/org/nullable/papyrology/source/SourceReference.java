@@ -1,40 +1,143 @@
 package org.nullable.papyrology.source;
 
 import com.google.errorprone.annotations.Immutable;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
 import org.antlr.v4.runtime.tree.TerminalNode;
+import org.nullable.papyrology.grammar.TokenBuffer;
+import org.nullable.papyrology.grammar.TokenBuffer.BufferedToken;
 
-/** A reference to a particular segment of source code. */
+/**
+ * A reference to a particular segment of source code.
+ *
+ * <p>A {@code SourceReference} only holds the character offsets of its segment within the {@link
+ * CharStream} it was lexed from; that {@code CharStream} is shared by every reference into the same
+ * source and the text of the segment is only materialized when {@link #getText()} is called.
+ */
 @Immutable
 public final class SourceReference {
 
-  private final String text;
+  @SuppressWarnings("Immutable") // A CharStream's content is never modified once it is lexed.
+  private final CharStream source;
+
+  private final int startIndex;
+  private final int stopIndex;
   private final int line;
   private final int column;
 
-  private SourceReference(String text, int line, int column) {
-    this.text = text;
+  private SourceReference(CharStream source, int startIndex, int stopIndex, int line, int column) {
+    this.source = source;
+    this.startIndex = startIndex;
+    this.stopIndex = stopIndex;
     this.line = line;
     this.column = column;
   }
 
   /** Returns a new {@code SourceReference} based on the given {@link TerminalNode}. */
   public static SourceReference create(TerminalNode node) {
+    return create(node.getSymbol());
+  }
+
+  /** Returns a new {@code SourceReference} based on the given {@link Token}. */
+  public static SourceReference create(Token token) {
+    if (token instanceof BufferedToken buffered) {
+      return create(buffered.buffer(), token.getTokenIndex(), token.getTokenIndex());
+    }
     return new SourceReference(
-        node.getSymbol().getText(),
-        node.getSymbol().getLine(),
-        node.getSymbol().getCharPositionInLine());
+        token.getInputStream(),
+        token.getStartIndex(),
+        token.getStopIndex(),
+        token.getLine(),
+        token.getCharPositionInLine());
+  }
+
+  /**
+   * Returns a new {@code SourceReference} spanning from the given {@code start} {@link Token} up to
+   * and including the given {@code stop} {@code Token}.
+   */
+  public static SourceReference create(Token start, Token stop) {
+    if (start instanceof BufferedToken buffered && stop instanceof BufferedToken) {
+      return create(buffered.buffer(), start.getTokenIndex(), stop.getTokenIndex());
+    }
+    return new SourceReference(
+        start.getInputStream(),
+        start.getStartIndex(),
+        Math.max(stop.getStopIndex(), start.getStartIndex() - 1),
+        start.getLine(),
+        start.getCharPositionInLine());
   }
 
   /** Returns a new {@code SourceReference} based on the given {@link ParserRuleContext}. */
   public static SourceReference create(ParserRuleContext ctx) {
+    Token start = ctx.getStart();
+    Token stop = ctx.getStop();
+    if (start instanceof BufferedToken buffered
+        && (stop == null || stop instanceof BufferedToken)) {
+      int stopToken = stop != null ? stop.getTokenIndex() : start.getTokenIndex() - 1;
+      return create(buffered.buffer(), start.getTokenIndex(), stopToken);
+    }
+    // Rules that match no tokens (e.g. empty blocks) have a stop token that precedes their start.
+    int stopIndex =
+        stop != null && stop.getStopIndex() >= start.getStartIndex()
+            ? stop.getStopIndex()
+            : start.getStartIndex() - 1;
+    return new SourceReference(
+        start.getInputStream(),
+        start.getStartIndex(),
+        stopIndex,
+        start.getLine(),
+        start.getCharPositionInLine());
+  }
+
+  /**
+   * Returns a new {@code SourceReference} spanning the tokens of the given {@link TokenBuffer}
+   * between {@code startToken} and {@code stopToken} (both inclusive), read directly from its
+   * columns.
+   */
+  private static SourceReference create(TokenBuffer buffer, int startToken, int stopToken) {
+    int startIndex = buffer.startIndex(startToken);
+    // Rules that match no tokens (e.g. empty blocks) have a stop token that precedes their start.
+    int stopIndex =
+        stopToken >= 0 && buffer.stopIndex(stopToken) >= startIndex
+            ? buffer.stopIndex(stopToken)
+            : startIndex - 1;
     return new SourceReference(
-        ctx.getText(), ctx.getStart().getLine(), ctx.getStart().getCharPositionInLine());
+        buffer.source(), startIndex, stopIndex, buffer.line(startToken), buffer.column(startToken));
+  }
+
+  /**
+   * Returns a new {@code SourceReference} to the segment of the given {@link CharStream} between
+   * {@code startIndex} and {@code stopIndex} (both inclusive), which starts at the given {@code
+   * line} and {@code column}.
+   */
+  public static SourceReference create(
+      CharStream source, int startIndex, int stopIndex, int line, int column) {
+    return new SourceReference(source, startIndex, stopIndex, line, column);
   }
 
   /** Returns the text of this source segment. */
   public String getText() {
-    return text;
+    if (source == null || stopIndex < startIndex) {
+      return "";
+    }
+    return source.getText(Interval.of(startIndex, stopIndex));
+  }
+
+  /** Returns the name of the source (e.g. the file name) this segment belongs to, if known. */
+  public String getSourceName() {
+    return source != null ? source.getSourceName() : CharStream.UNKNOWN_SOURCE_NAME;
+  }
+
+  /** Returns the offset of the first character of this segment in its source. */
+  public int getStartIndex() {
+    return startIndex;
+  }
+
+  /** Returns the offset of the last character of this segment in its source. */
+  public int getStopIndex() {
+    return stopIndex;
   }
 
   /** Returns the line in the source file where this segment starts. */
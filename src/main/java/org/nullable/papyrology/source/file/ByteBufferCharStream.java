@@ -0,0 +1,132 @@
+package org.nullable.papyrology.source.file;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+import java.nio.ByteBuffer;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A {@link CharStream} that reads single-byte encoded (i.e. ISO-8859-1) characters directly out of
+ * a {@link ByteBuffer}, typically one that is memory-mapped.
+ *
+ * <p>Papyrus sources are plain ASCII in practice, so no decoding takes place: every byte is one
+ * character. Any bytes outside of the ASCII range (which can only legally appear in comments and
+ * string literals) are read as their ISO-8859-1 characters. A leading UTF-8 byte order mark is
+ * skipped.
+ *
+ * <p>The {@code ByteBuffer} is only ever accessed with absolute reads, so it can be shared, but the
+ * position of a {@code ByteBufferCharStream} is not thread-safe (as with every {@code CharStream}).
+ */
+public final class ByteBufferCharStream implements CharStream {
+
+  private static final byte[] UTF_8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+  private final ByteBuffer buffer;
+  private final int size;
+  private final String sourceName;
+  private int position;
+
+  private ByteBufferCharStream(ByteBuffer buffer, String sourceName) {
+    this.buffer = buffer;
+    this.size = buffer.limit();
+    this.sourceName = sourceName;
+    this.position = 0;
+  }
+
+  /**
+   * Returns a new {@code ByteBufferCharStream} over the remaining content of the given {@link
+   * ByteBuffer}.
+   */
+  public static ByteBufferCharStream create(ByteBuffer buffer, String sourceName) {
+    ByteBuffer content = buffer.slice();
+    if (startsWithBom(content)) {
+      content = content.slice(UTF_8_BOM.length, content.limit() - UTF_8_BOM.length);
+    }
+    return new ByteBufferCharStream(content, sourceName);
+  }
+
+  private static boolean startsWithBom(ByteBuffer buffer) {
+    if (buffer.limit() < UTF_8_BOM.length) {
+      return false;
+    }
+    for (int i = 0; i < UTF_8_BOM.length; i++) {
+      if (buffer.get(i) != UTF_8_BOM[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void consume() {
+    if (position >= size) {
+      throw new IllegalStateException("cannot consume EOF");
+    }
+    position++;
+  }
+
+  @Override
+  public int LA(int i) {
+    int index;
+    if (i > 0) {
+      index = position + i - 1;
+    } else if (i < 0) {
+      index = position + i;
+    } else {
+      // LA(0) is undefined.
+      return 0;
+    }
+    if (index < 0 || index >= size) {
+      return IntStream.EOF;
+    }
+    return buffer.get(index) & 0xFF;
+  }
+
+  @Override
+  public int mark() {
+    // The whole buffer is always available, so marks are never needed.
+    return -1;
+  }
+
+  @Override
+  public void release(int marker) {}
+
+  @Override
+  public int index() {
+    return position;
+  }
+
+  @Override
+  public void seek(int index) {
+    position = index;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String getSourceName() {
+    return sourceName == null || sourceName.isEmpty() ? UNKNOWN_SOURCE_NAME : sourceName;
+  }
+
+  @Override
+  public String getText(Interval interval) {
+    int start = Math.min(interval.a, size);
+    int length = Math.min(interval.b - interval.a + 1, size - start);
+    if (length <= 0) {
+      return "";
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(start, bytes);
+    return new String(bytes, ISO_8859_1);
+  }
+
+  @Override
+  public String toString() {
+    return getText(Interval.of(0, size - 1));
+  }
+}
@@ -0,0 +1,109 @@
+package org.nullable.papyrology.source.file;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * A {@link SourceFileLoader} that caches the {@link SourceFile SourceFiles} loaded by another
+ * {@code SourceFileLoader}.
+ *
+ * <p>The cache is bounded by the (approximate) number of bytes held by the content of its {@code
+ * SourceFiles}; the least recently used ones are evicted first once that budget is exceeded. A
+ * cached {@code SourceFile} is only returned if the last modified time and size of its file still
+ * match the ones observed when it was loaded, otherwise it is loaded again.
+ *
+ * <p>The file can only be stat'ed after it has been loaded (its path isn't known before), so a
+ * change made while it was being read could go unnoticed. {@code SourceFiles} whose files were
+ * modified during (or after) the second in which their loading started are thus never cached, and
+ * are loaded again until their files have settled.
+ *
+ * <p>This class is thread-safe if the {@code SourceFileLoader} it decorates is.
+ */
+public final class CachingSourceFileLoader implements SourceFileLoader {
+
+  private final SourceFileLoader delegate;
+  private final Cache<String, Entry> cache;
+
+  private CachingSourceFileLoader(SourceFileLoader delegate, Cache<String, Entry> cache) {
+    this.delegate = delegate;
+    this.cache = cache;
+  }
+
+  /**
+   * Returns a new {@code CachingSourceFileLoader} that decorates the given {@link SourceFileLoader}
+   * and holds at most (approximately) {@code maximumBytes} of source code.
+   */
+  public static CachingSourceFileLoader create(SourceFileLoader delegate, long maximumBytes) {
+    checkArgument(maximumBytes >= 0, "CachingSourceFileLoader::create passed a negative budget.");
+    Cache<String, Entry> cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((String identifier, Entry entry) -> entry.weight())
+            .recordStats()
+            .build();
+    return new CachingSourceFileLoader(delegate, cache);
+  }
+
+  @Override
+  public SourceFile load(String identifier) {
+    String key = identifier.toUpperCase(Locale.US);
+    Entry entry = cache.getIfPresent(key);
+    if (entry != null && entry.isCurrent()) {
+      return entry.sourceFile();
+    }
+    // Truncated, as file systems may only record modification times to the second.
+    Instant started = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    SourceFile sourceFile = delegate.load(identifier);
+    Stamp stamp = Stamp.of(sourceFile.getPath());
+    if (stamp != null && stamp.lastModifiedTime().toInstant().isBefore(started)) {
+      cache.put(key, new Entry(sourceFile, stamp));
+    }
+    return sourceFile;
+  }
+
+  /** Discards every cached {@link SourceFile}. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /** Returns the statistics of the underlying cache. */
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  /** A cached {@link SourceFile}, and the {@link Stamp} of its file when it was loaded. */
+  private record Entry(SourceFile sourceFile, Stamp stamp) {
+    boolean isCurrent() {
+      return stamp.equals(Stamp.of(sourceFile.getPath()));
+    }
+
+    int weight() {
+      // Java strings hold (at most) two bytes per character.
+      return (int) Math.min(Integer.MAX_VALUE, 2L * sourceFile.getContent().length());
+    }
+  }
+
+  /** The attributes of a file that are used to detect that it changed. */
+  private record Stamp(FileTime lastModifiedTime, long size) {
+    /** Returns the current {@code Stamp} of the given file, or {@code null} if it is unreadable. */
+    static Stamp of(Path path) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new Stamp(attributes.lastModifiedTime(), attributes.size());
+      } catch (IOException e) {
+        return null;
+      }
+    }
+  }
+}
@@ -1,23 +1,63 @@
 package org.nullable.papyrology.source.file;
 
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.ListMultimap;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Stream;
+import org.antlr.v4.runtime.CharStream;
+import org.nullable.papyrology.metrics.Phase;
+import org.nullable.papyrology.metrics.PhaseTimer;
+import org.nullable.papyrology.metrics.PipelineMetrics;
 
-/** A {@link SourceFileLoader} that is backed by a {@link FileSystem}. */
+/**
+ * A {@link SourceFileLoader} that is backed by a {@link FileSystem}.
+ *
+ * <p>A loader can be backed by several root directories, ordered from highest to lowest
+ * precedence. When more than one root contains a script with the same identifier, the script in the
+ * root with the highest precedence wins and the others are shadowed (see {@link #locate(String)}
+ * and {@link #collisions()}). Within a single root, the script whose path relative to the root
+ * comes first (comparing the names of its directories and file in turn) wins.
+ *
+ * <p>Roots are indexed in the background, in parallel. Lookups only wait for as many roots as they
+ * need to: a script found in the first root is returned as soon as it has been discovered, while a
+ * script that isn't in the first root waits for that root to be fully indexed before moving on to
+ * the next one.
+ *
+ * <p>This class is thread-safe.
+ */
 public final class FileSystemBasedSourceFileLoader implements SourceFileLoader {
 
-  private final ImmutableMap<String, Path> identifiersToPaths;
+  private final ImmutableList<RootIndex> roots;
 
-  private FileSystemBasedSourceFileLoader(ImmutableMap<String, Path> identifiersToPaths) {
-    this.identifiersToPaths = identifiersToPaths;
+  private FileSystemBasedSourceFileLoader(ImmutableList<RootIndex> roots) {
+    this.roots = roots;
   }
 
   /**
@@ -28,38 +68,257 @@ public final class FileSystemBasedSourceFileLoader implements SourceFileLoader {
    * (without loading their content).
    */
   public static FileSystemBasedSourceFileLoader create(FileSystem fileSystem, String directory) {
-    PathMatcher sourceFileMatcher = fileSystem.getPathMatcher(PATH_MATCHER_PATTERN);
-    ImmutableMap<String, Path> identifiersToPaths;
-    try (Stream<Path> paths = Files.walk(fileSystem.getPath(directory), /* maxDepth= */ 1)) {
-      identifiersToPaths =
-          paths
-              .filter(Files::isRegularFile)
-              .filter(sourceFileMatcher::matches)
-              .collect(toImmutableMap(p -> toIdentifier(p), p -> p));
-    } catch (IOException e) {
-      throw new SourceFileLoadException(e, "Failed to enumerate .psc files in \"%s\"", directory);
+    RootIndex root = new RootIndex(fileSystem.getPath(directory));
+    try {
+      root.index(/* maxDepth= */ 1);
+    } catch (UncheckedIOException e) {
+      throw new SourceFileLoadException(
+          e.getCause(), "Failed to enumerate .psc files in \"%s\"", directory);
     }
-    return new FileSystemBasedSourceFileLoader(identifiersToPaths);
+    root.indexed.complete(null);
+    return new FileSystemBasedSourceFileLoader(ImmutableList.of(root));
+  }
+
+  /**
+   * Returns a new {@code FileSystemBasedSourceFileLoader} based on the given {@link FileSystem} and
+   * {@code roots} (ordered from highest to lowest precedence).
+   *
+   * <p>Each root is walked recursively on its own virtual thread; this method returns immediately.
+   */
+  public static FileSystemBasedSourceFileLoader create(FileSystem fileSystem, List<String> roots) {
+    return create(fileSystem, roots, task -> Thread.ofVirtual().start(task));
+  }
+
+  /**
+   * Returns a new {@code FileSystemBasedSourceFileLoader} based on the given {@link FileSystem} and
+   * {@code roots} (ordered from highest to lowest precedence), indexing each root on the given
+   * {@link Executor}.
+   */
+  public static FileSystemBasedSourceFileLoader create(
+      FileSystem fileSystem, List<String> roots, Executor executor) {
+    checkArgument(!roots.isEmpty(), "FileSystemBasedSourceFileLoader::create passed no roots.");
+    ImmutableList<RootIndex> indices =
+        roots.stream().map(fileSystem::getPath).map(RootIndex::new).collect(toImmutableList());
+    for (RootIndex root : indices) {
+      // Lookups block on each root's future, so it must be completed no matter how indexing ends.
+      try {
+        executor.execute(
+            () -> {
+              try {
+                root.index(Integer.MAX_VALUE);
+                root.indexed.complete(null);
+              } catch (Throwable t) {
+                root.indexed.completeExceptionally(t);
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        root.indexed.completeExceptionally(e);
+      }
+    }
+    return new FileSystemBasedSourceFileLoader(indices);
   }
 
   private static final String PATH_MATCHER_PATTERN = "glob:**.psc";
 
   private static String toIdentifier(Path path) {
     String fileName = path.getFileName().toString();
-    // All file names are guaranteed to end in ".psc" due to the filter above.
+    // All file names are guaranteed to end in ".psc" due to the filter in RootIndex::index.
     return fileName.substring(0, fileName.length() - 4).toUpperCase(Locale.US);
   }
 
   @Override
   public SourceFile load(String identifier) {
-    Path path = identifiersToPaths.get(identifier.toUpperCase(Locale.US));
-    if (path == null) {
-      throw new SourceFileLoadException("Could not locate a script with name \"%s\"", identifier);
+    try (PhaseTimer timer = PipelineMetrics.global().start(Phase.LOAD, identifier)) {
+      Path path = locate(identifier).getPath();
+      String content;
+      try {
+        content = Files.readString(path);
+      } catch (IOException e) {
+        throw new SourceFileLoadException(e, "Failed to load script at \"%s\"", path);
+      }
+      timer.setBytes(content.length());
+      return SourceFile.builder().setPath(path).setContent(content).build();
     }
-    try {
-      return SourceFile.builder().setPath(path).setContent(Files.readString(path)).build();
-    } catch (IOException e) {
-      throw new SourceFileLoadException(e, "Failed to load script at \"%s\"", path);
+  }
+
+  /**
+   * Opens the script with the given {@code identifier} as a {@link CharStream}, without decoding or
+   * copying its content.
+   *
+   * <p>The file is memory-mapped when the {@link FileSystem} supports it (and read into a heap
+   * buffer otherwise); see {@link ByteBufferCharStream} for how its bytes are interpreted.
+   *
+   * @throws SourceFileLoadException if the script is unable to be located or opened.
+   */
+  public CharStream open(String identifier) {
+    try (PhaseTimer timer = PipelineMetrics.global().start(Phase.LOAD, identifier)) {
+      Path path = locate(identifier).getPath();
+      ByteBuffer buffer;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      } catch (UnsupportedOperationException e) {
+        // Not every FileSystem (e.g. an in-memory one) supports memory-mapping.
+        try {
+          buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException ioe) {
+          throw new SourceFileLoadException(ioe, "Failed to load script at \"%s\"", path);
+        }
+      } catch (IOException e) {
+        throw new SourceFileLoadException(e, "Failed to load script at \"%s\"", path);
+      }
+      timer.setBytes(buffer.remaining());
+      return ByteBufferCharStream.create(buffer, path.toString());
+    }
+  }
+
+  /**
+   * Returns the {@link Location} of the script with the given {@code identifier}, i.e. the one in
+   * the root with the highest precedence.
+   *
+   * @throws SourceFileLoadException if no root contains such a script.
+   */
+  public Location locate(String identifier) {
+    String key = identifier.toUpperCase(Locale.US);
+    for (RootIndex root : roots) {
+      Path path = root.pathsByIdentifier.get(key);
+      if (path == null) {
+        // This root may still discover the script, and it shadows every root after it.
+        root.await();
+        path = root.pathsByIdentifier.get(key);
+      }
+      if (path != null) {
+        return Location.create(root.root, path);
+      }
+    }
+    throw new SourceFileLoadException("Could not locate a script with name \"%s\"", identifier);
+  }
+
+  /**
+   * Returns the (upper case) identifier of every script in any root, in sorted order.
+   *
+   * <p>This waits for every root to be fully indexed.
+   */
+  public ImmutableSortedSet<String> identifiers() {
+    ImmutableSortedSet.Builder<String> identifiers = ImmutableSortedSet.naturalOrder();
+    for (RootIndex root : roots) {
+      root.await();
+      identifiers.addAll(root.pathsByIdentifier.keySet());
+    }
+    return identifiers.build();
+  }
+
+  /**
+   * Returns every identifier that is defined more than once (by several roots, or several times
+   * within a root), mapped to all of its {@link Location Locations} ordered by precedence (i.e. the
+   * first {@code Location} is the one that won).
+   *
+   * <p>This waits for every root to be fully indexed.
+   */
+  public ImmutableMap<String, ImmutableList<Location>> collisions() {
+    ImmutableMap.Builder<String, ImmutableList<Location>> collisions = ImmutableMap.builder();
+    for (String identifier : identifiers()) {
+      ImmutableList.Builder<Location> locations = ImmutableList.builder();
+      for (RootIndex root : roots) {
+        Path path = root.pathsByIdentifier.get(identifier);
+        if (path != null) {
+          locations.add(Location.create(root.root, path));
+          for (Path shadowed : root.shadowedPaths.get(identifier)) {
+            locations.add(Location.create(root.root, shadowed));
+          }
+        }
+      }
+      ImmutableList<Location> built = locations.build();
+      if (built.size() > 1) {
+        collisions.put(identifier, built);
+      }
+    }
+    return collisions.buildOrThrow();
+  }
+
+  /** Returns a future that completes once every root has been fully indexed. */
+  public CompletableFuture<Void> indexed() {
+    return CompletableFuture.allOf(
+        roots.stream().map(root -> root.indexed).toArray(CompletableFuture<?>[]::new));
+  }
+
+  /** The location of a script: the root it was found in, and its full path. */
+  @AutoValue
+  public abstract static class Location {
+
+    /** Returns the root directory that contains the script. */
+    public abstract Path getRoot();
+
+    /** Returns the full path of the script. */
+    public abstract Path getPath();
+
+    static Location create(Path root, Path path) {
+      return new AutoValue_FileSystemBasedSourceFileLoader_Location(root, path);
+    }
+  }
+
+  /** The (possibly incomplete) index of all .psc files under a single root directory. */
+  private static final class RootIndex {
+    private static final Comparator<Path> BY_NAME =
+        Comparator.comparing(path -> path.getFileName().toString());
+
+    private final Path root;
+    private final ConcurrentMap<String, Path> pathsByIdentifier;
+
+    /**
+     * The scripts that lost to another one in {@link #pathsByIdentifier}, in order. This is only
+     * written while indexing, and must only be read once {@link #indexed} has completed.
+     */
+    private final ListMultimap<String, Path> shadowedPaths;
+
+    private final CompletableFuture<Void> indexed;
+
+    private RootIndex(Path root) {
+      this.root = root;
+      this.pathsByIdentifier = new ConcurrentHashMap<>();
+      this.shadowedPaths = ArrayListMultimap.create();
+      this.indexed = new CompletableFuture<>();
+    }
+
+    /**
+     * Walks the root (at most {@code maxDepth} directories deep), publishing every .psc file as
+     * soon as it is discovered. The entries of every directory are walked in order of their names,
+     * so if the root contains several scripts with the same identifier, the first one discovered is
+     * always the same one, and it wins.
+     */
+    private void index(int maxDepth) {
+      PathMatcher sourceFileMatcher = root.getFileSystem().getPathMatcher(PATH_MATCHER_PATTERN);
+      Deque<Path> paths = new ArrayDeque<>();
+      paths.push(root);
+      try {
+        while (!paths.isEmpty()) {
+          Path path = paths.pop();
+          if (path == root
+              || (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)
+                  && root.relativize(path).getNameCount() < maxDepth)) {
+            try (Stream<Path> children = Files.list(path)) {
+              // Pushed in reverse, so that they are popped in order.
+              children.sorted(BY_NAME.reversed()).forEachOrdered(paths::push);
+            }
+          } else if (Files.isRegularFile(path) && sourceFileMatcher.matches(path)) {
+            String identifier = toIdentifier(path);
+            if (pathsByIdentifier.putIfAbsent(identifier, path) != null) {
+              shadowedPaths.put(identifier, path);
+            }
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /** Blocks until this root has been fully indexed. */
+    private void await() {
+      try {
+        indexed.join();
+      } catch (CompletionException e) {
+        throw new SourceFileLoadException(
+            e.getCause(), "Failed to enumerate .psc files in \"%s\"", root);
+      }
     }
   }
 }
@@ -0,0 +1,87 @@
+package org.nullable.papyrology.analysis;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.analysis.StaticAnalyzer.Issue;
+import org.nullable.papyrology.ast.Function;
+import org.nullable.papyrology.ast.IntegerLiteral;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.ast.WalkingVisitor.Walker;
+
+@RunWith(JUnit4.class)
+public class FusedStaticAnalyzerTest {
+
+  private static final WalkingStaticAnalyzer FUNCTIONS =
+      issues ->
+          new Walker() {
+            @Override
+            protected void enter(Function function) {
+              issues.accept(
+                  Issue.error(
+                      function.sourceReference(), "Function %s", function.identifier().value()));
+            }
+          };
+
+  private static final WalkingStaticAnalyzer LITERALS =
+      issues ->
+          new Walker() {
+            @Override
+            protected void touch(IntegerLiteral integerLiteral) {
+              issues.accept(
+                  Issue.warning(
+                      integerLiteral.sourceReference(), "Literal %d", integerLiteral.value()));
+            }
+          };
+
+  private final Script script =
+      ScriptParser.create()
+          .parse(
+              String.join(
+                  "\n",
+                  "ScriptName Fused",
+                  "Int Function Foo()",
+                  "  Return 1",
+                  "EndFunction",
+                  "Int Function Bar()",
+                  "  Return 2",
+                  "EndFunction",
+                  ""));
+
+  @Test
+  public void analyze_reportsIssuesOfEveryAnalyzerInTraversalOrder() {
+    ImmutableList<Issue> issues =
+        FusedStaticAnalyzer.create(ImmutableList.of(FUNCTIONS, LITERALS)).analyze(script);
+
+    assertThat(messages(issues))
+        .containsExactly("Function Foo", "Literal 1", "Function Bar", "Literal 2")
+        .inOrder();
+  }
+
+  @Test
+  public void analyze_matchesSequentialAnalysis() {
+    ImmutableList<Issue> fused =
+        FusedStaticAnalyzer.create(ImmutableList.of(FUNCTIONS, LITERALS)).analyze(script);
+
+    assertThat(fused)
+        .containsExactlyElementsIn(
+            ImmutableList.<Issue>builder()
+                .addAll(FUNCTIONS.analyze(script))
+                .addAll(LITERALS.analyze(script))
+                .build());
+  }
+
+  @Test
+  public void analyze_withoutAnalyzers_reportsNothing() {
+    assertThat(FusedStaticAnalyzer.create(ImmutableList.of()).analyze(script)).isEmpty();
+  }
+
+  private static ImmutableList<String> messages(ImmutableList<Issue> issues) {
+    return issues.stream().map(Issue::getMessage).collect(toImmutableList());
+  }
+}
@@ -0,0 +1,116 @@
+package org.nullable.papyrology.analysis;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.analysis.StaticAnalyzer.Issue;
+import org.nullable.papyrology.ast.Function;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.ast.WalkingVisitor.Walker;
+import org.nullable.papyrology.source.file.FileSystemBasedSourceFileLoader;
+import org.nullable.papyrology.source.file.SourceFileLoadException;
+
+@RunWith(JUnit4.class)
+public class ProjectAnalyzerTest {
+
+  private static final WalkingStaticAnalyzer FUNCTIONS =
+      issues ->
+          new Walker() {
+            @Override
+            protected void enter(Function function) {
+              issues.accept(
+                  Issue.warning(
+                      function.identifier().sourceReference(),
+                      "Function %s",
+                      function.identifier().value()));
+            }
+          };
+
+  private FileSystemBasedSourceFileLoader loader;
+
+  @Before
+  public void setUp() throws IOException {
+    FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    Path root = fs.getPath("/scripts");
+    Files.createDirectories(root);
+    for (int i = 0; i < 20; i++) {
+      Files.writeString(
+          root.resolve(String.format("Script%02d.psc", i)),
+          String.format(
+              "ScriptName Script%02d\n%s\n%s\n",
+              i,
+              "Function Beta()\nEndFunction",
+              "Function Alpha()\nEndFunction"),
+          UTF_8);
+    }
+    Files.writeString(root.resolve("Broken.psc"), "ScriptName Broken\nFunction\n", UTF_8);
+    loader = FileSystemBasedSourceFileLoader.create(fs, "/scripts");
+  }
+
+  @Test
+  public void analyze_reportsSortedIssuesOfEveryScript() {
+    ImmutableList<Issue> issues =
+        ProjectAnalyzer.create(loader, ScriptParser.create(), ImmutableList.of(FUNCTIONS))
+            .analyze(loader.identifiers());
+
+    assertThat(issues).hasSize(41);
+    assertThat(issues.get(0).getSourceReference().getSourceName()).isEqualTo("/scripts/Broken.psc");
+    assertThat(issues.get(0).getCategory()).isEqualTo(Issue.Category.ERROR);
+    assertThat(messages(issues.subList(1, 5)))
+        .containsExactly("Function Beta", "Function Alpha", "Function Beta", "Function Alpha")
+        .inOrder();
+    assertThat(issues.get(40).getSourceReference().getSourceName())
+        .isEqualTo("/scripts/Script19.psc");
+  }
+
+  @Test
+  public void analyze_isIndependentOfParallelism() {
+    ImmutableList<Issue> sequential =
+        ProjectAnalyzer.create(loader, ScriptParser.create(), ImmutableList.of(FUNCTIONS), 1)
+            .analyze(loader.identifiers());
+    ImmutableList<Issue> parallel =
+        ProjectAnalyzer.create(loader, ScriptParser.create(), ImmutableList.of(FUNCTIONS), 8)
+            .analyze(loader.identifiers());
+
+    assertThat(describe(parallel)).containsExactlyElementsIn(describe(sequential)).inOrder();
+  }
+
+  @Test
+  public void analyze_unknownScript_exception() {
+    ProjectAnalyzer analyzer =
+        ProjectAnalyzer.create(loader, ScriptParser.create(), ImmutableList.of(FUNCTIONS));
+
+    assertThrows(
+        SourceFileLoadException.class, () -> analyzer.analyze(ImmutableList.of("Missing")));
+  }
+
+  private static ImmutableList<String> messages(ImmutableList<Issue> issues) {
+    return issues.stream().map(Issue::getMessage).collect(toImmutableList());
+  }
+
+  private static ImmutableList<String> describe(ImmutableList<Issue> issues) {
+    return issues.stream()
+        .map(
+            issue ->
+                String.format(
+                    "%s:%d:%d %s",
+                    issue.getSourceReference().getSourceName(),
+                    issue.getSourceReference().getLine(),
+                    issue.getSourceReference().getColumn(),
+                    issue.getMessage()))
+        .collect(toImmutableList());
+  }
+}
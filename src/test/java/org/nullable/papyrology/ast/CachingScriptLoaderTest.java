@@ -0,0 +1,60 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.source.file.CachingSourceFileLoader;
+import org.nullable.papyrology.source.file.FileSystemBasedSourceFileLoader;
+
+@RunWith(JUnit4.class)
+public class CachingScriptLoaderTest {
+
+  private Path scriptPath;
+  private CachingScriptLoader loader;
+
+  @Before
+  public void setUp() throws IOException {
+    FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    Path directory = fs.getPath("test");
+    Files.createDirectory(directory);
+    scriptPath = directory.resolve("Actor.psc");
+    Files.writeString(scriptPath, "ScriptName Actor\n", StandardCharsets.UTF_8);
+
+    loader =
+        CachingScriptLoader.create(
+            CachingSourceFileLoader.create(
+                FileSystemBasedSourceFileLoader.create(fs, "test"), /* maximumBytes= */ 1 << 20),
+            ScriptParser.create(),
+            /* maximumScripts= */ 16);
+  }
+
+  @Test
+  public void unchangedScript_cached() {
+    Script first = loader.apply("Actor");
+
+    Script second = loader.apply("ACTOR");
+
+    assertThat(second).isSameInstanceAs(first);
+  }
+
+  @Test
+  public void modifiedScript_reparsed() throws IOException {
+    Script first = loader.apply("Actor");
+    Files.writeString(scriptPath, "ScriptName Actor Extends ObjectReference\n");
+
+    Script second = loader.apply("Actor");
+
+    assertThat(first.header().parentScriptIdentifier().isPresent()).isFalse();
+    assertThat(second.header().parentScriptIdentifier().isPresent()).isTrue();
+  }
+}
@@ -0,0 +1,79 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.ref.WeakReference;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ConstructIndexTest {
+
+  private final Script script =
+      ScriptParser.create()
+          .parse(
+              String.join(
+                  "\n",
+                  "ScriptName Indexed",
+                  "Int Property Count Auto",
+                  "Function Foo()",
+                  "  Alpha()",
+                  "  If Beta()",
+                  "    Gamma(Delta())",
+                  "  EndIf",
+                  "EndFunction",
+                  ""));
+
+  @Test
+  public void all_returnsConstructsOfKindInSourceOrder() {
+    ConstructIndex index = ConstructIndex.of(script);
+
+    assertThat(
+            index.all(FunctionCall.class).stream()
+                .map(call -> call.identifier().value())
+                .collect(toImmutableList()))
+        .containsExactly("Alpha", "Beta", "Gamma", "Delta")
+        .inOrder();
+    assertThat(index.all(Property.class)).hasSize(1);
+    assertThat(index.all(While.class)).isEmpty();
+  }
+
+  @Test
+  public void of_isCachedPerScript() {
+    assertThat(ConstructIndex.of(script)).isSameInstanceAs(ConstructIndex.of(script));
+  }
+
+  @Test
+  public void of_doesNotRetainScript() throws InterruptedException {
+    WeakReference<Script> reference = indexUnreachableScript();
+
+    for (int i = 0; i < 100 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertThat(reference.get()).isNull();
+  }
+
+  @Test
+  public void all_interfaceKind_exception() {
+    assertThrows(
+        IllegalArgumentException.class, () -> ConstructIndex.of(script).all(Expression.class));
+  }
+
+  @Test
+  public void all_scriptKind_exception() {
+    assertThrows(
+        IllegalArgumentException.class, () -> ConstructIndex.of(script).all(Script.class));
+  }
+
+  /** Indexes a new {@link Script}, returning a {@link WeakReference} as its only reference. */
+  private static WeakReference<Script> indexUnreachableScript() {
+    Script unreachable = ScriptParser.create().parse("ScriptName Unreachable\nInt Foo\n");
+    ConstructIndex unused = ConstructIndex.of(unreachable);
+    return new WeakReference<>(unreachable);
+  }
+}
@@ -0,0 +1,116 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.ast.DecisionProfile.Alternative;
+import org.nullable.papyrology.ast.DecisionProfile.Decision;
+import org.nullable.papyrology.grammar.PapyrusParser;
+import org.nullable.papyrology.testing.CorpusGenerator;
+
+@RunWith(JUnit4.class)
+public class DecisionProfileTest {
+
+  private final DecisionProfile profile = DecisionProfile.create();
+  private final ScriptParser parser =
+      ScriptParser.builder()
+          .setPredictionCache(PredictionCache.create())
+          .setDecisionProfile(profile)
+          .build();
+
+  @Test
+  public void parse_matchesUnprofiledParse() throws IOException {
+    ScriptParser unprofiled = ScriptParser.create();
+    for (String source : corpus()) {
+      assertThat(ScriptCodec.encode(parser.parse(source)))
+          .isEqualTo(ScriptCodec.encode(unprofiled.parse(source)));
+    }
+  }
+
+  @Test
+  public void decisions_accountForEveryPrediction() throws IOException {
+    for (String source : corpus()) {
+      Script unused = parser.parse(source);
+    }
+
+    ImmutableList<Decision> decisions = profile.decisions();
+
+    assertThat(decisions).isNotEmpty();
+    assertThat(decisions)
+        .isInOrder(Comparator.comparingLong(Decision::timeInPrediction).reversed());
+    for (Decision decision : decisions) {
+      assertThat(PapyrusParser.ruleNames).asList().contains(decision.rule());
+      long predictions = 0;
+      for (Alternative alternative : decision.alternatives()) {
+        predictions += alternative.predictions();
+      }
+      assertThat(predictions).isEqualTo(decision.invocations());
+    }
+  }
+
+  @Test
+  public void decisions_neverNeedFullContext() throws IOException {
+    // Full-context (LL) prediction is far more expensive than SLL; a change to Papyrus.g4 that
+    // makes any decision fall back to it (or become ambiguous) on valid scripts is a regression.
+    for (String source : corpus()) {
+      Script unused = parser.parse(source);
+    }
+
+    for (Decision decision : profile.decisions()) {
+      assertWithMessage("%s", decision).that(decision.llFallbacks()).isEqualTo(0);
+      assertWithMessage("%s", decision).that(decision.ambiguities()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void parse_invalidScript_stillRecordsDecisions() {
+    assertThrows(
+        SyntaxException.class,
+        () -> parser.parse("ScriptName Broken\nFunction Run()\nEndEvent\n"));
+
+    assertThat(profile.decisions()).isNotEmpty();
+  }
+
+  @Test
+  public void report_namesEveryDecision() throws IOException {
+    for (String source : corpus()) {
+      Script unused = parser.parse(source);
+    }
+
+    String report = profile.report();
+
+    assertThat(report).startsWith("Decision");
+    for (Decision decision : profile.decisions()) {
+      assertThat(report).contains(decision.rule());
+    }
+    assertThat(report).contains("functionDeclaration");
+  }
+
+  /** Returns a generated corpus, along with every script under {@code src/test/scripts}. */
+  private static List<String> corpus() throws IOException {
+    List<String> sources = new ArrayList<>();
+    CorpusGenerator generator = CorpusGenerator.builder().setSeed(25).setScriptCount(40).build();
+    for (int i = 0; i < generator.scriptCount(); i++) {
+      sources.add(generator.source(i));
+    }
+    try (Stream<Path> paths = Files.walk(Paths.get("src/test/scripts"))) {
+      for (Path path : paths.filter(Files::isRegularFile).toList()) {
+        sources.add(Files.readString(path) + "\n");
+      }
+    }
+    return sources;
+  }
+}
@@ -0,0 +1,128 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ExpressionParserTest {
+
+  private final ScriptParser parser = ScriptParser.create();
+
+  @Test
+  public void parse_binaryOperation_isLeftAssociative() {
+    BinaryOperation operation = (BinaryOperation) statement("a - b - c");
+
+    assertThat(operation.operator()).isEqualTo(BinaryOperation.Operator.SUBTRACT);
+    assertThat(text(operation.leftExpression())).isEqualTo("a - b");
+    assertThat(text(operation.rightExpression())).isEqualTo("c");
+  }
+
+  @Test
+  public void parse_binaryOperation_keepsTheGrammarsPrecedence() {
+    // The left-recursive rule this replaces bound its first alternative (||) the tightest.
+    BinaryOperation operation = (BinaryOperation) statement("a + b * c || d");
+
+    assertThat(operation.operator()).isEqualTo(BinaryOperation.Operator.MULTIPLY);
+    assertThat(text(operation.leftExpression())).isEqualTo("a + b");
+    assertThat(text(operation.rightExpression())).isEqualTo("c || d");
+  }
+
+  @Test
+  public void parse_unaryOperation_coversBinaryOperations() {
+    DotAccess access = (DotAccess) statement("!a && b.c");
+    UnaryOperation operation = (UnaryOperation) access.referenceExpression();
+
+    assertThat(operation.operator()).isEqualTo(UnaryOperation.Operator.LOGICAL_NEGATION);
+    assertThat(operation.expression()).isInstanceOf(BinaryOperation.class);
+    assertThat(text(operation)).isEqualTo("!a && b");
+  }
+
+  @Test
+  public void parse_postfixOperations_applyToEverythingBeforeThem() {
+    ArrayAccess access = (ArrayAccess) statement("a.b(1, c = 2) as Foo[] [i + 1]");
+    Cast cast = (Cast) access.arrayExpression();
+    FunctionCall call = (FunctionCall) cast.expression();
+
+    assertThat(text(access.indexExpression())).isEqualTo("i + 1");
+    assertThat(cast.type().dataType()).isEqualTo(DataType.OBJECT_ARRAY);
+    assertThat(text(call.referenceExpression().get())).isEqualTo("a");
+    assertThat(call.identifier().value()).isEqualTo("b");
+    assertThat(call.callParameters()).hasSize(2);
+    assertThat(call.callParameters().get(0).identifier().isPresent()).isFalse();
+    assertThat(call.callParameters().get(1).identifier().get().value()).isEqualTo("c");
+    assertThat(text(call.callParameters().get(1))).isEqualTo("c = 2");
+  }
+
+  @Test
+  public void parse_primaries() {
+    Parenthetical parenthetical = (Parenthetical) statement("(f().Length)");
+    ArrayLength length = (ArrayLength) parenthetical.expression();
+    FunctionCall call = (FunctionCall) length.arrayExpression();
+    ArrayInitialization initialization = (ArrayInitialization) statement("new Int[5]");
+
+    assertThat(call.referenceExpression().isPresent()).isFalse();
+    assertThat(call.callParameters()).isEmpty();
+    assertThat(initialization.type().dataType()).isEqualTo(DataType.INT);
+    assertThat(initialization.size().value()).isEqualTo(5);
+    assertThat(statement("None")).isInstanceOf(ObjectLiteral.class);
+    assertThat(statement("-1")).isInstanceOf(IntegerLiteral.class);
+  }
+
+  @Test
+  public void parse_simpleStatement_definesVariable() {
+    Variable variable = (Variable) statement("Foo[] a = new Foo[2]");
+    Variable uninitialized = (Variable) statement("Int b");
+
+    assertThat(variable.type().dataType()).isEqualTo(DataType.OBJECT_ARRAY);
+    assertThat(variable.identifier().value()).isEqualTo("a");
+    assertThat(text(variable.valueExpression().get())).isEqualTo("new Foo[2]");
+    assertThat(uninitialized.valueExpression().isPresent()).isFalse();
+  }
+
+  @Test
+  public void parse_simpleStatement_assignsValue() {
+    Assignment identifier = (Assignment) statement("a += 1");
+    Assignment dotAccess = (Assignment) statement("a.b = 1");
+    Assignment arrayAccess = (Assignment) statement("a[0] = 1");
+
+    assertThat(identifier.operator()).isEqualTo(Assignment.Operator.ASSIGN_ADD);
+    assertThat(identifier.assignee().type()).isEqualTo(Assignment.Assignee.Type.IDENTIFIER);
+    assertThat(dotAccess.assignee().type()).isEqualTo(Assignment.Assignee.Type.DOT_ACCESS);
+    assertThat(arrayAccess.assignee().type()).isEqualTo(Assignment.Assignee.Type.ARRAY_ACCESS);
+    assertThat(text(arrayAccess.valueExpression())).isEqualTo("1");
+  }
+
+  @Test
+  public void parse_invalidExpression_throwsSyntaxException() {
+    String[] statements = {
+      "a +", "a b c", "(a", "f(a,)", "a.", "a as", "new Int[a]", "Int", "Int a += 1", "f() = 1",
+    };
+    for (String statement : statements) {
+      assertThrows(statement, SyntaxException.class, () -> statement(statement));
+    }
+  }
+
+  @Test
+  public void parse_oversizedArray_throwsSyntaxException() {
+    SyntaxException exception =
+        assertThrows(SyntaxException.class, () -> statement("new Int[129]"));
+
+    assertThat(exception.getSourceReference().getText()).isEqualTo("129");
+  }
+
+  /** Returns the only {@link Statement} of a function whose body is the given line. */
+  private Statement statement(String line) {
+    Script script =
+        parser.parse(String.format("ScriptName Test\nFunction Run()\n  %s\nEndFunction\n", line));
+    Function function = (Function) script.declarations().get(0);
+    return function.body().get().bodyStatements().get(0);
+  }
+
+  private static String text(Construct construct) {
+    return construct.sourceReference().getText();
+  }
+}
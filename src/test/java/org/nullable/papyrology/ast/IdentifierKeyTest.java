@@ -0,0 +1,57 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.ref.WeakReference;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IdentifierKeyTest {
+
+  @Test
+  public void of_differentCasing_returnsSameInstance() {
+    IdentifierKey key = IdentifierKey.of("akActionRef");
+
+    assertThat(IdentifierKey.of("AKACTIONREF")).isSameInstanceAs(key);
+    assertThat(IdentifierKey.of("akactionref")).isSameInstanceAs(key);
+    assertThat(key.value()).isEqualTo("AKACTIONREF");
+  }
+
+  @Test
+  public void of_differentIdentifiers_returnsDifferentInstances() {
+    assertThat(IdentifierKey.of("Foo")).isNotEqualTo(IdentifierKey.of("Bar"));
+  }
+
+  @Test
+  public void identifier_isEquivalent_ignoresCase() {
+    Identifier identifier = new Identifier(/* sourceReference= */ null, "OnInit");
+
+    assertThat(identifier.key()).isSameInstanceAs(IdentifierKey.of("ONINIT"));
+    assertThat(identifier.isEquivalent("oninit")).isTrue();
+    assertThat(identifier.isEquivalent(new Identifier(null, "ONINIT"))).isTrue();
+    assertThat(identifier.isEquivalent("OnLoad")).isFalse();
+  }
+
+  @Test
+  public void identifier_mismatchedKey_exception() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new Identifier(/* sourceReference= */ null, "OnInit", IdentifierKey.of("OnLoad")));
+  }
+
+  @Test
+  public void of_unusedKey_isNotRetained() throws InterruptedException {
+    WeakReference<IdentifierKey> reference =
+        new WeakReference<>(IdentifierKey.of("IdentifierKeyTest_Unused"));
+
+    for (int i = 0; i < 100 && reference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertThat(reference.get()).isNull();
+  }
+}
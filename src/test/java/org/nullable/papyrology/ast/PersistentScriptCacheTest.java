@@ -0,0 +1,79 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.source.file.FileSystemBasedSourceFileLoader;
+import org.nullable.papyrology.source.file.SourceFile;
+
+@RunWith(JUnit4.class)
+public class PersistentScriptCacheTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private SourceFile sourceFile;
+  private PersistentScriptCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    Path directory = fs.getPath("test");
+    Files.createDirectory(directory);
+    Files.writeString(
+        directory.resolve("Actor.psc"),
+        "ScriptName Actor Extends ObjectReference\nFunction Kill()\nEndFunction\n",
+        UTF_8);
+    sourceFile = FileSystemBasedSourceFileLoader.create(fs, "test").load("Actor");
+    cache = PersistentScriptCache.create(temporaryFolder.getRoot().toPath(), ScriptParser.create());
+  }
+
+  @Test
+  public void load_miss_writesEntry() {
+    Script script = cache.load(sourceFile);
+
+    assertThat(script.header().scriptIdentifier().value()).isEqualTo("Actor");
+    assertThat(temporaryFolder.getRoot().list()).hasLength(1);
+  }
+
+  @Test
+  public void load_hit_readsEntry() throws IOException {
+    Script unused = cache.load(sourceFile);
+    // Plant an entry that parsing the SourceFile again could never produce.
+    Script planted =
+        ScriptParser.create()
+            .parse("ScriptName Actor Extends ObjectReference\nFunction Heal()\nEndFunction\n");
+    File[] entries = temporaryFolder.getRoot().listFiles();
+    Files.write(entries[0].toPath(), ScriptCodec.encode(planted));
+
+    Script cached = cache.load(sourceFile);
+
+    Function function = (Function) cached.declarations().get(0);
+    assertThat(function.identifier().value()).isEqualTo("Heal");
+    assertThat(function.sourceReference().getText()).isEqualTo("Function Kill()\nEndFunction\n");
+  }
+
+  @Test
+  public void load_corruptEntry_reparses() throws IOException {
+    Script parsed = cache.load(sourceFile);
+    File[] entries = temporaryFolder.getRoot().listFiles();
+    Files.write(entries[0].toPath(), new byte[] {1, 2, 3});
+
+    Script reparsed = cache.load(sourceFile);
+
+    assertThat(ScriptCodec.encode(reparsed)).isEqualTo(ScriptCodec.encode(parsed));
+    assertThat(Files.size(entries[0].toPath())).isGreaterThan(3L);
+  }
+}
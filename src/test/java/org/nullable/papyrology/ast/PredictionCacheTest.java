@@ -0,0 +1,40 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PredictionCacheTest {
+
+  private static final String SCRIPT =
+      """
+      ScriptName Example
+      Int Function Twice(Int value)
+        Return value * 2
+      EndFunction
+      """;
+
+  @Test
+  public void warm_parsesBundledCorpus() {
+    PredictionCache cache = PredictionCache.create();
+    assertThat(cache.stateCount()).isEqualTo(0);
+
+    assertThat(cache.warm()).isSameInstanceAs(cache);
+    assertThat(cache.stateCount()).isGreaterThan(0);
+  }
+
+  @Test
+  public void clear_stillParses() {
+    PredictionCache cache = PredictionCache.create().warm();
+    ScriptParser parser = ScriptParser.builder().setPredictionCache(cache).build();
+
+    cache.clear();
+    assertThat(cache.stateCount()).isEqualTo(0);
+    Script script = parser.parse(SCRIPT);
+
+    assertThat(script.header().scriptIdentifier().value()).isEqualTo("Example");
+  }
+}
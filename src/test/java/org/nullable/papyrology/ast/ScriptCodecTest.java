@@ -0,0 +1,186 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.source.SourceReference;
+
+@RunWith(JUnit4.class)
+public class ScriptCodecTest {
+
+  private final ScriptParser parser = ScriptParser.create();
+
+  @Test
+  public void roundTrip_preservesEverything() throws IOException {
+    CharStream source = CharStreams.fromString(readWarmUpCorpus(), "warmup.psc");
+    Script script = parser.parse(source);
+    byte[] encoded = ScriptCodec.encode(script);
+
+    Script decoded = ScriptCodec.decode(ByteBuffer.wrap(encoded), source);
+
+    assertSameTree(decoded, script);
+    assertThat(decoded.header().scriptIdentifier().key())
+        .isSameInstanceAs(script.header().scriptIdentifier().key());
+  }
+
+  @Test
+  public void roundTrip_deepExpression() {
+    // Deep enough to overflow the call stack if either side recursed per operation.
+    StringBuilder expression = new StringBuilder("a");
+    for (int i = 0; i < 100_000; i++) {
+      expression
+          .append(i % 2 == 0 ? " + f(b, " : " * c.d[")
+          .append(i)
+          .append(i % 2 == 0 ? ")" : "]");
+    }
+    CharStream source =
+        CharStreams.fromString(
+            "ScriptName Deep\nFunction Run()\n  x = " + expression + "\nEndFunction\n");
+    Script script = parser.parse(source);
+
+    Script decoded = ScriptCodec.decode(ByteBuffer.wrap(ScriptCodec.encode(script)), source);
+
+    assertSameTree(decoded, script);
+  }
+
+  @Test
+  public void decode_truncated_throwsIllegalArgumentException() {
+    CharStream source = CharStreams.fromString("ScriptName Truncated\nInt counter = 1\n");
+    byte[] encoded = ScriptCodec.encode(parser.parse(source));
+    ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 3));
+
+    assertThrows(IllegalArgumentException.class, () -> ScriptCodec.decode(truncated, source));
+  }
+
+  @Test
+  public void decode_corrupted_decodesOrThrowsIllegalArgumentException() {
+    CharStream source =
+        CharStreams.fromString(
+            """
+            ScriptName Corrupted Extends Form Hidden
+            Import Utility
+            Int[] Property Counts Auto
+            Float Property Scale = 1.5 Auto Hidden
+            String greeting = "Hello"
+            Event OnInit()
+              counts = new Int[4]
+              counts[0] += Twice(-2) as Int
+            EndEvent
+            Int Function Twice(Int value = 1) Global
+              Return (value * 2)
+            EndFunction
+            Auto State Waiting
+              Function Run(Bool force)
+                If !force && Self.IsDisabled()
+                  Return
+                ElseIf counts.Length > 0
+                  Debug.Trace(greeting, aiSeverity = 2)
+                Else
+                  While None == Self
+                  EndWhile
+                EndIf
+              EndFunction
+            EndState
+            """);
+    byte[] encoded = ScriptCodec.encode(parser.parse(source));
+
+    for (int length = 0; length < encoded.length; length++) {
+      ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, length);
+      assertThrows(IllegalArgumentException.class, () -> ScriptCodec.decode(truncated, source));
+    }
+    for (int i = 0; i < encoded.length; i++) {
+      for (int value = 0; value < 256; value++) {
+        byte[] corrupted = encoded.clone();
+        corrupted[i] = (byte) value;
+        try {
+          Script unused = ScriptCodec.decode(ByteBuffer.wrap(corrupted), source);
+        } catch (IllegalArgumentException e) {
+          // Expected for most corruptions; any other exception escaping decode is a bug.
+        }
+      }
+    }
+  }
+
+  @Test
+  public void decode_unknownEncoding_throwsIllegalArgumentException() {
+    CharStream source = CharStreams.fromString("ScriptName Unknown\n");
+    ByteBuffer garbage = ByteBuffer.wrap("ScriptName Unknown\n".getBytes(UTF_8));
+
+    assertThrows(IllegalArgumentException.class, () -> ScriptCodec.decode(garbage, source));
+  }
+
+  /**
+   * Asserts that two ASTs are made of the same records with the same values, including the offsets
+   * and positions of their {@link SourceReference SourceReferences}.
+   */
+  private static void assertSameTree(Object actual, Object expected) {
+    Deque<Object[]> pairs = new ArrayDeque<>();
+    pairs.push(new Object[] {actual, expected});
+    while (!pairs.isEmpty()) {
+      Object[] pair = pairs.pop();
+      Object left = pair[0];
+      Object right = pair[1];
+      if (left instanceof SourceReference sourceReference) {
+        assertThat(right).isInstanceOf(SourceReference.class);
+        SourceReference other = (SourceReference) right;
+        assertThat(sourceReference.getStartIndex()).isEqualTo(other.getStartIndex());
+        assertThat(sourceReference.getStopIndex()).isEqualTo(other.getStopIndex());
+        assertThat(sourceReference.getLine()).isEqualTo(other.getLine());
+        assertThat(sourceReference.getColumn()).isEqualTo(other.getColumn());
+      } else if (left instanceof Record record) {
+        assertThat(right).isInstanceOf(record.getClass());
+        for (RecordComponent component : record.getClass().getRecordComponents()) {
+          pairs.push(new Object[] {get(component, left), get(component, right)});
+        }
+      } else if (left instanceof Optional<?> optional) {
+        assertThat(((Optional<?>) right).isPresent()).isEqualTo(optional.isPresent());
+        optional.ifPresent(value -> pairs.push(new Object[] {value, ((Optional<?>) right).get()}));
+      } else if (left instanceof List<?> list) {
+        assertThat((List<?>) right).hasSize(list.size());
+        for (int i = 0; i < list.size(); i++) {
+          pairs.push(new Object[] {list.get(i), ((List<?>) right).get(i)});
+        }
+      } else if (left instanceof Assignment.Assignee assignee) {
+        Assignment.Assignee other = (Assignment.Assignee) right;
+        assertThat(assignee.type()).isEqualTo(other.type());
+        pairs.push(
+            switch (assignee.type()) {
+              case IDENTIFIER -> new Object[] {assignee.identifier(), other.identifier()};
+              case DOT_ACCESS -> new Object[] {assignee.dotAccess(), other.dotAccess()};
+              case ARRAY_ACCESS -> new Object[] {assignee.arrayAccess(), other.arrayAccess()};
+            });
+      } else {
+        assertThat(left).isEqualTo(right);
+      }
+    }
+  }
+
+  private static Object get(RecordComponent component, Object record) {
+    try {
+      return component.getAccessor().invoke(record);
+    } catch (ReflectiveOperationException e) {
+      throw new LinkageError(e.getMessage(), e);
+    }
+  }
+
+  private static String readWarmUpCorpus() throws IOException {
+    try (InputStream stream = ScriptCodec.class.getResourceAsStream("warmup.psc")) {
+      return new String(stream.readAllBytes(), UTF_8);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Validates that the {@code ScriptParser} handles known good Papyrus scripts and rejects bad ones.
+ *
+ * <p>This test will grab all files in {@code src/test/scripts} and run them through the parser.
+ */
+@RunWith(Parameterized.class)
+public class ScriptParserTest {
+
+  /** Returns the {@link Path Paths} of all scripts under {@code src/test/scripts}. */
+  @Parameters(name = "{0}")
+  public static Object[] data() {
+    try (Stream<Path> paths = Files.walk(Paths.get("src/test/scripts"))) {
+      return paths.filter(Files::isRegularFile).toArray();
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to load script files.", e);
+    }
+  }
+
+  @Parameter(0)
+  public Path path;
+
+  private final ScriptParser parser = ScriptParser.create();
+  private final ScriptParser incrementalParser =
+      ScriptParser.builder().setBuildIncrementally(true).build();
+
+  @Test
+  public void parse_validScript() throws IOException {
+    String content = new String(Files.readAllBytes(path), UTF_8) + "\n";
+
+    Script script = parser.parse(content);
+
+    String fileName = path.getFileName().toString();
+    assertThat(script.header().scriptIdentifier().isEquivalent(fileName.replace(".psc", "")))
+        .isTrue();
+    assertThat(script.header().sourceReference().getText()).startsWith("ScriptName");
+  }
+
+  @Test
+  public void parse_invalidScript_throwsSyntaxException() throws IOException {
+    String content = new String(Files.readAllBytes(path), UTF_8) + "\nFunction Broken(\n";
+
+    SyntaxException exception = assertThrows(SyntaxException.class, () -> parser.parse(content));
+
+    assertThat(exception).hasMessageThat().startsWith("Syntax error");
+  }
+
+  @Test
+  public void parse_buildIncrementally_matchesFullParseTree() throws IOException {
+    String content = new String(Files.readAllBytes(path), UTF_8) + "\n";
+
+    Script script = incrementalParser.parse(content);
+
+    assertThat(ScriptCodec.encode(script)).isEqualTo(ScriptCodec.encode(parser.parse(content)));
+  }
+
+  @Test
+  public void parse_buildIncrementally_invalidScript_throwsSyntaxException() throws IOException {
+    String content = new String(Files.readAllBytes(path), UTF_8) + "\nFunction Broken(\n";
+
+    SyntaxException exception =
+        assertThrows(SyntaxException.class, () -> incrementalParser.parse(content));
+
+    assertThat(exception).hasMessageThat().startsWith("Syntax error");
+  }
+}
@@ -0,0 +1,425 @@
+package org.nullable.papyrology.ast;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class WalkingVisitorTest {
+
+  @Test
+  public void visit_invokesCallbacksInOrder() {
+    Script script =
+        ScriptParser.create()
+            .parse(
+                String.join(
+                    "\n",
+                    "ScriptName Ordered",
+                    "Int Function Foo(Int a)",
+                    "  If a > 1",
+                    "    Return a",
+                    "  EndIf",
+                    "  Return 2",
+                    "EndFunction",
+                    ""));
+    List<String> events = new ArrayList<>();
+
+    WalkingVisitor.create(new RecordingWalker(events)).visit(script);
+
+    assertThat(events)
+        .containsExactly(
+            "enter Script",
+            "enter Header",
+            "touch Ordered",
+            "exit Header",
+            "enter Function",
+            "touch Foo",
+            "enter Type",
+            "exit Type",
+            "enter Parameter",
+            "enter Type",
+            "exit Type",
+            "touch a",
+            "exit Parameter",
+            "enter Block",
+            "enter If",
+            "enter BinaryOperation",
+            "touch a",
+            "touch 1",
+            "exit BinaryOperation",
+            "enter Block",
+            "enter Return",
+            "touch a",
+            "exit Return",
+            "exit Block",
+            "exit If",
+            "enter Return",
+            "touch 2",
+            "exit Return",
+            "exit Block",
+            "exit Function",
+            "exit Script")
+        .inOrder();
+  }
+
+  @Test
+  public void visit_compositeWalker_dispatchesToEveryWalkerInOrder() {
+    List<String> events = new ArrayList<>();
+    Identifier identifier = new Identifier(/* sourceReference= */ null, "Shared");
+
+    WalkingVisitor.create(
+            ImmutableList.of(new RecordingWalker(events), new RecordingWalker(events)))
+        .visit(identifier);
+
+    assertThat(events).containsExactly("touch Shared", "touch Shared");
+  }
+
+  @Test
+  public void visit_deeplyNestedExpression_doesNotOverflowSmallStack() throws Exception {
+    int depth = 200_000;
+    Expression expression = new IntegerLiteral(/* sourceReference= */ null, 0, false);
+    for (int i = 1; i <= depth; i++) {
+      expression =
+          new BinaryOperation(
+              /* sourceReference= */ null,
+              BinaryOperation.Operator.ADD,
+              expression,
+              new IntegerLiteral(/* sourceReference= */ null, i, false));
+    }
+    BinaryOperation root = (BinaryOperation) expression;
+    CountingWalker walker = new CountingWalker();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    Thread thread =
+        new Thread(
+            /* group= */ null,
+            () -> {
+              try {
+                WalkingVisitor.create(walker).visit(root);
+              } catch (Throwable t) {
+                failure.set(t);
+              }
+            },
+            "small-stack",
+            /* stackSize= */ 128 * 1024);
+    thread.start();
+    thread.join();
+
+    assertThat(failure.get()).isNull();
+    assertThat(walker.entered).isEqualTo(depth);
+    assertThat(walker.exited).isEqualTo(depth);
+    assertThat(walker.touched).isEqualTo(depth + 1);
+    assertThat(walker.lastTouched).isEqualTo(depth);
+  }
+
+  @Test
+  public void visit_skipSubtree_skipsChildrenButStillExits() {
+    Script script = parseCalls();
+    List<String> events = new ArrayList<>();
+
+    WalkingVisitor.create(new SkippingWalker(events)).visit(script);
+
+    assertThat(events)
+        .containsExactly("touch Calls", "enter Function", "exit Function", "touch Bar")
+        .inOrder();
+  }
+
+  @Test
+  public void visit_interests_prunesIrrelevantSubtrees() {
+    Script script = parseCalls();
+    List<String> events = new ArrayList<>();
+
+    WalkingVisitor.create(new CallWalker(events)).visit(script);
+
+    // No Identifier can contain a FunctionCall, so none of them are walked.
+    assertThat(events).containsExactly("call Ready", "call Print").inOrder();
+  }
+
+  @Test
+  public void visit_compositeWalker_onlySkipsForTheSkippingWalker() {
+    Script script = parseCalls();
+    List<String> skipped = new ArrayList<>();
+    List<String> recorded = new ArrayList<>();
+
+    WalkingVisitor.create(
+            ImmutableList.of(new SkippingWalker(skipped), new RecordingWalker(recorded)))
+        .visit(script);
+
+    assertThat(skipped)
+        .containsExactly("touch Calls", "enter Function", "exit Function", "touch Bar")
+        .inOrder();
+    assertThat(recorded).contains("touch Print");
+    assertThat(recorded).contains("touch Ready");
+  }
+
+  @Test
+  public void visit_skipSubtree_isKeptAcrossNestedWalks() {
+    Script script = parseCalls();
+    List<String> events = new ArrayList<>();
+
+    WalkingVisitor.create(new NestingWalker(events, /* composite= */ false)).visit(script);
+
+    // The nested walk of the Parameter isn't skipped, and doesn't undo the skip of the Function.
+    assertThat(events)
+        .containsExactly(
+            "touch Calls", "enter Function", "touch a", "exit Function", "touch Bar")
+        .inOrder();
+  }
+
+  @Test
+  public void visit_compositeWalker_skipSubtree_isKeptAcrossNestedWalks() {
+    Script script = parseCalls();
+    List<String> events = new ArrayList<>();
+    List<String> recorded = new ArrayList<>();
+
+    WalkingVisitor.create(
+            ImmutableList.of(
+                new NestingWalker(events, /* composite= */ true), new RecordingWalker(recorded)))
+        .visit(script);
+
+    assertThat(events)
+        .containsExactly(
+            "touch Calls", "enter Function", "touch a", "exit Function", "touch Bar")
+        .inOrder();
+    assertThat(recorded).contains("touch Print");
+  }
+
+  private static Script parseCalls() {
+    return ScriptParser.create()
+        .parse(
+            String.join(
+                "\n",
+                "ScriptName Calls",
+                "Function Foo(Int a)",
+                "  While Ready()",
+                "    Print(a)",
+                "  EndWhile",
+                "EndFunction",
+                "Int Property Bar Auto",
+                ""));
+  }
+
+  /** Skips the body of every {@link Function}. */
+  private static final class SkippingWalker extends WalkingVisitor.Walker {
+    private final List<String> events;
+
+    private SkippingWalker(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    protected void enter(Function function) {
+      events.add("enter Function");
+      skipSubtree();
+    }
+
+    @Override
+    protected void exit(Function function) {
+      events.add("exit Function");
+    }
+
+    @Override
+    protected void touch(Identifier identifier) {
+      events.add("touch " + identifier.value());
+    }
+  }
+
+  /**
+   * Skips the body of every {@link Function}, after walking its parameters on its own (alongside
+   * another {@code Walker} if {@code composite}).
+   */
+  private static final class NestingWalker extends WalkingVisitor.Walker {
+    private final List<String> events;
+    private final boolean composite;
+
+    private NestingWalker(List<String> events, boolean composite) {
+      this.events = events;
+      this.composite = composite;
+    }
+
+    @Override
+    protected void enter(Function function) {
+      events.add("enter Function");
+      skipSubtree();
+      WalkingVisitor nested =
+          WalkingVisitor.create(
+              composite
+                  ? ImmutableList.of(this, new RecordingWalker(new ArrayList<>()))
+                  : ImmutableList.of(this));
+      function.parameters().forEach(parameter -> parameter.accept(nested));
+    }
+
+    @Override
+    protected void exit(Function function) {
+      events.add("exit Function");
+    }
+
+    @Override
+    protected void touch(Identifier identifier) {
+      events.add("touch " + identifier.value());
+    }
+  }
+
+  /** Only interested in {@link FunctionCall FunctionCalls}. */
+  private static final class CallWalker extends WalkingVisitor.Walker {
+    private final List<String> events;
+
+    private CallWalker(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    protected ImmutableSet<Class<? extends Construct>> interests() {
+      return ImmutableSet.of(FunctionCall.class);
+    }
+
+    @Override
+    protected void enter(FunctionCall functionCall) {
+      events.add("call " + functionCall.identifier().value());
+    }
+
+    @Override
+    protected void touch(Identifier identifier) {
+      events.add("touch " + identifier.value());
+    }
+  }
+
+  /** Records the callbacks for a representative subset of {@link Construct Constructs}. */
+  private static final class RecordingWalker extends WalkingVisitor.Walker {
+    private final List<String> events;
+
+    private RecordingWalker(List<String> events) {
+      this.events = events;
+    }
+
+    @Override
+    protected void enter(Script script) {
+      events.add("enter Script");
+    }
+
+    @Override
+    protected void exit(Script script) {
+      events.add("exit Script");
+    }
+
+    @Override
+    protected void enter(Header header) {
+      events.add("enter Header");
+    }
+
+    @Override
+    protected void exit(Header header) {
+      events.add("exit Header");
+    }
+
+    @Override
+    protected void enter(Function function) {
+      events.add("enter Function");
+    }
+
+    @Override
+    protected void exit(Function function) {
+      events.add("exit Function");
+    }
+
+    @Override
+    protected void enter(Type type) {
+      events.add("enter Type");
+    }
+
+    @Override
+    protected void exit(Type type) {
+      events.add("exit Type");
+    }
+
+    @Override
+    protected void enter(Parameter parameter) {
+      events.add("enter Parameter");
+    }
+
+    @Override
+    protected void exit(Parameter parameter) {
+      events.add("exit Parameter");
+    }
+
+    @Override
+    protected void enter(Block block) {
+      events.add("enter Block");
+    }
+
+    @Override
+    protected void exit(Block block) {
+      events.add("exit Block");
+    }
+
+    @Override
+    protected void enter(If ifStatement) {
+      events.add("enter If");
+    }
+
+    @Override
+    protected void exit(If ifStatement) {
+      events.add("exit If");
+    }
+
+    @Override
+    protected void enter(BinaryOperation binaryOperation) {
+      events.add("enter BinaryOperation");
+    }
+
+    @Override
+    protected void exit(BinaryOperation binaryOperation) {
+      events.add("exit BinaryOperation");
+    }
+
+    @Override
+    protected void enter(Return returnStatement) {
+      events.add("enter Return");
+    }
+
+    @Override
+    protected void exit(Return returnStatement) {
+      events.add("exit Return");
+    }
+
+    @Override
+    protected void touch(Identifier identifier) {
+      events.add("touch " + identifier.value());
+    }
+
+    @Override
+    protected void touch(IntegerLiteral integerLiteral) {
+      events.add("touch " + integerLiteral.value());
+    }
+  }
+
+  private static final class CountingWalker extends WalkingVisitor.Walker {
+    private int entered;
+    private int exited;
+    private int touched;
+    private int lastTouched;
+
+    @Override
+    protected void enter(BinaryOperation binaryOperation) {
+      entered++;
+    }
+
+    @Override
+    protected void exit(BinaryOperation binaryOperation) {
+      exited++;
+    }
+
+    @Override
+    protected void touch(IntegerLiteral integerLiteral) {
+      touched++;
+      lastTouched = integerLiteral.value();
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package org.nullable.papyrology.ast.symbol;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.ast.Function;
+import org.nullable.papyrology.ast.Identifier;
+import org.nullable.papyrology.ast.IdentifierKey;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.ast.SyntaxException;
+
+@RunWith(JUnit4.class)
+public class SymbolTableTest {
+
+  private final ScriptParser parser = ScriptParser.create();
+  private final SymbolTable symbolTable = SymbolTable.create();
+
+  @Test
+  public void upsert_resolvesScriptMembers() {
+    Script script = parse("ScriptName Alpha", "Function Foo()", "EndFunction");
+
+    boolean replaced = symbolTable.upsert(script);
+
+    assertThat(replaced).isFalse();
+    assertThat(resolve("Alpha", "foo").type()).isEqualTo(Symbol.Type.FUNCTION);
+  }
+
+  @Test
+  public void upsertAll_resolvesEveryScript() {
+    ImmutableList<Script> scripts =
+        ImmutableList.of(
+            parse("ScriptName Alpha", "Function Foo()", "EndFunction"),
+            parse("ScriptName Beta", "Int Property Bar Auto"),
+            parse("ScriptName Gamma", "Event OnInit()", "EndEvent"));
+
+    int replaced = symbolTable.upsertAll(scripts);
+
+    assertThat(replaced).isEqualTo(0);
+    assertThat(resolve("Alpha", "Foo").type()).isEqualTo(Symbol.Type.FUNCTION);
+    assertThat(resolve("Beta", "Bar").type()).isEqualTo(Symbol.Type.READ_WRITE_PROPERTY);
+    assertThat(resolve("Gamma", "OnInit").type()).isEqualTo(Symbol.Type.EVENT);
+    assertThat(resolve("Gamma", "Alpha").type()).isEqualTo(Symbol.Type.SCRIPT);
+  }
+
+  @Test
+  public void upsertAll_lastScriptWithSameNameWins() {
+    symbolTable.upsert(parse("ScriptName Alpha", "Function Old()", "EndFunction"));
+    ImmutableList<Script> scripts =
+        ImmutableList.of(
+            parse("ScriptName Alpha", "Function Middle()", "EndFunction"),
+            parse("ScriptName ALPHA", "Function Latest()", "EndFunction"));
+
+    int replaced = symbolTable.upsertAll(scripts);
+
+    assertThat(replaced).isEqualTo(2);
+    assertThat(resolve("Alpha", "Latest").type()).isEqualTo(Symbol.Type.FUNCTION);
+    assertThrows(SyntaxException.class, () -> resolve("Alpha", "Old"));
+    assertThrows(SyntaxException.class, () -> resolve("Alpha", "Middle"));
+  }
+
+  @Test
+  public void snapshot_isUnaffectedByLaterUpserts() {
+    Script original = parse("ScriptName Alpha", "Function Foo()", "EndFunction");
+    symbolTable.upsert(original);
+    SymbolTable.Snapshot snapshot = symbolTable.snapshot();
+
+    symbolTable.upsert(parse("ScriptName Alpha", "Function Bar()", "EndFunction"));
+    symbolTable.upsert(parse("ScriptName Beta"));
+
+    Resolver resolver = snapshot.resolver(original);
+    assertThat(resolver.resolve(identifier("Foo")).type()).isEqualTo(Symbol.Type.FUNCTION);
+    assertThrows(SyntaxException.class, () -> resolver.resolve(identifier("Bar")));
+    assertThrows(SyntaxException.class, () -> resolver.resolve(identifier("Beta")));
+    assertThrows(IllegalArgumentException.class, () -> symbolTable.resolver(original));
+    assertThat(resolve("Alpha", "Beta").type()).isEqualTo(Symbol.Type.SCRIPT);
+  }
+
+  @Test
+  public void snapshot_isUnaffectedByReupsertingTheSameScript() {
+    Script script = parse("ScriptName Alpha", "Function Foo()", "EndFunction");
+    Function function = (Function) script.declarations().get(0);
+    symbolTable.upsert(script);
+    SymbolTable.Snapshot snapshot = symbolTable.snapshot();
+
+    symbolTable.upsert(parse("ScriptName Alpha", "Function Bar()", "EndFunction"));
+    symbolTable.upsert(script);
+
+    assertThat(snapshot.resolver(script).resolve(identifier("Foo")).type())
+        .isEqualTo(Symbol.Type.FUNCTION);
+    assertThat(snapshot.resolver(function).resolve(identifier("Foo")).type())
+        .isEqualTo(Symbol.Type.FUNCTION);
+    assertThat(symbolTable.resolver(function).resolve(identifier("Foo")).type())
+        .isEqualTo(Symbol.Type.FUNCTION);
+  }
+
+  @Test
+  public void dependents_areTransitive() {
+    symbolTable.upsertAll(
+        ImmutableList.of(
+            parse("ScriptName Alpha"),
+            parse("ScriptName Beta Extends Alpha"),
+            parse("ScriptName Gamma", "Import Beta"),
+            parse("ScriptName Delta Extends Gamma"),
+            parse("ScriptName Epsilon")));
+
+    assertThat(symbolTable.dependents("ALPHA"))
+        .containsExactly(key("Beta"), key("Gamma"), key("Delta"))
+        .inOrder();
+    assertThat(symbolTable.dependents("Gamma")).containsExactly(key("Delta"));
+    assertThat(symbolTable.dependents("Epsilon")).isEmpty();
+  }
+
+  @Test
+  public void dependents_followReplacedAndRemovedScripts() {
+    symbolTable.upsertAll(
+        ImmutableList.of(
+            parse("ScriptName Alpha"),
+            parse("ScriptName Beta Extends Alpha"),
+            parse("ScriptName Gamma", "Import Missing")));
+    SymbolTable.Snapshot snapshot = symbolTable.snapshot();
+
+    symbolTable.upsert(parse("ScriptName Beta"));
+    symbolTable.remove("Gamma");
+
+    assertThat(symbolTable.dependents("Alpha")).isEmpty();
+    assertThat(symbolTable.dependents("Missing")).isEmpty();
+    assertThat(snapshot.dependents("Alpha")).containsExactly(key("Beta"));
+    assertThat(snapshot.dependents("Missing")).containsExactly(key("Gamma"));
+  }
+
+  @Test
+  public void refresh_returnsDependentsWithoutRewalkingThem() {
+    Script beta = parse("ScriptName Beta Extends Alpha", "Function Baz()", "EndFunction");
+    Function baz = (Function) beta.declarations().get(0);
+    symbolTable.upsertAll(
+        ImmutableList.of(
+            parse("ScriptName Alpha", "Function Foo()", "EndFunction"),
+            beta,
+            parse("ScriptName Gamma")));
+    assertThat(resolve("Beta", "Foo").type()).isEqualTo(Symbol.Type.FUNCTION);
+
+    ImmutableSet<IdentifierKey> refreshed =
+        symbolTable.refresh(parse("ScriptName Alpha", "Function Bar()", "EndFunction"));
+
+    assertThat(refreshed).containsExactly(key("Beta"));
+    // Beta's original AST still resolves, against the members it now inherits.
+    assertThat(symbolTable.resolver(baz).resolve(identifier("Bar")).type())
+        .isEqualTo(Symbol.Type.FUNCTION);
+    assertThrows(
+        SyntaxException.class, () -> symbolTable.resolver(baz).resolve(identifier("Foo")));
+    assertThrows(SyntaxException.class, () -> resolve("Alpha", "Foo"));
+  }
+
+  @Test
+  public void resolver_resolvesInheritedMembers() {
+    symbolTable.upsertAll(
+        ImmutableList.of(
+            parse(
+                "ScriptName Form", "Int Function GetFormID() Native", "Event OnInit()", "EndEvent"),
+            parse("ScriptName ObjectReference Extends Form", "Int Property Count Auto"),
+            parse("ScriptName Child Extends ObjectReference", "Event OnInit()", "EndEvent")));
+
+    assertThat(resolve("Child", "GetFormID").type()).isEqualTo(Symbol.Type.FUNCTION);
+    assertThat(resolve("Child", "Count").type()).isEqualTo(Symbol.Type.READ_WRITE_PROPERTY);
+    // Child's own OnInit (on line 2) overrides the one in Form (on line 3).
+    assertThat(resolve("Child", "OnInit").identifier().sourceReference().getLine()).isEqualTo(2);
+    assertThat(resolve("Child", "Form").type()).isEqualTo(Symbol.Type.SCRIPT);
+    assertThrows(SyntaxException.class, () -> resolve("Form", "Count"));
+  }
+
+  @Test
+  public void resolver_doesNotInheritVariables() {
+    symbolTable.upsertAll(
+        ImmutableList.of(
+            parse("ScriptName Base", "Int secret"), parse("ScriptName Child Extends Base")));
+
+    assertThrows(SyntaxException.class, () -> resolve("Child", "secret"));
+  }
+
+  @Test
+  public void resolver_toleratesMissingAndCyclicAncestors() {
+    symbolTable.upsertAll(
+        ImmutableList.of(
+            parse("ScriptName Orphan Extends Missing"),
+            parse("ScriptName Alpha Extends Beta", "Function Foo()", "EndFunction"),
+            parse("ScriptName Beta Extends Alpha", "Function Bar()", "EndFunction")));
+
+    assertThrows(SyntaxException.class, () -> resolve("Orphan", "Foo"));
+    assertThat(resolve("Alpha", "Bar").type()).isEqualTo(Symbol.Type.FUNCTION);
+    assertThat(resolve("Beta", "Foo").type()).isEqualTo(Symbol.Type.FUNCTION);
+  }
+
+  @Test
+  public void upsert_invalidatesInheritedMembersOfDescendantsOnly() {
+    symbolTable.upsertAll(
+        ImmutableList.of(
+            parse("ScriptName Base", "Function Old()", "EndFunction"),
+            parse("ScriptName Middle Extends Base"),
+            parse("ScriptName Leaf Extends Middle"),
+            parse("ScriptName Other", "Function Foo()", "EndFunction"),
+            parse("ScriptName Unrelated Extends Other")));
+    assertThat(resolve("Leaf", "Old").type()).isEqualTo(Symbol.Type.FUNCTION);
+    ImmutableMap<IdentifierKey, Symbol> otherMembers = symbolTable.snapshot().members(key("Other"));
+
+    symbolTable.upsert(parse("ScriptName Base", "Function Latest()", "EndFunction"));
+
+    assertThat(resolve("Leaf", "Latest").type()).isEqualTo(Symbol.Type.FUNCTION);
+    assertThrows(SyntaxException.class, () -> resolve("Leaf", "Old"));
+    assertThrows(SyntaxException.class, () -> resolve("Middle", "Old"));
+    assertThat(symbolTable.snapshot().members(key("Other"))).isSameInstanceAs(otherMembers);
+  }
+
+  @Test
+  public void upsert_scopesPropertyFunctionsToTheirProperty() {
+    symbolTable.upsert(
+        parse(
+            "ScriptName Alpha",
+            "Int Property First",
+            "  Int Function Get()",
+            "    Return 1",
+            "  EndFunction",
+            "EndProperty",
+            "Int Property Second",
+            "  Int Function Get()",
+            "    Return 2",
+            "  EndFunction",
+            "EndProperty"));
+
+    assertThat(resolve("Alpha", "Second").type()).isEqualTo(Symbol.Type.READ_ONLY_PROPERTY);
+    assertThrows(SyntaxException.class, () -> resolve("Alpha", "Get"));
+  }
+
+  private Script parse(String... lines) {
+    return parser.parse(String.join("\n", lines) + "\n");
+  }
+
+  private Symbol resolve(String script, String identifier) {
+    return symbolTable.resolver(identifier(script)).resolve(identifier(identifier));
+  }
+
+  private static IdentifierKey key(String value) {
+    return IdentifierKey.of(value);
+  }
+
+  private static Identifier identifier(String value) {
+    return new Identifier(/* sourceReference= */ null, value);
+  }
+}
@@ -0,0 +1,190 @@
+package org.nullable.papyrology.grammar;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.testing.CorpusGenerator;
+
+/**
+ * Validates that {@link PapyrusTokenizer} produces exactly the same tokens (and errors) as the
+ * {@link PapyrusLexer} generated from {@code Papyrus.g4}.
+ */
+@RunWith(JUnit4.class)
+public class PapyrusTokenizerTest {
+
+  @Test
+  public void nextToken_matchesLexer_onCorpus() {
+    CorpusGenerator corpus = CorpusGenerator.builder().setSeed(21).setScriptCount(60).build();
+    for (int i = 0; i < corpus.scriptCount(); i++) {
+      assertSameTokens(corpus.source(i));
+    }
+  }
+
+  @Test
+  public void nextToken_matchesLexer_onScripts() throws IOException {
+    try (Stream<Path> paths = Files.walk(Paths.get("src/test/scripts"))) {
+      for (Path path : paths.filter(Files::isRegularFile).toList()) {
+        assertSameTokens(Files.readString(path));
+      }
+    }
+  }
+
+  @Test
+  public void nextToken_matchesLexer_onEdgeCases() {
+    String[] sources = {
+      "",
+      "\n",
+      "\r\n",
+      "\r",
+      "ScriptName Foo Extends Bar Hidden Conditional\n",
+      "SCRIPTNAME scriptname ScRiPtNaMe scriptnames _scriptname script_name\n",
+      "As Auto AutoReadOnly AutoRead EndFunctionX EndIf_ If0 iF elseIf ElseIf\n",
+      "Length NEW None Parent Property Return Self State String True While global\n",
+      "a ab abc s_ _ __ ifs fi xs lengthy 0If\n",
+      "1 12 0x1F 0XaB 0x 0xG 00x1 1x2 0x1.5 1.5 1. .5 1..2 1.2.3\n",
+      "-1 -12 -0x1F -1.5 -.5 - 1 -= -=1 --1 1-1 a-1\n",
+      "= == === + += * *= / /= % %= ! != !== > >= < <= || && |& &| ||| &&&\n",
+      "( ) [ ] { } , . {doc} {multi\nline\ndoc} { unclosed\n",
+      "; comment\nx ;/ block /; y\n;/ multi\nline /; z\n;/ unclosed block\nw\n",
+      ";/ line /; block /;\n;/\n/; ;/ nested ;/ x /; /;\n;//;\n;/;\n",
+      "\"\" \"a\" \"a\\\"b\" \"\\\\\" \"\\n\\t\" \"a\\\" \"unclosed\n",
+      "\"multi\nline\" \"\\\"\\\"\" \"\\x\" \"\\\\\\\"\" \"\\",
+      "\"\\\" x \\\" y",
+      "a \\\nb \\ \t\r\nc \\x\n\\",
+      "tab\tand\t\tspaces   \r\nwindows\r\nlines\r",
+      "unknown @ # $ ^ ~ ` ' ? : é \u0000 \u00ff\n",
+      "a|b&c|",
+      "emoji \ud83d\ude00 x \ud83d\ude00\ud83d\ude00 y\n\"\ud83d\ude00\" {\ud83d\ude00}\n",
+      "trailing",
+    };
+    for (String source : sources) {
+      assertSameTokens(source);
+    }
+  }
+
+  @Test
+  public void nextToken_matchesLexer_onRandomInput() {
+    String alphabet = "aZ_09xX.-+=*/%!<>|&()[]{},;\"\\ \t\r\n@é";
+    SplittableRandom random = new SplittableRandom(21);
+    for (int i = 0; i < 2_000; i++) {
+      StringBuilder source = new StringBuilder();
+      int length = random.nextInt(40);
+      for (int j = 0; j < length; j++) {
+        source.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      assertSameTokens(source.toString());
+    }
+  }
+
+  @Test
+  public void nextToken_matchesLexer_acrossWindows() {
+    // The tokenizer reads its input a few thousand characters at a time, so tokens both longer
+    // than that and straddling the boundaries at every offset must still match.
+    String[] tokens = {
+      "identifier" + "_x".repeat(3_000) + " ",
+      ";/ block" + "\n ;".repeat(3_000) + " /;\n",
+      "; line" + " ;/".repeat(3_000) + "\n",
+      "{doc" + "\n".repeat(5_000) + "}\n",
+      "\"string" + " \\\"".repeat(2_000) + "\"\n",
+      "123" + "4".repeat(5_000) + ".5\n",
+      "\"\ud83d\ude00" + "\ud83d\ude00".repeat(3_000) + "\" \ud83d\ude00\n",
+      "EndFunction elseif @ -= && \r\n",
+    };
+    StringBuilder source = new StringBuilder();
+    SplittableRandom random = new SplittableRandom(21);
+    for (int i = 0; i < 200; i++) {
+      String token = tokens[random.nextInt(tokens.length)];
+      source.append(token, 0, 1 + random.nextInt(token.length()));
+      source.append(" x\n");
+    }
+    assertSameTokens(source.toString());
+  }
+
+  @Test
+  public void nextToken_reportsUnrecognizedText() {
+    ErrorCollector errors = new ErrorCollector();
+    PapyrusTokenizer tokenizer = PapyrusTokenizer.create(CharStreams.fromString("a\n @b"), errors);
+
+    assertThat(tokenizer.nextToken().getText()).isEqualTo("a");
+    assertThat(tokenizer.nextToken().getType()).isEqualTo(PapyrusLexer.NEWLINE);
+    assertThat(tokenizer.nextToken().getText()).isEqualTo("b");
+    assertThat(tokenizer.nextToken().getType()).isEqualTo(Token.EOF);
+    assertThat(errors.errors).containsExactly("2:1 token recognition error at: '@'");
+    assertThat(errors.offendingTexts).containsExactly("@");
+  }
+
+  private static void assertSameTokens(String source) {
+    ErrorCollector expectedErrors = new ErrorCollector();
+    PapyrusLexer lexer = new PapyrusLexer(CharStreams.fromString(source));
+    lexer.removeErrorListeners();
+    lexer.addErrorListener(expectedErrors);
+    ErrorCollector actualErrors = new ErrorCollector();
+    PapyrusTokenizer tokenizer =
+        PapyrusTokenizer.create(CharStreams.fromString(source), actualErrors);
+
+    assertWithMessage("Tokens of \"%s\"", source)
+        .that(describe(tokenizer))
+        .containsExactlyElementsIn(describe(lexer))
+        .inOrder();
+    assertWithMessage("Errors of \"%s\"", source)
+        .that(actualErrors.errors)
+        .containsExactlyElementsIn(expectedErrors.errors)
+        .inOrder();
+  }
+
+  /** Returns a description of every token produced by the given source, up to and including EOF. */
+  private static List<String> describe(TokenSource source) {
+    List<String> tokens = new ArrayList<>();
+    Token token;
+    do {
+      token = source.nextToken();
+      tokens.add(
+          String.format(
+              "%s [%d..%d] %d:%d '%s'",
+              PapyrusLexer.VOCABULARY.getSymbolicName(token.getType()),
+              token.getStartIndex(),
+              token.getStopIndex(),
+              token.getLine(),
+              token.getCharPositionInLine(),
+              token.getText()));
+    } while (token.getType() != Token.EOF);
+    return tokens;
+  }
+
+  /** Records every reported error as "line:column message". */
+  private static final class ErrorCollector extends BaseErrorListener {
+    final List<String> errors = new ArrayList<>();
+    final List<String> offendingTexts = new ArrayList<>();
+
+    @Override
+    public void syntaxError(
+        Recognizer<?, ?> recognizer,
+        Object offendingSymbol,
+        int line,
+        int charPositionInLine,
+        String msg,
+        RecognitionException e) {
+      errors.add(String.format("%d:%d %s", line, charPositionInLine, msg));
+      if (offendingSymbol instanceof Token token) {
+        offendingTexts.add(token.getText());
+      }
+    }
+  }
+}
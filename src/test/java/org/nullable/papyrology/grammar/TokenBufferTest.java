@@ -0,0 +1,127 @@
+package org.nullable.papyrology.grammar;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.testing.CorpusGenerator;
+
+@RunWith(JUnit4.class)
+public class TokenBufferTest {
+
+  private static final String SOURCE = "ScriptName Foo\n\nInt x = -1 ; comment\n";
+
+  @Test
+  public void create_matchesCommonTokenStream() {
+    CorpusGenerator corpus = CorpusGenerator.builder().setSeed(22).setScriptCount(20).build();
+    for (int i = 0; i < corpus.scriptCount(); i++) {
+      String source = corpus.source(i);
+      CommonTokenStream expected =
+          new CommonTokenStream(new PapyrusLexer(CharStreams.fromString(source)));
+      expected.fill();
+
+      TokenBuffer buffer = buffer(source);
+
+      assertThat(describe(buffer)).containsExactlyElementsIn(describe(expected)).inOrder();
+    }
+  }
+
+  @Test
+  public void create_packsEveryToken() {
+    TokenBuffer buffer = buffer(SOURCE);
+
+    assertThat(buffer.size()).isEqualTo(10);
+    assertThat(buffer.type(5)).isEqualTo(PapyrusLexer.ID);
+    assertThat(buffer.text(5)).isEqualTo("x");
+    assertThat(buffer.startIndex(5)).isEqualTo(20);
+    assertThat(buffer.stopIndex(5)).isEqualTo(20);
+    assertThat(buffer.line(5)).isEqualTo(3);
+    assertThat(buffer.column(5)).isEqualTo(4);
+    assertThat(buffer.type(9)).isEqualTo(Token.EOF);
+    assertThat(buffer.text(9)).isEqualTo("<EOF>");
+  }
+
+  @Test
+  public void get_returnsTheSameToken() {
+    TokenBuffer buffer = buffer(SOURCE);
+
+    assertThat(buffer.get(3)).isSameInstanceAs(buffer.get(3));
+    assertThat(buffer.get(3).getText()).isEqualTo("\n");
+    assertThat(buffer.get(3).getTokenIndex()).isEqualTo(3);
+  }
+
+  @Test
+  public void stream_looksAheadAndBehind() {
+    TokenStream stream = buffer(SOURCE).stream();
+
+    assertThat(stream.LT(-1)).isNull();
+    assertThat(stream.LA(1)).isEqualTo(PapyrusLexer.K_SCRIPT_NAME);
+    assertThat(stream.LA(2)).isEqualTo(PapyrusLexer.ID);
+    stream.consume();
+    stream.consume();
+    assertThat(stream.index()).isEqualTo(2);
+    assertThat(stream.LT(-1).getText()).isEqualTo("Foo");
+    assertThat(stream.LT(1).getType()).isEqualTo(PapyrusLexer.NEWLINE);
+    assertThat(stream.LA(100)).isEqualTo(Token.EOF);
+  }
+
+  @Test
+  public void stream_cannotConsumeEof() {
+    TokenStream stream = buffer(SOURCE).stream();
+
+    stream.seek(9);
+
+    assertThat(stream.LA(1)).isEqualTo(Token.EOF);
+    assertThrows(IllegalStateException.class, stream::consume);
+  }
+
+  @Test
+  public void stream_getsTextOfTokens() {
+    TokenStream stream = buffer(SOURCE).stream();
+
+    assertThat(stream.getText(stream.get(4), stream.get(7))).isEqualTo("Intx=-1");
+    assertThat(stream.getText()).isEqualTo("ScriptNameFoo\n\nIntx=-1\n");
+  }
+
+  @Test
+  public void stream_parsesLikeCommonTokenStream() {
+    CorpusGenerator corpus = CorpusGenerator.builder().setSeed(22).setScriptCount(20).build();
+    for (int i = 0; i < corpus.scriptCount(); i++) {
+      String source = corpus.source(i);
+      PapyrusLexer lexer = new PapyrusLexer(CharStreams.fromString(source));
+      PapyrusParser expected = new PapyrusParser(new CommonTokenStream(lexer));
+      PapyrusParser actual = new PapyrusParser(buffer(source).stream());
+
+      assertThat(actual.script().toStringTree(actual))
+          .isEqualTo(expected.script().toStringTree(expected));
+    }
+  }
+
+  private static TokenBuffer buffer(String source) {
+    return TokenBuffer.create(PapyrusTokenizer.create(CharStreams.fromString(source)));
+  }
+
+  private static List<String> describe(TokenBuffer buffer) {
+    List<String> tokens = new ArrayList<>();
+    for (int i = 0; i < buffer.size(); i++) {
+      tokens.add(buffer.get(i).toString());
+    }
+    return tokens;
+  }
+
+  private static List<String> describe(CommonTokenStream stream) {
+    List<String> tokens = new ArrayList<>();
+    for (Token token : stream.getTokens()) {
+      tokens.add(token.toString());
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,68 @@
+package org.nullable.papyrology.metrics;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class HistogramTest {
+
+  @Test
+  public void empty_reportsZero() {
+    Histogram histogram = Histogram.create();
+
+    assertThat(histogram.count()).isEqualTo(0);
+    assertThat(histogram.mean()).isEqualTo(0.0);
+    assertThat(histogram.percentile(50)).isEqualTo(0);
+    assertThat(histogram.max()).isEqualTo(0);
+  }
+
+  @Test
+  public void smallValues_areExact() {
+    Histogram histogram = Histogram.create();
+    for (int i = 1; i <= 10; i++) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.count()).isEqualTo(10);
+    assertThat(histogram.sum()).isEqualTo(55);
+    assertThat(histogram.mean()).isEqualTo(5.5);
+    assertThat(histogram.percentile(0)).isEqualTo(1);
+    assertThat(histogram.percentile(50)).isEqualTo(5);
+    assertThat(histogram.percentile(90)).isEqualTo(9);
+    assertThat(histogram.percentile(100)).isEqualTo(10);
+  }
+
+  @Test
+  public void largeValues_areWithinRelativeError() {
+    Histogram histogram = Histogram.create();
+    for (long i = 1; i <= 100_000; i++) {
+      histogram.record(i * 1_000);
+    }
+
+    assertThat((double) histogram.percentile(50)).isWithin(0.035 * 50_000_000).of(50_000_000);
+    assertThat((double) histogram.percentile(99)).isWithin(0.035 * 99_000_000).of(99_000_000);
+    assertThat(histogram.percentile(100)).isEqualTo(100_000_000);
+    assertThat(histogram.max()).isEqualTo(100_000_000);
+  }
+
+  @Test
+  public void extremeValues_areRecorded() {
+    Histogram histogram = Histogram.create();
+    histogram.record(0);
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.percentile(50)).isEqualTo(0);
+    assertThat(histogram.percentile(100)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void record_rejectsNegativeValues() {
+    Histogram histogram = Histogram.create();
+
+    assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+  }
+}
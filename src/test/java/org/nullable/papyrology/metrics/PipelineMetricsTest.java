@@ -0,0 +1,94 @@
+package org.nullable.papyrology.metrics;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.ast.symbol.SymbolTable;
+
+@RunWith(JUnit4.class)
+public class PipelineMetricsTest {
+
+  private static final String SOURCE =
+      String.join(
+          "\n",
+          "ScriptName Alpha",
+          "Int Property Count = 1 Auto",
+          "Function Foo(Int a)",
+          "  If a > Count",
+          "    Count = a",
+          "  EndIf",
+          "EndFunction",
+          "");
+
+  @Test
+  public void start_recordsDuration() {
+    PipelineMetrics metrics = PipelineMetrics.create();
+
+    try (PhaseTimer timer = metrics.start(Phase.LEX, "Alpha")) {
+      timer.setBytes(42);
+    }
+
+    assertThat(metrics.durations(Phase.LEX).count()).isEqualTo(1);
+    assertThat(metrics.durations(Phase.PARSE).count()).isEqualTo(0);
+    assertThat(metrics.report()).contains("LEX");
+    assertThat(metrics.report()).doesNotContain("PARSE");
+  }
+
+  @Test
+  public void global_timesEveryPhaseOfThePipeline() {
+    PipelineMetrics metrics = PipelineMetrics.global();
+    long lexed = metrics.durations(Phase.LEX).count();
+    long parsed = metrics.durations(Phase.PARSE).count();
+    long built = metrics.durations(Phase.BUILD_AST).count();
+    long collected = metrics.durations(Phase.COLLECT_SYMBOLS).count();
+
+    SymbolTable.create().upsert(ScriptParser.create().parse(SOURCE));
+
+    assertThat(metrics.durations(Phase.LEX).count()).isEqualTo(lexed + 1);
+    assertThat(metrics.durations(Phase.PARSE).count()).isEqualTo(parsed + 1);
+    assertThat(metrics.durations(Phase.BUILD_AST).count()).isEqualTo(built + 1);
+    assertThat(metrics.durations(Phase.COLLECT_SYMBOLS).count()).isEqualTo(collected + 1);
+  }
+
+  @Test
+  public void recording_capturesPhaseEvents() throws IOException {
+    Path file = Files.createTempFile("pipeline", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(PhaseEvent.class).withThreshold(Duration.ZERO);
+      recording.start();
+      Script script = ScriptParser.create().parse(SOURCE);
+      SymbolTable.create().upsert(script);
+      recording.stop();
+      recording.dump(file);
+    }
+
+    ImmutableList<RecordedEvent> events =
+        RecordingFile.readAllEvents(file).stream()
+            .filter(e -> e.getEventType().getName().equals("org.nullable.papyrology.Phase"))
+            .collect(toImmutableList());
+    assertThat(events.stream().map(e -> e.getString("phase")).collect(toImmutableList()))
+        .containsExactly("LEX", "PARSE", "BUILD_AST", "COLLECT_SYMBOLS")
+        .inOrder();
+    RecordedEvent lex = events.get(0);
+    assertThat(lex.getLong("bytes")).isEqualTo(SOURCE.length());
+    assertThat(lex.getLong("tokens")).isGreaterThan(0L);
+    assertThat(events.get(1).getLong("nodes")).isGreaterThan(lex.getLong("tokens"));
+    assertThat(events.get(2).getString("script")).isEqualTo("Alpha");
+    assertThat(events.get(3).getString("script")).isEqualTo("Alpha");
+    // The Script, the Property, the Function (and its body) and the If's block.
+    assertThat(events.get(3).getLong("scopes")).isEqualTo(4);
+  }
+}
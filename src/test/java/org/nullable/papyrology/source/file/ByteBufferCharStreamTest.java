@@ -0,0 +1,96 @@
+package org.nullable.papyrology.source.file;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ByteBufferCharStreamTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final String CONTENT = "ScriptName Form\n; A comment.\n";
+
+  @Test
+  public void behavesLikeCodePointCharStream() {
+    CharStream expected = CharStreams.fromString(CONTENT, "Form.psc");
+    CharStream actual = ByteBufferCharStream.create(wrap(CONTENT), "Form.psc");
+
+    assertThat(actual.size()).isEqualTo(expected.size());
+    assertThat(actual.getSourceName()).isEqualTo(expected.getSourceName());
+    while (expected.LA(1) != IntStream.EOF) {
+      assertThat(actual.index()).isEqualTo(expected.index());
+      assertThat(actual.LA(1)).isEqualTo(expected.LA(1));
+      assertThat(actual.LA(2)).isEqualTo(expected.LA(2));
+      assertThat(actual.LA(-1)).isEqualTo(expected.LA(-1));
+      expected.consume();
+      actual.consume();
+    }
+    assertThat(actual.LA(1)).isEqualTo(IntStream.EOF);
+    assertThrows(IllegalStateException.class, actual::consume);
+    assertThat(actual.getText(Interval.of(11, 14)))
+        .isEqualTo(expected.getText(Interval.of(11, 14)));
+    assertThat(actual.getText(Interval.of(20, 100)))
+        .isEqualTo(expected.getText(Interval.of(20, 100)));
+  }
+
+  @Test
+  public void seek_rewinds() {
+    CharStream stream = ByteBufferCharStream.create(wrap(CONTENT), "Form.psc");
+    stream.consume();
+    stream.consume();
+
+    stream.seek(0);
+
+    assertThat(stream.index()).isEqualTo(0);
+    assertThat(stream.LA(1)).isEqualTo('S');
+  }
+
+  @Test
+  public void byteOrderMark_skipped() {
+    ByteBuffer buffer = ByteBuffer.allocate(CONTENT.length() + 3);
+    buffer.put(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+    buffer.put(CONTENT.getBytes(ISO_8859_1));
+    buffer.flip();
+
+    CharStream stream = ByteBufferCharStream.create(buffer, "Form.psc");
+
+    assertThat(stream.size()).isEqualTo(CONTENT.length());
+    assertThat(stream.toString()).isEqualTo(CONTENT);
+  }
+
+  @Test
+  public void mappedFile_read() throws IOException {
+    Path path = temporaryFolder.newFile("Form.psc").toPath();
+    Files.writeString(path, CONTENT, ISO_8859_1);
+
+    CharStream stream;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      stream =
+          ByteBufferCharStream.create(
+              channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path.toString());
+    }
+
+    assertThat(stream.toString()).isEqualTo(CONTENT);
+  }
+
+  private static ByteBuffer wrap(String content) {
+    return ByteBuffer.wrap(content.getBytes(ISO_8859_1));
+  }
+}
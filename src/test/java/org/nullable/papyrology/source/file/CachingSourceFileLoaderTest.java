@@ -0,0 +1,98 @@
+package org.nullable.papyrology.source.file;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CachingSourceFileLoaderTest {
+
+  private static final String SCRIPT_ID = "Form";
+  private static final FileTime LONG_AGO = FileTime.from(Instant.parse("2020-01-01T00:00:00Z"));
+
+  private Path scriptPath;
+  private CachingSourceFileLoader loader;
+
+  @Before
+  public void setUp() throws IOException {
+    FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    Path directory = fs.getPath("test");
+    Files.createDirectory(directory);
+    scriptPath = directory.resolve(SCRIPT_ID + ".psc");
+    Files.writeString(scriptPath, "ScriptName Form", StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(scriptPath, LONG_AGO);
+
+    loader =
+        CachingSourceFileLoader.create(
+            FileSystemBasedSourceFileLoader.create(fs, "test"), /* maximumBytes= */ 1024);
+  }
+
+  @Test
+  public void unchangedFile_cached() {
+    SourceFile first = loader.load(SCRIPT_ID);
+
+    SourceFile second = loader.load("form");
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(loader.stats().hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void modifiedFile_reloaded() throws IOException {
+    SourceFile first = loader.load(SCRIPT_ID);
+    Files.writeString(scriptPath, "ScriptName Form Extends Base", StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(scriptPath, FileTime.fromMillis(0));
+
+    SourceFile second = loader.load(SCRIPT_ID);
+
+    assertThat(first.getContent()).isEqualTo("ScriptName Form");
+    assertThat(second.getContent()).isEqualTo("ScriptName Form Extends Base");
+  }
+
+  @Test
+  public void touchedFile_reloaded() throws IOException {
+    SourceFile first = loader.load(SCRIPT_ID);
+    Files.setLastModifiedTime(scriptPath, FileTime.fromMillis(0));
+
+    SourceFile second = loader.load(SCRIPT_ID);
+
+    assertThat(second).isNotSameInstanceAs(first);
+    assertThat(second).isEqualTo(first);
+  }
+
+  @Test
+  public void fileOverBudget_notCached() throws IOException {
+    Files.writeString(scriptPath, "ScriptName Form\n" + ";".repeat(1024), StandardCharsets.UTF_8);
+    Files.setLastModifiedTime(scriptPath, LONG_AGO);
+
+    SourceFile first = loader.load(SCRIPT_ID);
+    SourceFile second = loader.load(SCRIPT_ID);
+
+    assertThat(second).isNotSameInstanceAs(first);
+  }
+
+  @Test
+  public void recentlyModifiedFile_notCached() throws IOException {
+    // The file could still be changing, and a change within the same second as the read would
+    // leave its stamp untouched.
+    Files.setLastModifiedTime(scriptPath, FileTime.from(Instant.now()));
+
+    SourceFile first = loader.load(SCRIPT_ID);
+    SourceFile second = loader.load(SCRIPT_ID);
+
+    assertThat(second).isNotSameInstanceAs(first);
+    assertThat(second).isEqualTo(first);
+  }
+}
@@ -3,20 +3,26 @@ package org.nullable.papyrology.source.file;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.jimfs.Configuration;
 import com.google.common.jimfs.Jimfs;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.misc.Interval;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
+import org.nullable.papyrology.source.file.FileSystemBasedSourceFileLoader.Location;
 
 @RunWith(Parameterized.class)
 public class FileSystemBasedSourceFileLoaderTest {
@@ -32,12 +38,13 @@ public class FileSystemBasedSourceFileLoaderTest {
   @Parameter(0)
   public Configuration config;
 
+  private FileSystem fs;
   private FileSystemBasedSourceFileLoader loader;
   private Path scriptPath;
 
   @Before
   public void setUp() throws IOException {
-    FileSystem fs = Jimfs.newFileSystem(config);
+    fs = Jimfs.newFileSystem(config);
     Path directory = fs.getPath("test");
     Files.createDirectory(directory);
     // Create a script in the directory we're loading from.
@@ -82,4 +89,113 @@ public class FileSystemBasedSourceFileLoaderTest {
 
     assertThat(exception).hasMessageThat().contains("Could not locate");
   }
+
+  @Test
+  public void open_readsContent() {
+    CharStream stream = loader.open(SCRIPT_ID.toLowerCase(Locale.US));
+
+    assertThat(stream.getSourceName()).isEqualTo(scriptPath.toString());
+    assertThat(stream.getText(Interval.of(0, stream.size() - 1))).isEqualTo(SCRIPT_CONTENT);
+  }
+
+  @Test
+  public void multipleRoots_nestedFileName_loaded() throws IOException {
+    Path nestedPath = writeScript("mods/a/scripts/source", "Nested");
+
+    FileSystemBasedSourceFileLoader multiRootLoader =
+        FileSystemBasedSourceFileLoader.create(fs, ImmutableList.of("mods/a", "test"));
+
+    assertThat(multiRootLoader.load("nested").getContent()).isEqualTo("ScriptName Nested");
+    assertThat(multiRootLoader.locate("NESTED"))
+        .isEqualTo(Location.create(fs.getPath("mods/a"), nestedPath));
+    assertThat(multiRootLoader.locate(SCRIPT_ID))
+        .isEqualTo(Location.create(fs.getPath("test"), scriptPath));
+  }
+
+  @Test
+  public void multipleRoots_collidingFileName_firstRootWins() throws IOException {
+    Path overridePath = writeScript("mods/a", SCRIPT_ID);
+    Path shadowedPath = writeScript("mods/b", SCRIPT_ID);
+
+    FileSystemBasedSourceFileLoader multiRootLoader =
+        FileSystemBasedSourceFileLoader.create(fs, ImmutableList.of("mods/a", "mods/b"));
+
+    assertThat(multiRootLoader.locate(SCRIPT_ID))
+        .isEqualTo(Location.create(fs.getPath("mods/a"), overridePath));
+    assertThat(multiRootLoader.collisions().get(SCRIPT_ID.toUpperCase(Locale.US)))
+        .containsExactly(
+            Location.create(fs.getPath("mods/a"), overridePath),
+            Location.create(fs.getPath("mods/b"), shadowedPath))
+        .inOrder();
+  }
+
+  @Test
+  public void multipleRoots_collidingFileNameWithinRoot_firstRelativePathWins() throws IOException {
+    Path last = writeScript("mods/a/z", SCRIPT_ID);
+    Path third = writeScript("mods/a/b/c", SCRIPT_ID);
+    Path first = writeScript("mods/a", SCRIPT_ID);
+    Path second = writeScript("mods/a/b", SCRIPT_ID);
+
+    FileSystemBasedSourceFileLoader multiRootLoader =
+        FileSystemBasedSourceFileLoader.create(fs, ImmutableList.of("mods/a"));
+
+    assertThat(multiRootLoader.locate(SCRIPT_ID))
+        .isEqualTo(Location.create(fs.getPath("mods/a"), first));
+    assertThat(multiRootLoader.collisions().get(SCRIPT_ID.toUpperCase(Locale.US)))
+        .containsExactly(
+            Location.create(fs.getPath("mods/a"), first),
+            Location.create(fs.getPath("mods/a"), second),
+            Location.create(fs.getPath("mods/a"), third),
+            Location.create(fs.getPath("mods/a"), last))
+        .inOrder();
+  }
+
+  @Test
+  public void multipleRoots_identifiers_sortedAndDistinct() throws IOException {
+    writeScript("mods/a", SCRIPT_ID);
+    writeScript("mods/a/nested", "Actor");
+    writeScript("mods/b", "Quest");
+
+    FileSystemBasedSourceFileLoader multiRootLoader =
+        FileSystemBasedSourceFileLoader.create(fs, ImmutableList.of("mods/a", "mods/b", "test"));
+
+    assertThat(multiRootLoader.identifiers())
+        .containsExactly("ACTOR", "FORM", "QUEST")
+        .inOrder();
+  }
+
+  @Test
+  public void multipleRoots_missingRoot_exception() {
+    FileSystemBasedSourceFileLoader multiRootLoader =
+        FileSystemBasedSourceFileLoader.create(fs, ImmutableList.of("missing", "test"));
+
+    SourceFileLoadException exception =
+        assertThrows(SourceFileLoadException.class, () -> multiRootLoader.load(SCRIPT_ID));
+
+    assertThat(exception).hasMessageThat().contains("Failed to enumerate");
+  }
+
+  @Test
+  public void multipleRoots_rejectedByExecutor_exception() {
+    FileSystemBasedSourceFileLoader multiRootLoader =
+        FileSystemBasedSourceFileLoader.create(
+            fs,
+            ImmutableList.of("test"),
+            task -> {
+              throw new RejectedExecutionException();
+            });
+
+    SourceFileLoadException exception =
+        assertThrows(SourceFileLoadException.class, multiRootLoader::identifiers);
+
+    assertThat(exception).hasCauseThat().isInstanceOf(RejectedExecutionException.class);
+  }
+
+  @CanIgnoreReturnValue
+  private Path writeScript(String directory, String identifier) throws IOException {
+    Path path = fs.getPath(directory).resolve(identifier + ".psc");
+    Files.createDirectories(path.getParent());
+    Files.writeString(path, "ScriptName " + identifier, StandardCharsets.UTF_8);
+    return path;
+  }
 }
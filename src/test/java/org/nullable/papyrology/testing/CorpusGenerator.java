@@ -0,0 +1,612 @@
+package org.nullable.papyrology.testing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Ascii;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.FormatMethod;
+import com.google.errorprone.annotations.FormatString;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a deterministic corpus of synthetic, valid Papyrus scripts for stress tests and
+ * benchmarks.
+ *
+ * <p>Each script is generated independently from the seed and its index, so a corpus of any size
+ * (from one to hundreds of thousands of scripts) can be enumerated, sampled or written out lazily,
+ * and the same configuration always yields exactly the same sources. Within a corpus of a few dozen
+ * scripts every production of {@code Papyrus.g4} is exercised.
+ *
+ * <p>The corpus is shaped like a mod ecosystem:
+ *
+ * <ul>
+ *   <li>the first {@code libraryCount} scripts are libraries of global functions, a few of which
+ *       every other script imports (so each library has a heavy import fan-in); and
+ *   <li>the remaining scripts form {@code Extends} chains of up to {@code maximumExtendsDepth}
+ *       ancestors.
+ * </ul>
+ */
+public final class CorpusGenerator {
+
+  /** The distribution of the number of declarations in each generated script. */
+  @FunctionalInterface
+  public interface SizeDistribution {
+
+    /** Returns the number of declarations of a script (at least 1), drawn from {@code random}. */
+    int sample(SplittableRandom random);
+
+    /** Returns a {@code SizeDistribution} where every script has {@code declarations}. */
+    static SizeDistribution fixed(int declarations) {
+      checkArgument(declarations > 0, "SizeDistribution::fixed passed a non-positive size.");
+      return random -> declarations;
+    }
+
+    /**
+     * Returns a {@code SizeDistribution} where scripts have between {@code minimum} and {@code
+     * maximum} (inclusive) declarations with equal probability.
+     */
+    static SizeDistribution uniform(int minimum, int maximum) {
+      checkArgument(
+          0 < minimum && minimum <= maximum, "SizeDistribution::uniform passed an invalid range.");
+      return random -> random.nextInt(minimum, maximum + 1);
+    }
+
+    /**
+     * Returns a log-normal {@code SizeDistribution} (capped at {@code maximum}): most scripts are
+     * close to {@code median} declarations, but a few are very large, as in a real project.
+     */
+    static SizeDistribution longTailed(int median, int maximum) {
+      checkArgument(
+          0 < median && median <= maximum, "SizeDistribution::longTailed passed an invalid range.");
+      return random -> {
+        long size = Math.round(median * Math.exp(random.nextGaussian()));
+        return (int) Math.max(1, Math.min(maximum, size));
+      };
+    }
+  }
+
+  private static final String[] BINARY_OPERATORS = {
+    "||", "&&", "==", "!=", ">", ">=", "<", "<=", "+", "-", "*", "/", "%"
+  };
+  private static final String[] ASSIGNMENT_OPERATORS = {"=", "+=", "-=", "*=", "/=", "%="};
+  private static final String[] TYPES = {"Int", "Float", "Bool", "String", "ObjectReference"};
+  private static final ImmutableList<String> FIELDS =
+      ImmutableList.of("counter", "ratio", "flag", "label", "target");
+
+  private final long seed;
+  private final int scriptCount;
+  private final int libraryCount;
+  private final int importsPerScript;
+  private final int maximumExtendsDepth;
+  private final int maximumNestingDepth;
+  private final int maximumExpressionDepth;
+  private final SizeDistribution sizeDistribution;
+  private final String nameFormat;
+
+  private CorpusGenerator(Builder builder) {
+    this.seed = builder.seed;
+    this.scriptCount = builder.scriptCount;
+    this.libraryCount = Math.min(builder.libraryCount, builder.scriptCount);
+    this.importsPerScript = Math.min(builder.importsPerScript, libraryCount);
+    this.maximumExtendsDepth = builder.maximumExtendsDepth;
+    this.maximumNestingDepth = builder.maximumNestingDepth;
+    this.maximumExpressionDepth = builder.maximumExpressionDepth;
+    this.sizeDistribution = builder.sizeDistribution;
+    this.nameFormat = "Script%0" + String.valueOf(scriptCount - 1).length() + "d";
+  }
+
+  /** Returns a new {@link Builder} with the default configuration. */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Returns the number of scripts in this corpus. */
+  public int scriptCount() {
+    return scriptCount;
+  }
+
+  /** Returns the name of the script with the given {@code index}. */
+  public String name(int index) {
+    checkIndex(index);
+    return String.format(nameFormat, index);
+  }
+
+  /** Returns the names of every script in this corpus (computed lazily), in index order. */
+  public List<String> names() {
+    return new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        return name(index);
+      }
+
+      @Override
+      public int size() {
+        return scriptCount;
+      }
+    };
+  }
+
+  /** Returns whether the script with the given {@code index} is a library of global functions. */
+  public boolean isLibrary(int index) {
+    checkIndex(index);
+    return index < libraryCount;
+  }
+
+  /** Returns the index of the script that the given script extends, or {@code -1} if none. */
+  public int parentIndex(int index) {
+    checkIndex(index);
+    if (isLibrary(index) || (index - libraryCount) % (maximumExtendsDepth + 1) == 0) {
+      return -1;
+    }
+    return index - 1;
+  }
+
+  /** Returns the source of the script with the given {@code index}. */
+  public String source(int index) {
+    checkIndex(index);
+    return new ScriptWriter(index, new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L))
+        .write();
+  }
+
+  /**
+   * Writes every script of this corpus to a {@code .psc} file (named after the script) in the given
+   * {@code directory}, creating it if necessary.
+   */
+  public void writeTo(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    for (int i = 0; i < scriptCount; i++) {
+      Files.writeString(directory.resolve(name(i) + ".psc"), source(i), UTF_8);
+    }
+  }
+
+  private void checkIndex(int index) {
+    checkArgument(
+        0 <= index && index < scriptCount, "CorpusGenerator passed an invalid index: %s", index);
+  }
+
+  /** Writes the source of a single script. */
+  private final class ScriptWriter {
+    private final int index;
+    private final SplittableRandom random;
+    private final StringBuilder source;
+    private final boolean isLibrary;
+    private final boolean hasParent;
+    private final List<String> imports;
+    private final List<String> functions;
+    private final List<String> locals;
+    private int indent;
+    private int nextLocal;
+    private boolean hasAutoState;
+
+    ScriptWriter(int index, SplittableRandom random) {
+      this.index = index;
+      this.random = random;
+      this.source = new StringBuilder();
+      this.isLibrary = isLibrary(index);
+      this.hasParent = parentIndex(index) >= 0;
+      this.imports = new ArrayList<>();
+      this.functions = new ArrayList<>();
+      this.locals = new ArrayList<>();
+    }
+
+    String write() {
+      int declarations = sizeDistribution.sample(random);
+      header();
+      line("; Generated by CorpusGenerator (seed %d, script %d).", seed, index);
+      if (isLibrary) {
+        for (int i = 0; i < declarations; i++) {
+          libraryFunction(i);
+        }
+        return source.toString();
+      }
+      imports();
+      line(";/ Script variables, one of each");
+      line("   kind of type. /;");
+      line("Int counter = %s Conditional", literal("Int"));
+      line("Float ratio = %s", literal("Float"));
+      line("Bool flag = %s", literal("Bool"));
+      line("String label = %s", literal("String"));
+      line("ObjectReference target");
+      line("ObjectReference[] targets");
+      line("");
+      int offset = random.nextInt(8);
+      for (int i = 0; i < declarations; i++) {
+        declaration((offset + i) % 8, i);
+      }
+      return source.toString();
+    }
+
+    private void header() {
+      StringBuilder header = new StringBuilder("ScriptName ").append(name(index));
+      if (hasParent) {
+        header.append(" Extends ").append(name(parentIndex(index)));
+      }
+      if (random.nextBoolean()) {
+        header.append(" Conditional");
+      }
+      if (random.nextInt(4) == 0) {
+        header.append(" Hidden");
+      }
+      line("%s", header);
+      line("{A generated script.}");
+    }
+
+    private void imports() {
+      Set<String> imported = new LinkedHashSet<>();
+      while (imported.size() < importsPerScript) {
+        imported.add(name(random.nextInt(libraryCount)));
+      }
+      for (String library : imported) {
+        line("Import %s", library);
+        imports.add(library);
+      }
+    }
+
+    private void libraryFunction(int i) {
+      String name = "Global" + i;
+      if (i % 3 == 2) {
+        line("Int Function %s(Int a, Float b = 1.0) Native Global", name);
+      } else {
+        line("Int Function %s(Int a, Float b = 1.0) Global", name);
+        body(/* returnsValue= */ true, ImmutableList.of("a", "b"));
+        line("EndFunction");
+      }
+      functions.add(name);
+    }
+
+    private void declaration(int kind, int i) {
+      switch (kind) {
+        case 0 -> autoProperty(i);
+        case 1 -> autoReadOnlyProperty(i);
+        case 2 -> fullProperty(i);
+        case 3 -> function("Compute" + i, /* isGlobal= */ random.nextInt(4) == 0);
+        case 4 -> nativeFunction(i);
+        case 5 -> event("OnEvent" + i);
+        case 6 -> line("Event OnNative%d(ObjectReference akSender) Native", i);
+        default -> state(i);
+      }
+    }
+
+    private void autoProperty(int i) {
+      String type = type();
+      StringBuilder declaration = new StringBuilder(type).append(" Property Count").append(i);
+      if (random.nextBoolean()) {
+        declaration.append(" = ").append(literal(type));
+      }
+      declaration.append(" Auto");
+      if (random.nextBoolean()) {
+        declaration.append(" Conditional");
+      }
+      if (random.nextBoolean()) {
+        declaration.append(" Hidden");
+      }
+      if (random.nextBoolean()) {
+        declaration.append(" {An auto property.}");
+      }
+      line("%s", declaration);
+    }
+
+    private void autoReadOnlyProperty(int i) {
+      String type = type();
+      line(
+          "%s Property Limit%d = %s AutoReadOnly%s",
+          type, i, literal(type), random.nextBoolean() ? " Hidden" : "");
+    }
+
+    private void fullProperty(int i) {
+      String type = pick(TYPES);
+      line("%s Property Total%d%s", type, i, random.nextBoolean() ? " Hidden" : "");
+      line("{A full property.}");
+      indent++;
+      int accessors = random.nextInt(3);
+      if (accessors != 1) {
+        line("%s Function Get()", type);
+        body(/* returnsValue= */ true, ImmutableList.of());
+        line("EndFunction");
+      }
+      if (accessors != 0) {
+        line("Function Set(%s value)", type);
+        body(/* returnsValue= */ false, ImmutableList.of("value"));
+        line("EndFunction");
+      }
+      indent--;
+      line("EndProperty");
+    }
+
+    private void function(String name, boolean isGlobal) {
+      line(
+          "Float Function %s(Int a, Float b = 1.0, String c = \"\")%s",
+          name, isGlobal ? " Global" : "");
+      if (random.nextBoolean()) {
+        line("{Computes a value.}");
+      }
+      body(/* returnsValue= */ true, ImmutableList.of("a", "b", "c"));
+      line("EndFunction");
+      functions.add(name);
+    }
+
+    private void nativeFunction(int i) {
+      switch (random.nextInt(3)) {
+        case 0 -> line("Int Function Native%d(Bool abFlag) Native Global", i);
+        case 1 -> line("Function Native%d() Global Native", i);
+        default -> line("String[] Function Native%d(Int[] aiValues) Native", i);
+      }
+    }
+
+    private void event(String name) {
+      line("Event %s(ObjectReference akSender, Int aiCount = 0)", name);
+      body(/* returnsValue= */ false, ImmutableList.of("akSender", "aiCount"));
+      line("EndEvent");
+    }
+
+    private void state(int i) {
+      boolean isAuto = !hasAutoState && random.nextBoolean();
+      hasAutoState |= isAuto;
+      line("%sState Waiting%d", isAuto ? "Auto " : "", i);
+      indent++;
+      function("Update" + i, /* isGlobal= */ false);
+      event("OnState" + i);
+      indent--;
+      line("EndState");
+    }
+
+    private void body(boolean returnsValue, List<String> parameters) {
+      locals.clear();
+      locals.addAll(parameters);
+      nextLocal = 0;
+      indent++;
+      block(/* nesting= */ 0, 1 + random.nextInt(6));
+      if (returnsValue) {
+        line("Return %s", expression(0));
+      } else if (random.nextBoolean()) {
+        line("Return");
+      }
+      indent--;
+    }
+
+    private void block(int nesting, int statements) {
+      int scope = locals.size();
+      for (int i = 0; i < statements; i++) {
+        statement(nesting);
+      }
+      locals.subList(scope, locals.size()).clear();
+    }
+
+    private void statement(int nesting) {
+      int kinds = nesting < maximumNestingDepth ? 6 : 4;
+      switch (random.nextInt(kinds)) {
+        case 0 -> {
+          String type = type();
+          String local = "local" + nextLocal++;
+          line("%s %s = %s", type, local, expression(0));
+          locals.add(local);
+        }
+        case 1 -> line("%s %s %s", assignee(), pick(ASSIGNMENT_OPERATORS), expression(0));
+        case 2 -> line("%s", call());
+        case 3 -> {
+          String element = pick(TYPES);
+          String local = "local" + nextLocal++;
+          line("%s[] %s = New %s[%d]", element, local, element, 1 + random.nextInt(128));
+          locals.add(local);
+        }
+        case 4 -> {
+          line("If %s", expression(0));
+          nested(nesting);
+          for (int i = random.nextInt(3); i > 0; i--) {
+            line("ElseIf %s", expression(0));
+            nested(nesting);
+          }
+          if (random.nextBoolean()) {
+            line("Else");
+            nested(nesting);
+          }
+          line("EndIf");
+        }
+        default -> {
+          line("While %s", expression(0));
+          nested(nesting);
+          line("EndWhile");
+        }
+      }
+    }
+
+    private void nested(int nesting) {
+      indent++;
+      block(nesting + 1, 1 + random.nextInt(3));
+      indent--;
+    }
+
+    private String assignee() {
+      return switch (random.nextInt(3)) {
+        case 0 -> pick(FIELDS);
+        case 1 -> "Self." + pick(FIELDS);
+        default -> "targets[" + expression(maximumExpressionDepth) + "]";
+      };
+    }
+
+    private String expression(int depth) {
+      if (depth >= maximumExpressionDepth || random.nextInt(3) == 0) {
+        return random.nextBoolean() ? variable() : literal(type());
+      }
+      int next = depth + 1;
+      return switch (random.nextInt(11)) {
+        case 0, 1 -> expression(next) + " " + pick(BINARY_OPERATORS) + " " + expression(next);
+        case 2 -> (random.nextBoolean() ? "-" : "!") + variable();
+        case 3 -> "!(" + expression(next) + ")";
+        case 4 -> variable() + " As " + type();
+        case 5 -> call();
+        case 6 -> "Self." + pick(FIELDS);
+        case 7 -> "targets.Length";
+        case 8 -> "targets[" + expression(next) + "]";
+        case 9 -> "(" + expression(next) + ")";
+        default -> chain();
+      };
+    }
+
+    /** Returns a long, flat expression of shallow terms that is continued over several lines. */
+    private String chain() {
+      int depth = Math.max(0, maximumExpressionDepth - 1);
+      StringBuilder chain = new StringBuilder(expression(depth));
+      for (int i = 4 + random.nextInt(12); i > 0; i--) {
+        chain.append(" ").append(pick(BINARY_OPERATORS));
+        if (i % 4 == 0) {
+          chain.append(" \\\n").append("  ".repeat(indent + 2));
+        } else {
+          chain.append(" ");
+        }
+        chain.append(expression(depth));
+      }
+      return chain.toString();
+    }
+
+    private String call() {
+      String arguments = "1, b = " + expression(maximumExpressionDepth);
+      return switch (random.nextInt(4)) {
+        case 0 -> functions.isEmpty() ? "GetState()" : pick(functions) + "(" + arguments + ")";
+        case 1 -> imports.isEmpty() ? "GetState()" : pick(imports) + ".Global0(" + arguments + ")";
+        case 2 -> (hasParent ? "Parent" : "Self") + ".OnInit()";
+        default -> "target.MoveTo(target, afXOffset = 0.5)";
+      };
+    }
+
+    private String variable() {
+      return random.nextBoolean() && !locals.isEmpty() ? pick(locals) : pick(FIELDS);
+    }
+
+    private String type() {
+      String type = pick(TYPES);
+      return random.nextInt(4) == 0 ? type + "[]" : type;
+    }
+
+    private String literal(String type) {
+      return switch (type) {
+        case "Int" ->
+            switch (random.nextInt(3)) {
+              case 0 -> String.valueOf(random.nextInt(1000));
+              case 1 -> String.valueOf(-1 - random.nextInt(1000));
+              default -> "0x" + Ascii.toUpperCase(Integer.toHexString(random.nextInt(0x10000)));
+            };
+        case "Float" ->
+            (random.nextBoolean() ? "-" : "") + random.nextInt(100) + "." + random.nextInt(10);
+        case "Bool" -> random.nextBoolean() ? "True" : "False";
+        case "String" -> "\"Label " + random.nextInt(100) + " \\\"quoted\\\"\\n\"";
+        default ->
+            switch (random.nextInt(3)) {
+              case 0 -> "None";
+              case 1 -> "Self";
+              default -> hasParent ? "Parent" : "None";
+            };
+      };
+    }
+
+    private String pick(String[] values) {
+      return values[random.nextInt(values.length)];
+    }
+
+    private String pick(List<String> values) {
+      return values.get(random.nextInt(values.size()));
+    }
+
+    @FormatMethod
+    private void line(@FormatString String format, Object... args) {
+      source.append("  ".repeat(indent)).append(String.format(format, args)).append('\n');
+    }
+  }
+
+  /** A builder of {@link CorpusGenerator CorpusGenerators}. */
+  public static final class Builder {
+    private long seed = 0;
+    private int scriptCount = 100;
+    private int libraryCount = 4;
+    private int importsPerScript = 2;
+    private int maximumExtendsDepth = 8;
+    private int maximumNestingDepth = 3;
+    private int maximumExpressionDepth = 4;
+    private SizeDistribution sizeDistribution = SizeDistribution.longTailed(6, 400);
+
+    private Builder() {}
+
+    /** Sets the seed that every script is generated from (defaults to {@code 0}). */
+    @CanIgnoreReturnValue
+    public Builder setSeed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    /** Sets the number of scripts in the corpus (defaults to {@code 100}). */
+    @CanIgnoreReturnValue
+    public Builder setScriptCount(int scriptCount) {
+      checkArgument(scriptCount > 0, "CorpusGenerator passed a non-positive scriptCount.");
+      this.scriptCount = scriptCount;
+      return this;
+    }
+
+    /** Sets the number of library scripts that others import (defaults to {@code 4}). */
+    @CanIgnoreReturnValue
+    public Builder setLibraryCount(int libraryCount) {
+      checkArgument(libraryCount >= 0, "CorpusGenerator passed a negative libraryCount.");
+      this.libraryCount = libraryCount;
+      return this;
+    }
+
+    /** Sets the number of libraries that every other script imports (defaults to {@code 2}). */
+    @CanIgnoreReturnValue
+    public Builder setImportsPerScript(int importsPerScript) {
+      checkArgument(importsPerScript >= 0, "CorpusGenerator passed a negative importsPerScript.");
+      this.importsPerScript = importsPerScript;
+      return this;
+    }
+
+    /** Sets the number of ancestors of the deepest script in a chain (defaults to {@code 8}). */
+    @CanIgnoreReturnValue
+    public Builder setMaximumExtendsDepth(int maximumExtendsDepth) {
+      checkArgument(
+          maximumExtendsDepth >= 0, "CorpusGenerator passed a negative maximumExtendsDepth.");
+      this.maximumExtendsDepth = maximumExtendsDepth;
+      return this;
+    }
+
+    /** Sets how deeply {@code If} and {@code While} statements nest (defaults to {@code 3}). */
+    @CanIgnoreReturnValue
+    public Builder setMaximumNestingDepth(int maximumNestingDepth) {
+      checkArgument(
+          maximumNestingDepth >= 0, "CorpusGenerator passed a negative maximumNestingDepth.");
+      this.maximumNestingDepth = maximumNestingDepth;
+      return this;
+    }
+
+    /** Sets how deeply expressions nest (defaults to {@code 4}). */
+    @CanIgnoreReturnValue
+    public Builder setMaximumExpressionDepth(int maximumExpressionDepth) {
+      checkArgument(
+          maximumExpressionDepth >= 0, "CorpusGenerator passed a negative maximumExpressionDepth.");
+      this.maximumExpressionDepth = maximumExpressionDepth;
+      return this;
+    }
+
+    /**
+     * Sets the distribution of the number of declarations in each script (defaults to a long
+     * tailed distribution with a median of {@code 6}).
+     */
+    @CanIgnoreReturnValue
+    public Builder setSizeDistribution(SizeDistribution sizeDistribution) {
+      this.sizeDistribution = sizeDistribution;
+      return this;
+    }
+
+    /** Returns a new {@link CorpusGenerator} with this configuration. */
+    public CorpusGenerator build() {
+      return new CorpusGenerator(this);
+    }
+  }
+}
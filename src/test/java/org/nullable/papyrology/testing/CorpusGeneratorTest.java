@@ -0,0 +1,218 @@
+package org.nullable.papyrology.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.nullable.papyrology.ast.Script;
+import org.nullable.papyrology.ast.ScriptParser;
+import org.nullable.papyrology.ast.symbol.SymbolTable;
+import org.nullable.papyrology.grammar.PapyrusLexer;
+import org.nullable.papyrology.grammar.PapyrusParser;
+import org.nullable.papyrology.source.file.FileSystemBasedSourceFileLoader;
+import org.nullable.papyrology.testing.CorpusGenerator.SizeDistribution;
+
+@RunWith(JUnit4.class)
+public class CorpusGeneratorTest {
+
+  private static final CorpusGenerator CORPUS =
+      CorpusGenerator.builder().setSeed(42).setScriptCount(40).build();
+
+  @Test
+  public void source_isDeterministic() {
+    CorpusGenerator other = CorpusGenerator.builder().setSeed(42).setScriptCount(40).build();
+
+    for (int i = 0; i < CORPUS.scriptCount(); i++) {
+      assertThat(other.source(i)).isEqualTo(CORPUS.source(i));
+    }
+  }
+
+  @Test
+  public void source_dependsOnSeed() {
+    CorpusGenerator other = CorpusGenerator.builder().setSeed(43).setScriptCount(40).build();
+
+    assertThat(other.source(10)).isNotEqualTo(CORPUS.source(10));
+  }
+
+  @Test
+  public void source_parsesAndBuildsSymbolTable() {
+    ScriptParser parser = ScriptParser.create();
+    List<Script> scripts = new ArrayList<>();
+    for (int i = 0; i < CORPUS.scriptCount(); i++) {
+      scripts.add(parser.parse(CORPUS.source(i)));
+    }
+    SymbolTable symbolTable = SymbolTable.create();
+
+    assertThat(symbolTable.upsertAll(scripts)).isEqualTo(0);
+    assertThat(symbolTable.upsertAll(scripts)).isEqualTo(CORPUS.scriptCount());
+    assertThat(symbolTable.dependents(CORPUS.name(0))).isNotEmpty();
+  }
+
+  @Test
+  public void source_coversEveryParserAlternative() {
+    Set<Class<?>> visited = new HashSet<>();
+    for (int i = 0; i < CORPUS.scriptCount(); i++) {
+      ParseTreeWalker.DEFAULT.walk(new ContextCollector(visited), parse(CORPUS.source(i)));
+    }
+
+    // Labeled alternatives are instantiated as subclasses of their rule's context, which itself
+    // never appears in a parse tree.
+    List<Class<?>> contexts =
+        Arrays.stream(PapyrusParser.class.getDeclaredClasses())
+            .filter(ParserRuleContext.class::isAssignableFrom)
+            .toList();
+    ImmutableSet<Class<?>> expected =
+        contexts.stream()
+            .filter(c -> contexts.stream().noneMatch(d -> d.getSuperclass().equals(c)))
+            .collect(ImmutableSet.toImmutableSet());
+    assertThat(visited).containsAtLeastElementsIn(expected);
+  }
+
+  @Test
+  public void source_coversEveryToken() {
+    Set<Integer> seen = new HashSet<>();
+    for (int i = 0; i < CORPUS.scriptCount(); i++) {
+      PapyrusLexer lexer = new PapyrusLexer(CharStreams.fromString(CORPUS.source(i)));
+      for (Token token : lexer.getAllTokens()) {
+        seen.add(token.getType());
+      }
+    }
+
+    // Braces only ever appear within doc comments, and the remaining rules are skipped.
+    ImmutableList<Integer> unused =
+        ImmutableList.of(
+            PapyrusLexer.S_LCURLY,
+            PapyrusLexer.S_RCURLY,
+            PapyrusLexer.LINE_BREAK,
+            PapyrusLexer.WS,
+            PapyrusLexer.LINE_COMMENT,
+            PapyrusLexer.BLOCK_COMMENT);
+    for (int type = 1; type <= PapyrusLexer.VOCABULARY.getMaxTokenType(); type++) {
+      if (!unused.contains(type)) {
+        assertWithMessage(PapyrusLexer.VOCABULARY.getSymbolicName(type))
+            .that(seen)
+            .contains(type);
+      }
+    }
+  }
+
+  @Test
+  public void parentIndex_formsChainsOfMaximumDepth() {
+    CorpusGenerator corpus =
+        CorpusGenerator.builder()
+            .setScriptCount(20)
+            .setLibraryCount(2)
+            .setMaximumExtendsDepth(3)
+            .build();
+
+    int deepest = 0;
+    for (int i = 0; i < corpus.scriptCount(); i++) {
+      int depth = 0;
+      for (int parent = corpus.parentIndex(i); parent >= 0; parent = corpus.parentIndex(parent)) {
+        assertThat(corpus.isLibrary(parent)).isFalse();
+        depth++;
+      }
+      deepest = Math.max(deepest, depth);
+    }
+    assertThat(deepest).isEqualTo(3);
+    assertThat(corpus.source(3)).contains("ScriptName Script03 Extends Script02");
+  }
+
+  @Test
+  public void source_importsLibraries() {
+    CorpusGenerator corpus =
+        CorpusGenerator.builder()
+            .setScriptCount(50)
+            .setLibraryCount(2)
+            .setImportsPerScript(2)
+            .build();
+
+    for (int i = 2; i < corpus.scriptCount(); i++) {
+      assertThat(corpus.source(i)).contains("Import Script00\n");
+      assertThat(corpus.source(i)).contains("Import Script01\n");
+    }
+  }
+
+  @Test
+  public void sizeDistribution_controlsScriptSize() {
+    CorpusGenerator small =
+        CorpusGenerator.builder().setSizeDistribution(SizeDistribution.fixed(1)).build();
+    CorpusGenerator large =
+        CorpusGenerator.builder().setSizeDistribution(SizeDistribution.fixed(200)).build();
+
+    assertThat(large.source(50).length()).isGreaterThan(20 * small.source(50).length());
+  }
+
+  @Test
+  public void names_scalesLazily() {
+    CorpusGenerator corpus = CorpusGenerator.builder().setScriptCount(100_000).build();
+
+    assertThat(corpus.names()).hasSize(100_000);
+    assertThat(corpus.names().get(99_999)).isEqualTo("Script99999");
+    Script script = ScriptParser.create().parse(corpus.source(99_999));
+    assertThat(script.header().scriptIdentifier().value()).isEqualTo("Script99999");
+  }
+
+  @Test
+  public void writeTo_writesEveryScript() throws IOException {
+    FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+
+    CORPUS.writeTo(fs.getPath("/scripts"));
+
+    FileSystemBasedSourceFileLoader loader = FileSystemBasedSourceFileLoader.create(fs, "/scripts");
+    assertThat(loader.identifiers())
+        .containsExactlyElementsIn(
+            CORPUS.names().stream().map(name -> name.toUpperCase(Locale.US)).toList());
+    assertThat(loader.load("Script07").getContent()).isEqualTo(CORPUS.source(7));
+  }
+
+  private static PapyrusParser.ScriptContext parse(String source) {
+    PapyrusLexer lexer = new PapyrusLexer(CharStreams.fromString(source));
+    return new PapyrusParser(new CommonTokenStream(lexer)).script();
+  }
+
+  /** Records the class of every context in a parse tree. */
+  private static final class ContextCollector implements ParseTreeListener {
+    private final Set<Class<?>> visited;
+
+    ContextCollector(Set<Class<?>> visited) {
+      this.visited = visited;
+    }
+
+    @Override
+    public void enterEveryRule(ParserRuleContext ctx) {
+      visited.add(ctx.getClass());
+    }
+
+    @Override
+    public void exitEveryRule(ParserRuleContext ctx) {}
+
+    @Override
+    public void visitTerminal(TerminalNode node) {}
+
+    @Override
+    public void visitErrorNode(ErrorNode node) {}
+  }
+}